@@ -0,0 +1,110 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode throughput of every protocol decoder over the {@link IrCorpus}, one operation is one frame.
+ *
+ * <p>Every decoder gets all frames of the corpus, so the result includes how fast it rejects the frames of the
+ * other protocols. {@code Stream} runs all decoders together like the capture does. Run with
+ * {@code mvn -Pjmh test-compile exec:exec}, which adds the {@code gc} profiler to show the allocation per frame;
+ * that should stay 0. Use a recorded trace as corpus with
+ * {@code -Djmh.args="IrDecoderBenchmark -p trace=ir-trace.bin"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IrDecoderBenchmark {
+
+    @Param({"SIRC", "NEC", "Samsung32", "RC5", "RC6", "Raw", "Stream"})
+    private String protocol;
+
+    @Param({""})
+    private String trace;
+
+    private int[][] frames;
+    private IrDecoder decoder;
+    private IrStreamDecoder streamDecoder;
+    private int next = 0;
+
+    @Setup
+    public void setup() throws IOException {
+        frames = IrCorpus.load(trace);
+        streamDecoder = new IrStreamDecoder(List.of(new SonySircDecoder(), new NecDecoder(),
+                new Samsung32Decoder(), new Rc5Decoder(), new Rc6Decoder()), new RawDecoder());
+        decoder = switch (protocol) {
+            case "SIRC" -> new SonySircDecoder();
+            case "NEC" -> new NecDecoder();
+            case "Samsung32" -> new Samsung32Decoder();
+            case "RC5" -> new Rc5Decoder();
+            case "RC6" -> new Rc6Decoder();
+            case "Raw" -> new RawDecoder();
+            default -> null;
+        };
+    }
+
+    /**
+     * Feeds the pulses one by one, like the capture does while the frame arrives.
+     */
+    @Benchmark
+    public int feed() {
+        int[] pulses = nextFrame();
+        if (decoder == null) {
+            streamDecoder.reset();
+            boolean decoded = false;
+            for (int i = 0; i < pulses.length && !decoded; i++) {
+                decoded = streamDecoder.feed(pulses[i]);
+            }
+            if (!decoded) {
+                streamDecoder.end();
+            }
+            return streamDecoder.code();
+        }
+        decoder.reset();
+        for (int pulse : pulses) {
+            var result = decoder.feed(pulse);
+            if (result == IrDecoder.Result.DONE) {
+                return decoder.code();
+            } else if (result == IrDecoder.Result.FAILED) {
+                return -1;
+            }
+        }
+        return decoder.end() == IrDecoder.Result.DONE ? decoder.code() : -1;
+    }
+
+    /**
+     * Decodes the complete frame at once.
+     */
+    @Benchmark
+    public int decode() {
+        int[] pulses = nextFrame();
+        if (decoder == null) {
+            // The stream decoder has no batch variant
+            return -1;
+        }
+        return decoder.decode(pulses, pulses.length);
+    }
+
+    private int[] nextFrame() {
+        var pulses = frames[next];
+        next = next + 1 == frames.length ? 0 : next + 1;
+        return pulses;
+    }
+}
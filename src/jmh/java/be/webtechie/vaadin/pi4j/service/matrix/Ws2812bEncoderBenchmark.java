@@ -0,0 +1,62 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to encode one frame into the WS2812B bitstream, divide by {@code leds} for the time per LED.
+ *
+ * <p>The pixels are random colors, so every color byte takes another entry of the table. {@code 64} is the 8x8
+ * matrix, the longer chains show whether the time per LED stays the same. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="Ws2812bEncoderBenchmark"}, the {@code gc} profiler shows
+ * the allocation per frame, which should stay 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Ws2812bEncoderBenchmark {
+
+    @Param({"64", "256", "1024"})
+    private int leds;
+
+    private Ws2812bEncoder encoder;
+    private int[] pixels;
+
+    @Setup
+    public void setup() {
+        encoder = new Ws2812bEncoder(leds, Ws2812bEncoder.DEFAULT_GAMMA);
+        encoder.setBrightness(0.1);
+        pixels = new Random(42).ints(leds, 0, 0x1000000).toArray();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        encoder.encode(pixels);
+        return encoder.buffer();
+    }
+
+    /**
+     * Includes rebuilding the table, like the first frame after the brightness changed.
+     */
+    @Benchmark
+    public byte[] encodeAfterBrightnessChange() {
+        encoder.setBrightness(0.1);
+        encoder.encode(pixels);
+        return encoder.buffer();
+    }
+}
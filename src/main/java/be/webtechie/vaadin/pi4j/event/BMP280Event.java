@@ -5,7 +5,7 @@ import be.webtechie.vaadin.pi4j.service.bmp280.BMP280;
 /**
  * Event published when new BMP280 sensor readings are available.
  */
-public class BMP280Event extends HardwareEvent {
+public class BMP280Event extends HardwareEvent implements ReplayableEvent {
 
     private final BMP280.Measurement measurement;
 
@@ -2,23 +2,39 @@ package be.webtechie.vaadin.pi4j.event;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSessionState;
 import com.vaadin.flow.shared.Registration;
-import org.springframework.context.ApplicationEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * Bridges Spring application events to Vaadin UI components.
+ * Bridges hardware events to Vaadin UI components.
  *
- * <p>Services publish events using Spring's {@code ApplicationEventPublisher}.
+ * <p>Services publish events using the {@link HardwareEventPublisher}, this bus is one of its consumers.
  * Views subscribe to specific event types using this bus, which handles:
  * <ul>
- *   <li>Type-safe event filtering</li>
- *   <li>Automatic UI.access() for thread safety</li>
+ *   <li>Type-safe event filtering, indexed by event class so only matching subscriptions are visited</li>
+ *   <li>Automatic UI.access() for thread safety, with all pending events of a UI handled in one access</li>
+ *   <li>Ordered delivery: every UI is a serial queue with its own virtual thread, so events reach a view
+ *   in the order they were published, while different UIs are updated in parallel</li>
+ *   <li>A bounded queue per subscription with a configurable {@link OverflowPolicy}, and optional
+ *   conflation for state snapshots, so a slow client only receives the newest value</li>
+ *   <li>Replay of the last {@link ReplayableEvent} of the subscribed type, so a view shows the current state
+ *   as soon as it attaches</li>
  *   <li>Automatic subscription cleanup on component detach</li>
  * </ul>
  *
@@ -36,17 +52,46 @@ import java.util.function.Consumer;
  *     temperatureGauge.setTemperature(event.getMeasurement().temperature());
  * }
  * }</pre>
+ *
+ * <p>The property {@code eventbus.frame-interval-ms} defines how long events for a UI are collected before
+ * they are delivered together. With the default of 0, events are delivered as soon as they arrive.
+ * The property {@code eventbus.queue-capacity} defines the queue size of subscriptions without own
+ * {@link DeliveryOptions}, which drop the oldest event when full. Queued and dropped events are counted
+ * per event type and available through {@link #getMetrics()}.
+ *
+ * <p>Subscriptions of browser tabs which were closed without a clean detach are evicted by a periodic sweep,
+ * every {@code eventbus.sweep-interval-ms}. A UI is considered dead when it is closing, its session is no
+ * longer open, or {@code UI.access()} failed {@value #MAX_CONSECUTIVE_FAILURES} times in a row.
  */
 @Service
 public class ComponentEventBus {
 
-    private final CopyOnWriteArrayList<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private static final Logger logger = LoggerFactory.getLogger(ComponentEventBus.class);
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
 
-    private record Subscription<T>(
-            UI ui,
-            Class<T> eventType,
-            Consumer<T> listener
-    ) {}
+    private final SubscriptionRegistry subscriptions = new SubscriptionRegistry();
+    private final ConcurrentHashMap<UI, UiDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, HardwareEvent> lastValues = new ConcurrentHashMap<>();
+    private final ExecutorService dispatchExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ui-dispatch-", 0).factory());
+    private final TaskScheduler taskScheduler;
+    private final Duration frameInterval;
+    private final DeliveryOptions defaultOptions;
+    private final EventBusMetrics metrics = new EventBusMetrics();
+    private final ScheduledFuture<?> sweeper;
+
+    public ComponentEventBus(HardwareEventPublisher eventPublisher, TaskScheduler taskScheduler,
+                             @Value("${eventbus.frame-interval-ms:0}") long frameIntervalMs,
+                             @Value("${eventbus.queue-capacity:" + DeliveryOptions.DEFAULT_CAPACITY + "}") int queueCapacity,
+                             @Value("${eventbus.sweep-interval-ms:30000}") long sweepIntervalMs) {
+        this.taskScheduler = taskScheduler;
+        this.frameInterval = Duration.ofMillis(Math.max(0, frameIntervalMs));
+        this.defaultOptions = DeliveryOptions.dropOldest(Math.max(1, queueCapacity));
+        eventPublisher.addConsumer("component-event-bus", (event, sequence, endOfBatch) -> onHardwareEvent(event));
+        var sweepInterval = Duration.ofMillis(Math.max(1000, sweepIntervalMs));
+        this.sweeper = taskScheduler.scheduleWithFixedDelay(this::evictDeadSubscriptions,
+                Instant.now().plus(sweepInterval), sweepInterval);
+    }
 
     /**
      * Subscribe a component to a specific event type.
@@ -61,50 +106,161 @@ public class ComponentEventBus {
      * @param <T> The event type
      */
     public <T> void subscribe(Component component, Class<T> eventType, Consumer<T> listener) {
+        subscribe(component, eventType, listener, defaultOptions);
+    }
+
+    /**
+     * Subscribe a component to a specific event type, with a custom queue size and overflow policy.
+     *
+     * @param component The Vaadin component (typically the view itself)
+     * @param eventType The event class to subscribe to
+     * @param listener The type-safe event handler
+     * @param options Queue size and overflow policy for this subscription
+     * @param <T> The event type
+     */
+    public <T> void subscribe(Component component, Class<T> eventType, Consumer<T> listener, DeliveryOptions options) {
+        var counters = metrics.forType(eventType);
+        subscribe(component, ui -> new Subscription<>(ui, eventType, listener, options, counters));
+    }
+
+    /**
+     * Subscribe a component to the latest value of a specific event type.
+     *
+     * <p>Use this for events which are state snapshots, like sensor measurements. When a newer event
+     * arrives before the previous one has been delivered to the UI, the older one is replaced, so a
+     * slow client never builds up a backlog of outdated values.
+     *
+     * @param component The Vaadin component (typically the view itself)
+     * @param eventType The event class to subscribe to
+     * @param listener The type-safe event handler
+     * @param <T> The event type
+     */
+    public <T> void subscribeLatest(Component component, Class<T> eventType, Consumer<T> listener) {
+        subscribe(component, eventType, listener, DeliveryOptions.conflate());
+    }
+
+    /**
+     * Returns the queued, delivered and dropped counters per subscribed event type.
+     */
+    public List<EventTypeMetrics> getMetrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Returns the number of active subscriptions.
+     */
+    public int getSubscriptionCount() {
+        return subscriptions.all().size();
+    }
+
+    /**
+     * Returns the number of subscriptions which were removed by the sweep because their UI was dead.
+     */
+    public long getEvictedSubscriptionCount() {
+        return metrics.evicted.sum();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        sweeper.cancel(false);
+        dispatchExecutor.shutdownNow();
+    }
+
+    private void subscribe(Component component, Function<UI, Subscription<?>> subscriptionFactory) {
         // Handle case where component is already attached
         component.getUI().ifPresentOrElse(
-                ui -> registerSubscription(component, ui, eventType, listener),
+                ui -> registerSubscription(component, ui, subscriptionFactory.apply(ui)),
                 () -> {
                     // Not attached yet - wait for attach
                     component.addAttachListener(attachEvent ->
-                            registerSubscription(component, attachEvent.getUI(), eventType, listener));
+                            registerSubscription(component, attachEvent.getUI(),
+                                    subscriptionFactory.apply(attachEvent.getUI())));
                 }
         );
     }
 
-    private <T> void registerSubscription(
-            Component component, UI ui, Class<T> eventType, Consumer<T> listener) {
-        var subscription = new Subscription<>(ui, eventType, listener);
+    private void registerSubscription(Component component, UI ui, Subscription<?> subscription) {
+        var dispatcher = dispatchers.computeIfAbsent(ui, key -> {
+            // One dispatcher per UI, removed again when the UI itself goes away
+            key.addDetachListener(e -> dispatchers.remove(key));
+            return new UiDispatcher(key, dispatchExecutor, taskScheduler, frameInterval, MAX_CONSECUTIVE_FAILURES);
+        });
+
         subscriptions.add(subscription);
+        replayLastValue(subscription, dispatcher);
 
         // Auto-cleanup on detach
         Registration[] detachReg = new Registration[1];
         detachReg[0] = component.addDetachListener(e -> {
             subscriptions.remove(subscription);
+            subscription.discard();
             detachReg[0].remove();
         });
     }
 
     /**
-     * Receives Spring application events and dispatches to subscribed Vaadin components.
-     * Runs asynchronously to avoid blocking the publishing threads.
+     * Receives hardware events and dispatches to subscribed Vaadin components.
+     * Runs on the consumer thread of the ring buffer, so the publishing threads are never blocked.
      */
-    @Async
-    @EventListener
-    public void onApplicationEvent(ApplicationEvent event) {
-        for (var sub : subscriptions) {
-            if (sub.eventType.isInstance(event)) {
-                dispatch(sub, event);
-            }
+    private void onHardwareEvent(HardwareEvent event) {
+        if (event instanceof ReplayableEvent) {
+            lastValues.put(event.getClass(), event);
         }
+        subscriptions.forEachMatching(event.getClass(), sub -> dispatch(sub, event));
     }
 
     @SuppressWarnings("unchecked")
     private <T> void dispatch(Subscription<T> sub, Object event) {
-        try {
-            sub.ui.access(() -> sub.listener.accept((T) event));
-        } catch (Exception e) {
-            // UI might be detached or closed, ignore
+        var dispatcher = dispatchers.get(sub.ui());
+        if (dispatcher != null && sub.offer((T) event)) {
+            dispatcher.submit(sub::drain);
+        }
+    }
+
+    /**
+     * Queues the last value of the subscribed type, if any, on the dispatcher of the UI. The value is only looked
+     * up when the delivery runs, and skipped if a live event got delivered first, so a replay never overwrites a
+     * newer value.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void replayLastValue(Subscription<T> subscription, UiDispatcher dispatcher) {
+        if (!ReplayableEvent.class.isAssignableFrom(subscription.eventType())) {
+            return;
+        }
+        dispatcher.submit(() -> {
+            var event = lastValues.get(subscription.eventType());
+            if (event != null) {
+                subscription.replay((T) event);
+            }
+        });
+    }
+
+    /**
+     * Removes the subscriptions and dispatchers of UIs which went away without detaching, so they are
+     * no longer visited for every event and the UI can be garbage collected.
+     */
+    private void evictDeadSubscriptions() {
+        int evicted = 0;
+        for (var subscription : subscriptions.all()) {
+            if (isDead(subscription.ui())) {
+                subscriptions.remove(subscription);
+                subscription.discard();
+                evicted++;
+            }
+        }
+        dispatchers.keySet().removeIf(this::isDead);
+        if (evicted > 0) {
+            metrics.evicted.add(evicted);
+            logger.info("Evicted {} subscriptions of closed UIs", evicted);
+        }
+    }
+
+    private boolean isDead(UI ui) {
+        var dispatcher = dispatchers.get(ui);
+        if (dispatcher == null || dispatcher.getConsecutiveFailures() >= MAX_CONSECUTIVE_FAILURES) {
+            return true;
         }
+        var session = ui.getSession();
+        return ui.isClosing() || session == null || session.getState() != VaadinSessionState.OPEN;
     }
 }
@@ -0,0 +1,44 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import java.time.Duration;
+
+/**
+ * Defines how events are queued for a single subscription on the {@link ComponentEventBus}.
+ *
+ * @param policy       What to do when the queue is full
+ * @param capacity     Maximum number of events waiting to be delivered to the UI
+ * @param blockTimeout Only for {@link OverflowPolicy#BLOCK}: maximum time an event waits for room in the queue
+ */
+public record DeliveryOptions(OverflowPolicy policy, int capacity, Duration blockTimeout) {
+
+    /**
+     * Default queue size for subscriptions which don't specify their own options.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    public DeliveryOptions {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy is required");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        blockTimeout = blockTimeout == null ? Duration.ZERO : blockTimeout;
+    }
+
+    public static DeliveryOptions dropOldest(int capacity) {
+        return new DeliveryOptions(OverflowPolicy.DROP_OLDEST, capacity, Duration.ZERO);
+    }
+
+    public static DeliveryOptions dropNewest(int capacity) {
+        return new DeliveryOptions(OverflowPolicy.DROP_NEWEST, capacity, Duration.ZERO);
+    }
+
+    public static DeliveryOptions conflate() {
+        return new DeliveryOptions(OverflowPolicy.CONFLATE, 1, Duration.ZERO);
+    }
+
+    public static DeliveryOptions block(int capacity, Duration timeout) {
+        return new DeliveryOptions(OverflowPolicy.BLOCK, capacity, timeout);
+    }
+}
@@ -3,7 +3,7 @@ package be.webtechie.vaadin.pi4j.event;
 /**
  * Event published when new DHT11 sensor readings are available.
  */
-public class DhtMeasurementEvent extends HardwareEvent {
+public class DhtMeasurementEvent extends HardwareEvent implements ReplayableEvent {
 
     private final double temperature;
     private final double humidity;
@@ -0,0 +1,38 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Backpressure counters of the {@link ComponentEventBus}, kept per subscribed event type.
+ * Each subscription holds a reference to the counters of its type, so updating them doesn't need a lookup.
+ */
+class EventBusMetrics {
+
+    private final ConcurrentHashMap<Class<?>, Counters> byType = new ConcurrentHashMap<>();
+    final LongAdder evicted = new LongAdder();
+
+    static final class Counters {
+        final LongAdder queued = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder pending = new LongAdder();
+    }
+
+    Counters forType(Class<?> eventType) {
+        return byType.computeIfAbsent(eventType, key -> new Counters());
+    }
+
+    List<EventTypeMetrics> snapshot() {
+        return byType.entrySet().stream()
+                .map(e -> new EventTypeMetrics(e.getKey().getSimpleName(),
+                        e.getValue().queued.sum(),
+                        e.getValue().delivered.sum(),
+                        e.getValue().dropped.sum(),
+                        e.getValue().pending.sum()))
+                .sorted(Comparator.comparing(EventTypeMetrics::eventType))
+                .toList();
+    }
+}
@@ -0,0 +1,14 @@
+package be.webtechie.vaadin.pi4j.event;
+
+/**
+ * Snapshot of the delivery counters of the {@link ComponentEventBus} for one subscribed event type,
+ * summed over all subscriptions for that type.
+ *
+ * @param eventType Simple name of the subscribed event class
+ * @param queued    Total number of events accepted in a subscription queue
+ * @param delivered Total number of events handed to a listener
+ * @param dropped   Total number of events dropped because a subscription queue was full
+ * @param pending   Number of events currently waiting in a subscription queue
+ */
+public record EventTypeMetrics(String eventType, long queued, long delivered, long dropped, long pending) {
+}
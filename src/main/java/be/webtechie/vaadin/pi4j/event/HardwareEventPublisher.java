@@ -0,0 +1,53 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes {@link HardwareEvent}s from the hardware services to their consumers through a
+ * {@link HardwareEventRingBuffer}, instead of Spring's {@code ApplicationEventPublisher}.
+ *
+ * <p>The {@link ComponentEventBus} is the main consumer and forwards the events to the views.
+ * Services which need to react on events of other services register their own consumer.
+ *
+ * <p>The size of the buffer can be configured with the property {@code hardware-events.buffer-size}.
+ */
+@Service
+public class HardwareEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(HardwareEventPublisher.class);
+
+    private final HardwareEventRingBuffer ringBuffer;
+
+    public HardwareEventPublisher(@Value("${hardware-events.buffer-size:1024}") int bufferSize) {
+        this.ringBuffer = new HardwareEventRingBuffer(bufferSize);
+        logger.info("Hardware event ring buffer created with {} slots", ringBuffer.getCapacity());
+    }
+
+    /**
+     * Publishes the event to all consumers.
+     */
+    public void publish(HardwareEvent event) {
+        ringBuffer.publish(event);
+    }
+
+    /**
+     * Registers a consumer which receives all events published from now on, on its own thread.
+     *
+     * @param name    Name of the consumer
+     * @param handler Event handler
+     * @return Runnable which stops the consumer
+     */
+    public Runnable addConsumer(String name, HardwareEventRingBuffer.Handler handler) {
+        logger.info("Adding hardware event consumer {}", name);
+        return ringBuffer.addConsumer(name, handler);
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        ringBuffer.shutdown();
+    }
+}
@@ -0,0 +1,245 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-size ring buffer which hands {@link HardwareEvent}s from the publishing services to one or more consumers.
+ *
+ * <p>The slots and their sequence markers are allocated once. Publishing claims the next sequence, stores the
+ * event in the slot and marks the slot as published; no listener lookup or wrapper object is needed per event.
+ * Every consumer runs on its own thread, follows the buffer with its own sequence and handles everything that
+ * has been published since its last run as one batch. A publisher only waits when the slowest consumer is a
+ * full buffer behind.
+ *
+ * <p>Once the slowest consumer has passed a slot, the slot is cleared before it's handed back to the
+ * publishers, so the buffer doesn't keep old events reachable.
+ *
+ * <p>Sequences are claimed atomically, so multiple services can publish from their own threads
+ * (GPIO listeners, scheduler, IR loop) at the same time.
+ */
+public class HardwareEventRingBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HardwareEventRingBuffer.class);
+    private static final int SPIN_TRIES = 100;
+    private static final long MAX_PARK_NANOS = 10_000_000; // Safety net in case a wake-up is missed
+
+    private final int capacity;
+    private final int mask;
+    private final HardwareEvent[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // Highest sequence of which the slot was cleared, slots up to here can be reused by publishers
+    private final AtomicLong cleared = new AtomicLong(-1);
+    private final AtomicBoolean clearing = new AtomicBoolean(false);
+    private final CopyOnWriteArrayList<ConsumerLoop> consumers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Handles the events of a consumer, called on the thread of that consumer.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param event      The published event
+         * @param sequence   Sequence number of the event in the buffer
+         * @param endOfBatch True for the last event which was available when this batch started
+         */
+        void onEvent(HardwareEvent event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * @param capacity Number of slots, rounded up to the next power of two
+     */
+    public HardwareEventRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new HardwareEvent[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Publishes an event to all consumers. Waits while the slowest consumer is a full buffer behind.
+     */
+    public void publish(HardwareEvent event) {
+        long sequence = claimed.incrementAndGet();
+        long wrapPoint = sequence - capacity;
+        while (wrapPoint > cleared.get()) {
+            releaseSlots();
+            if (wrapPoint > cleared.get()) {
+                LockSupport.parkNanos(1_000);
+            }
+        }
+        int index = (int) (sequence & mask);
+        // Consumers added later start after this sequence, so without consumers the event is never read
+        slots[index] = consumers.isEmpty() ? null : event;
+        // The consumer reading this marker is guaranteed to see the event in the slot
+        published.set(index, sequence);
+        for (var consumer : consumers) {
+            consumer.wakeUp();
+        }
+    }
+
+    /**
+     * Starts a new consumer thread, which receives all events published from now on.
+     * A handler must not publish on this buffer itself, as it could end up waiting for its own consumer.
+     *
+     * @param name    Name of the consumer, used for the thread name and logging
+     * @param handler Event handler
+     * @return Runnable which stops the consumer
+     */
+    public Runnable addConsumer(String name, Handler handler) {
+        var consumer = new ConsumerLoop(name, handler, claimed.get());
+        consumers.add(consumer);
+        consumer.thread = Thread.ofVirtual().name("hw-events-" + name).start(consumer);
+        return () -> {
+            consumers.remove(consumer);
+            consumer.stop();
+        };
+    }
+
+    /**
+     * Stops all consumers.
+     */
+    public void shutdown() {
+        for (var consumer : consumers) {
+            consumer.stop();
+        }
+        consumers.clear();
+    }
+
+    /**
+     * Number of slots which still hold an event, for monitoring.
+     */
+    int retainedEvents() {
+        int retained = 0;
+        for (var slot : slots) {
+            if (slot != null) {
+                retained++;
+            }
+        }
+        return retained;
+    }
+
+    /**
+     * Clears the slots which all consumers have passed and hands them back to the publishers. Only one thread
+     * clears at a time, it checks again after clearing, so progress of another consumer in the meantime is
+     * never missed.
+     */
+    private void releaseSlots() {
+        while (cleared.get() < minimumConsumerSequence() && clearing.compareAndSet(false, true)) {
+            try {
+                long from = cleared.get();
+                long upTo = minimumConsumerSequence();
+                // No publisher writes these slots before cleared is moved past them
+                for (long s = Math.max(from + 1, upTo - capacity + 1); s <= upTo; s++) {
+                    slots[(int) (s & mask)] = null;
+                }
+                cleared.set(Math.max(from, upTo));
+            } finally {
+                clearing.set(false);
+            }
+        }
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (var consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum == Long.MAX_VALUE ? claimed.get() : minimum;
+    }
+
+    private final class ConsumerLoop implements Runnable {
+
+        private final String name;
+        private final Handler handler;
+        private final AtomicLong sequence;
+        private volatile boolean running = true;
+        private volatile boolean waiting = false;
+        private volatile Thread thread;
+
+        private ConsumerLoop(String name, Handler handler, long startSequence) {
+            this.name = name;
+            this.handler = handler;
+            this.sequence = new AtomicLong(startSequence);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running) {
+                long next = sequence.get() + 1;
+                long available = highestPublished(next);
+                if (available < next) {
+                    idle = waitForEvents(next, idle);
+                    continue;
+                }
+                idle = 0;
+                for (long s = next; s <= available; s++) {
+                    var event = slots[(int) (s & mask)];
+                    try {
+                        handler.onEvent(event, s, s == available);
+                    } catch (Exception e) {
+                        logger.error("Error in hardware event consumer {}: {}", name, e.getMessage());
+                    }
+                }
+                // Releases the slots of this batch to the publishers
+                sequence.set(available);
+                releaseSlots();
+            }
+        }
+
+        /**
+         * Returns the highest sequence from the given one onwards without gaps.
+         */
+        private long highestPublished(long from) {
+            long upTo = claimed.get();
+            long s = from;
+            while (s <= upTo && published.get((int) (s & mask)) == s) {
+                s++;
+            }
+            return s - 1;
+        }
+
+        private int waitForEvents(long next, int idle) {
+            if (idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return idle + 1;
+            }
+            waiting = true;
+            // Check again after announcing we are waiting, a publisher may have missed the flag
+            if (published.get((int) (next & mask)) != next && running) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            waiting = false;
+            return idle;
+        }
+
+        private void wakeUp() {
+            if (waiting) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+        }
+    }
+}
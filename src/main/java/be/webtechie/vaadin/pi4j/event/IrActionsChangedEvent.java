@@ -0,0 +1,22 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import be.webtechie.vaadin.pi4j.service.ir.IrActionMapping;
+
+import java.util.List;
+
+/**
+ * Event published when the mappings of IR codes to actions are changed.
+ */
+public class IrActionsChangedEvent extends HardwareEvent implements ReplayableEvent {
+
+    private final List<IrActionMapping> mappings;
+
+    public IrActionsChangedEvent(Object source, List<IrActionMapping> mappings) {
+        super(source);
+        this.mappings = List.copyOf(mappings);
+    }
+
+    public List<IrActionMapping> getMappings() {
+        return mappings;
+    }
+}
@@ -0,0 +1,28 @@
+package be.webtechie.vaadin.pi4j.event;
+
+/**
+ * Defines what the {@link ComponentEventBus} does when the queue of a subscription is full,
+ * because the UI can't keep up with the events being published.
+ */
+public enum OverflowPolicy {
+    /**
+     * Remove the oldest queued event to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Keep the queued events and drop the new one.
+     */
+    DROP_NEWEST,
+    /**
+     * Only keep the newest event, replacing any event which has not been delivered yet.
+     * The queue capacity is ignored for this policy.
+     */
+    CONFLATE,
+    /**
+     * Keep the new event waiting for room in the queue, or drop it when the timeout of the
+     * {@link DeliveryOptions} has passed before the UI takes the queued events. At most as many events as the
+     * capacity can wait. The waiting is done by the subscription, so neither the publishing thread nor the
+     * thread which dispatches the hardware events is ever blocked.
+     */
+    BLOCK
+}
@@ -0,0 +1,10 @@
+package be.webtechie.vaadin.pi4j.event;
+
+/**
+ * Marker for events which describe the current state of a component, like a sensor measurement.
+ *
+ * <p>The {@link ComponentEventBus} keeps the last published event of each of these types and delivers it
+ * immediately to a new subscription, so a view which attaches doesn't have to wait for the next reading.
+ */
+public interface ReplayableEvent {
+}
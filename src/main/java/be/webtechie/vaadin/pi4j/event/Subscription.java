@@ -0,0 +1,195 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import com.vaadin.flow.component.UI;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A single view subscription registered on the {@link ComponentEventBus}.
+ *
+ * <p>Every subscription has its own bounded queue of events waiting to be delivered to the UI. What happens when
+ * that queue is full is defined by the {@link OverflowPolicy} of its {@link DeliveryOptions}. At most one drain of
+ * this queue is waiting on the {@link UiDispatcher} at any time, so a stalled UI can't build up a backlog of
+ * {@code UI.access()} calls either.
+ *
+ * <p>{@link #offer} runs on the shared consumer thread of the hardware events, so it never waits. With
+ * {@link OverflowPolicy#BLOCK}, events which don't fit in the queue wait in an overflow of the same capacity
+ * instead, and are only delivered if the next drain starts within the block timeout.
+ *
+ * @param <T> The event type
+ */
+final class Subscription<T> {
+
+    private final UI ui;
+    private final Class<T> eventType;
+    private final Consumer<T> listener;
+    private final DeliveryOptions options;
+    private final EventBusMetrics.Counters counters;
+    private final ArrayBlockingQueue<T> queue;
+    private final AtomicReference<T> latest;
+    // Only for BLOCK: events waiting for room in the queue, guarded by itself
+    private final ArrayDeque<Waiting<T>> overflow;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private boolean delivered = false; // Only accessed within the session lock
+
+    private record Waiting<T>(T event, long deadlineNanos) {
+    }
+
+    Subscription(UI ui, Class<T> eventType, Consumer<T> listener, DeliveryOptions options,
+                 EventBusMetrics.Counters counters) {
+        this.ui = ui;
+        this.eventType = eventType;
+        this.listener = listener;
+        this.options = options;
+        this.counters = counters;
+        if (options.policy() == OverflowPolicy.CONFLATE) {
+            this.queue = null;
+            this.latest = new AtomicReference<>();
+        } else {
+            this.queue = new ArrayBlockingQueue<>(options.capacity());
+            this.latest = null;
+        }
+        this.overflow = options.policy() == OverflowPolicy.BLOCK ? new ArrayDeque<>() : null;
+    }
+
+    UI ui() {
+        return ui;
+    }
+
+    Class<T> eventType() {
+        return eventType;
+    }
+
+    /**
+     * Adds the event to the queue of this subscription according to the overflow policy.
+     *
+     * @return true if a drain needs to be scheduled on the UI dispatcher
+     */
+    boolean offer(T event) {
+        switch (options.policy()) {
+            case CONFLATE -> {
+                if (latest.getAndSet(event) != null) {
+                    // Replaced an event which was never delivered
+                    counters.dropped.increment();
+                } else {
+                    counters.pending.increment();
+                }
+            }
+            case DROP_NEWEST -> {
+                if (!queue.offer(event)) {
+                    counters.dropped.increment();
+                    return false;
+                }
+                counters.pending.increment();
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) {
+                    if (queue.poll() != null) {
+                        counters.dropped.increment();
+                        counters.pending.decrement();
+                    }
+                }
+                counters.pending.increment();
+            }
+            case BLOCK -> {
+                synchronized (overflow) {
+                    // Once events are waiting, newer ones queue up behind them to keep the order
+                    if (!overflow.isEmpty() || !queue.offer(event)) {
+                        if (overflow.size() >= options.capacity()) {
+                            counters.dropped.increment();
+                            return false;
+                        }
+                        overflow.addLast(new Waiting<>(event, System.nanoTime() + options.blockTimeout().toNanos()));
+                    }
+                }
+                counters.pending.increment();
+            }
+        }
+        counters.queued.increment();
+        return drainScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Delivers all queued events to the listener. Must be called within the session lock of the UI.
+     */
+    void drain() {
+        // Reset first, so events arriving while draining schedule a new drain
+        drainScheduled.set(false);
+        if (latest != null) {
+            var event = latest.getAndSet(null);
+            if (event != null) {
+                deliver(event);
+            }
+            return;
+        }
+        T event;
+        while ((event = queue.poll()) != null || (event = pollOverflow()) != null) {
+            deliver(event);
+        }
+    }
+
+    /**
+     * Returns the oldest waiting event which didn't time out, the timed out events are dropped.
+     */
+    private T pollOverflow() {
+        if (overflow == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        synchronized (overflow) {
+            Waiting<T> waiting;
+            while ((waiting = overflow.pollFirst()) != null) {
+                if (now - waiting.deadlineNanos() <= 0) {
+                    return waiting.event();
+                }
+                counters.pending.decrement();
+                counters.dropped.increment();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Delivers a cached event from before this subscription existed, unless a live event was delivered already.
+     * Must be called within the session lock of the UI.
+     */
+    void replay(T event) {
+        if (!delivered) {
+            delivered = true;
+            counters.delivered.increment();
+            listener.accept(event);
+        }
+    }
+
+    /**
+     * Drops everything still queued, used when the subscription is removed.
+     */
+    void discard() {
+        if (latest != null) {
+            if (latest.getAndSet(null) != null) {
+                counters.pending.decrement();
+            }
+            return;
+        }
+        while (queue.poll() != null) {
+            counters.pending.decrement();
+        }
+        if (overflow != null) {
+            synchronized (overflow) {
+                counters.pending.add(-overflow.size());
+                overflow.clear();
+            }
+        }
+    }
+
+    private void deliver(T event) {
+        counters.pending.decrement();
+        counters.delivered.increment();
+        delivered = true;
+        listener.accept(event);
+    }
+}
@@ -0,0 +1,107 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Subscriptions of the {@link ComponentEventBus}, indexed by the subscribed event class.
+ *
+ * <p>For every concrete event class that gets published, the list of buckets matching its class hierarchy
+ * (superclasses and interfaces) is resolved once and cached. Dispatching an event therefore only touches the
+ * subscriptions that are really interested in it, instead of calling {@code isInstance} on every subscription.
+ *
+ * <p>Buckets are {@link CopyOnWriteArrayList}s which are never removed, so readers never need a lock. The cache
+ * is tagged with a generation counter which is increased each time a bucket for a new event type is created,
+ * which invalidates the resolved hierarchies without having to block the dispatching threads.
+ */
+class SubscriptionRegistry {
+
+    private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<Subscription<?>>> byType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Resolved> resolved = new ConcurrentHashMap<>();
+    private final AtomicInteger generation = new AtomicInteger();
+
+    private record Resolved(int generation, List<CopyOnWriteArrayList<Subscription<?>>> buckets) {
+    }
+
+    void add(Subscription<?> subscription) {
+        var bucket = byType.get(subscription.eventType());
+        if (bucket == null) {
+            var created = new CopyOnWriteArrayList<Subscription<?>>();
+            bucket = byType.putIfAbsent(subscription.eventType(), created);
+            if (bucket == null) {
+                bucket = created;
+                // New event type, previously resolved hierarchies may be missing this bucket
+                generation.incrementAndGet();
+            }
+        }
+        bucket.add(subscription);
+    }
+
+    void remove(Subscription<?> subscription) {
+        var bucket = byType.get(subscription.eventType());
+        if (bucket != null) {
+            bucket.remove(subscription);
+        }
+    }
+
+    /**
+     * Returns a snapshot of all registered subscriptions.
+     */
+    List<Subscription<?>> all() {
+        var all = new ArrayList<Subscription<?>>();
+        byType.values().forEach(all::addAll);
+        return all;
+    }
+
+    /**
+     * Calls the given action for each subscription of which the event type is assignable from the given class.
+     */
+    void forEachMatching(Class<?> eventClass, Consumer<Subscription<?>> action) {
+        for (var bucket : resolve(eventClass)) {
+            for (var subscription : bucket) {
+                action.accept(subscription);
+            }
+        }
+    }
+
+    private List<CopyOnWriteArrayList<Subscription<?>>> resolve(Class<?> eventClass) {
+        var cached = resolved.get(eventClass);
+        int currentGeneration = generation.get();
+        if (cached != null && cached.generation() == currentGeneration) {
+            return cached.buckets();
+        }
+
+        var buckets = new ArrayList<CopyOnWriteArrayList<Subscription<?>>>();
+        for (var type : hierarchyOf(eventClass)) {
+            var bucket = byType.get(type);
+            if (bucket != null) {
+                buckets.add(bucket);
+            }
+        }
+        var result = List.copyOf(buckets);
+        resolved.put(eventClass, new Resolved(currentGeneration, result));
+        return result;
+    }
+
+    private static Set<Class<?>> hierarchyOf(Class<?> eventClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        collect(eventClass, types);
+        return types;
+    }
+
+    private static void collect(Class<?> type, Set<Class<?>> types) {
+        if (type == null || !types.add(type)) {
+            return;
+        }
+        collect(type.getSuperclass(), types);
+        for (var anInterface : type.getInterfaces()) {
+            collect(anInterface, types);
+        }
+    }
+}
@@ -5,7 +5,7 @@ import com.pi4j.io.gpio.digital.DigitalState;
 /**
  * Event published when the touch sensor state changes.
  */
-public class TouchStateEvent extends HardwareEvent {
+public class TouchStateEvent extends HardwareEvent implements ReplayableEvent {
 
     private final DigitalState state;
 
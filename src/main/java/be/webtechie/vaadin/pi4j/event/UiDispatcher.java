@@ -0,0 +1,114 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import com.vaadin.flow.component.UI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the pending deliveries for a single {@link UI} and runs them in one {@code UI.access()} call.
+ *
+ * <p>Every UI acts as its own serial queue: deliveries are taken from one FIFO queue and only run within the
+ * session lock, so the events of a subscription always reach the UI in the order they were published. The
+ * drain itself runs on its own (virtual) thread of the dispatch executor, so different UIs are handled in
+ * parallel and a slow UI never holds up the thread which receives the hardware events.
+ *
+ * <p>With a frame interval of zero, the pending deliveries are drained immediately, which still groups
+ * everything that arrives while a previous access is waiting for the session lock.
+ * With a positive frame interval, the first delivery schedules a drain after that interval and all
+ * deliveries arriving in the meantime are handled in that same access, so at most one session lock
+ * and one push round-trip is needed per UI per frame.
+ *
+ * <p>When {@code UI.access()} fails, the pending deliveries are kept and the drain is retried after
+ * {@link #RETRY_DELAY}, until it failed the maximum number of times in a row. Every subscription submits its
+ * drain only once until it ran, so a dropped delivery would leave that subscription waiting forever.
+ */
+class UiDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(UiDispatcher.class);
+    static final Duration RETRY_DELAY = Duration.ofMillis(500);
+
+    private final UI ui;
+    private final Executor dispatchExecutor;
+    private final TaskScheduler taskScheduler;
+    private final Duration frameInterval;
+    private final int maxConsecutiveFailures;
+    private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    UiDispatcher(UI ui, Executor dispatchExecutor, TaskScheduler taskScheduler, Duration frameInterval,
+                 int maxConsecutiveFailures) {
+        this.ui = ui;
+        this.dispatchExecutor = dispatchExecutor;
+        this.taskScheduler = taskScheduler;
+        this.frameInterval = frameInterval;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    /**
+     * Queues a delivery to be executed within the session lock of this UI.
+     */
+    void submit(Runnable delivery) {
+        pending.add(delivery);
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduleDrain(frameInterval);
+        }
+    }
+
+    /**
+     * Number of drains in a row for which {@code UI.access()} failed, reset by every successful access.
+     */
+    int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    private void drain() {
+        try {
+            ui.access(() -> {
+                // Reset once the access runs, so there is never more than one access waiting for this UI,
+                // while deliveries arriving during this access still schedule the next frame
+                drainScheduled.set(false);
+                consecutiveFailures.set(0);
+                Runnable delivery;
+                while ((delivery = pending.poll()) != null) {
+                    try {
+                        delivery.run();
+                    } catch (Exception e) {
+                        logger.warn("Error while delivering event to UI: {}", e.getMessage());
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // UI might be detached or closed, keep what is pending for the next attempt
+            if (consecutiveFailures.incrementAndGet() < maxConsecutiveFailures) {
+                scheduleDrain(RETRY_DELAY);
+            } else {
+                // Given up, a new delivery tries once more until the UI is evicted
+                logger.debug("UI.access() failed {} times in a row: {}", maxConsecutiveFailures, e.getMessage());
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void scheduleDrain(Duration delay) {
+        try {
+            if (delay.isZero()) {
+                dispatchExecutor.execute(this::drain);
+            } else {
+                taskScheduler.schedule(() -> dispatchExecutor.execute(this::drain), Instant.now().plus(delay));
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down, nothing will be delivered anymore
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package be.webtechie.vaadin.pi4j.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform thread for code which samples or toggles GPIOs with microsecond timing, like the polling IR capture.
+ *
+ * <p>On Linux the thread is pinned to a CPU with {@code taskset} and gets the real-time {@code SCHED_FIFO}
+ * policy with {@code chrt}, or a lower nice value with {@code renice} when that is not permitted. Java has no
+ * API for either, so the commands are run on the thread ID found in {@code /proc/thread-self}. Every step
+ * which fails is logged and skipped, the task runs anyway with what could be applied.
+ *
+ * <p>The number of times the scheduler took the CPU away from the thread is read from the
+ * {@code nonvoluntary_ctxt_switches} of the thread, see {@link #getPreemptions()}.
+ *
+ * <p>Threads are started through {@link TimingCriticalThreads}, which holds the configured settings.
+ */
+public final class TimingCriticalThread {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingCriticalThread.class);
+    private static final Path THREAD_SELF = Path.of("/proc/thread-self");
+    private static final String PREEMPTIONS_FIELD = "nonvoluntary_ctxt_switches:";
+    private static final long COMMAND_TIMEOUT_SECONDS = 2;
+
+    /**
+     * @param cpu          CPU to pin the thread to, or -1 to let the scheduler choose
+     * @param fifoPriority SCHED_FIFO priority 1-99, or 0 to keep the normal policy
+     * @param nice         Nice value used when SCHED_FIFO is not used or not permitted, 0 to keep the default
+     */
+    public record Settings(int cpu, int fifoPriority, int nice) {
+    }
+
+    private final String name;
+    private final Settings settings;
+    private final Thread thread;
+    private volatile Path statusFile;
+    private volatile long initialPreemptions;
+    private volatile String scheduling = "not started";
+
+    TimingCriticalThread(String name, Settings settings, Runnable task) {
+        this.name = name;
+        this.settings = settings;
+        this.thread = Thread.ofPlatform()
+                .name(name)
+                .daemon()
+                .unstarted(() -> {
+                    prepare();
+                    task.run();
+                });
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    public void interrupt() {
+        thread.interrupt();
+    }
+
+    public boolean isAlive() {
+        return thread.isAlive();
+    }
+
+    /**
+     * Describes the CPU and scheduling policy which could be applied, e.g. "CPU 3, SCHED_FIFO 50".
+     */
+    public String getScheduling() {
+        return scheduling;
+    }
+
+    /**
+     * Number of times the thread was preempted since it started, or -1 if this can't be read on this system.
+     * Reads a file in /proc, so don't call it while sampling.
+     */
+    public long getPreemptions() {
+        var file = statusFile;
+        if (file == null) {
+            return -1;
+        }
+        long current = readPreemptions(file);
+        return current < 0 ? -1 : current - initialPreemptions;
+    }
+
+    /**
+     * Applies the settings to the current thread, which is this one.
+     */
+    private void prepare() {
+        String tid;
+        try {
+            // Resolves to /proc/<pid>/task/<tid>
+            var taskDir = THREAD_SELF.toRealPath();
+            tid = taskDir.getFileName().toString();
+            statusFile = taskDir.resolve("status");
+            initialPreemptions = Math.max(0, readPreemptions(statusFile));
+        } catch (IOException e) {
+            scheduling = "default scheduling (no /proc/thread-self)";
+            logger.info("Thread {} runs with default scheduling, thread ID is unknown on this system", name);
+            return;
+        }
+
+        List<String> applied = new ArrayList<>();
+        if (settings.cpu() >= 0 && run("taskset", "-p", "-c", String.valueOf(settings.cpu()), tid)) {
+            applied.add("CPU " + settings.cpu());
+        }
+        if (settings.fifoPriority() > 0
+                && run("chrt", "-f", "-p", String.valueOf(settings.fifoPriority()), tid)) {
+            applied.add("SCHED_FIFO " + settings.fifoPriority());
+        } else if (settings.nice() != 0 && run("renice", "-n", String.valueOf(settings.nice()), "-p", tid)) {
+            applied.add("nice " + settings.nice());
+        }
+        scheduling = applied.isEmpty() ? "default scheduling" : String.join(", ", applied);
+        logger.info("Thread {} (TID {}) runs with {}", name, tid, scheduling);
+    }
+
+    /**
+     * Runs a scheduling command on the thread.
+     *
+     * @return false if the command is missing or failed, e.g. because the priority needs CAP_SYS_NICE
+     */
+    private boolean run(String... command) {
+        try {
+            var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            if (!process.waitFor(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.warn("{} timed out for thread {}", command[0], name);
+                return false;
+            }
+            if (process.exitValue() != 0) {
+                String output = new String(process.getInputStream().readAllBytes()).trim();
+                logger.warn("{} failed for thread {}, continuing without it: {}", command[0], name, output);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("{} not available for thread {}: {}", command[0], name, e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long readPreemptions(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith(PREEMPTIONS_FIELD)) {
+                    return Long.parseLong(line.substring(PREEMPTIONS_FIELD.length()).trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Thread has ended or the field is not available
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,32 @@
+package be.webtechie.vaadin.pi4j.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Starts {@link TimingCriticalThread}s with the settings of the {@code timing-critical.*} properties.
+ *
+ * <p>On a 4-core Pi, pinning these threads to the last CPU and keeping the rest of the application off it
+ * (e.g. with {@code isolcpus=3} on the kernel command line) gives the most regular timing. SCHED_FIFO needs
+ * root or the CAP_SYS_NICE capability, a negative nice value as well.
+ */
+@Service
+public class TimingCriticalThreads {
+
+    private final TimingCriticalThread.Settings settings;
+
+    public TimingCriticalThreads(@Value("${timing-critical.cpu:-1}") int cpu,
+                                 @Value("${timing-critical.fifo-priority:0}") int fifoPriority,
+                                 @Value("${timing-critical.nice:0}") int nice) {
+        this.settings = new TimingCriticalThread.Settings(cpu, fifoPriority, nice);
+    }
+
+    /**
+     * Starts the task on a new timing-critical thread.
+     */
+    public TimingCriticalThread start(String name, Runnable task) {
+        var thread = new TimingCriticalThread(name, settings, task);
+        thread.start();
+        return thread;
+    }
+}
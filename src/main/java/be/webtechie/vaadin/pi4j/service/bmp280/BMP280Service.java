@@ -2,12 +2,12 @@ package be.webtechie.vaadin.pi4j.service.bmp280;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
 import be.webtechie.vaadin.pi4j.event.BMP280Event;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.views.electronics.WeatherView;
 import com.pi4j.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
@@ -17,7 +17,7 @@ import java.util.Random;
 
 /**
  * Service for reading BMP280 barometric pressure and temperature sensor.
- * Publishes readings via Spring ApplicationEventPublisher for UI updates.
+ * Publishes readings via the HardwareEventPublisher for UI updates.
  */
 @Service
 public class BMP280Service {
@@ -26,11 +26,11 @@ public class BMP280Service {
     private static final long POLLING_INTERVAL_MS = 2000; // Poll every 2 seconds
 
     private final BMP280 sensor;
-    private final ApplicationEventPublisher eventPublisher;
+    private final HardwareEventPublisher eventPublisher;
     private final boolean mockMode;
     private final Random random = new Random();
 
-    public BMP280Service(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
+    public BMP280Service(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
         this.eventPublisher = eventPublisher;
 
         if (!config.hasBmp280() || config.getI2cDeviceBmp280() == 0x00) {
@@ -104,7 +104,7 @@ public class BMP280Service {
                 measurement = sensor.read();
                 logger.trace("BMP280: {}", measurement);
             }
-            eventPublisher.publishEvent(new BMP280Event(this, measurement));
+            eventPublisher.publish(new BMP280Event(this, measurement));
         } catch (Exception e) {
             logger.error("Error reading BMP280 sensor: {}", e.getMessage());
         }
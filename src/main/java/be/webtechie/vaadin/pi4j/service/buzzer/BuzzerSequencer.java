@@ -0,0 +1,180 @@
+package be.webtechie.vaadin.pi4j.service.buzzer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Plays {@link Melody} timelines on the buzzer from a scheduler, so no caller thread waits while a note sounds.
+ *
+ * <p>Only one timeline plays at a time, others wait in a queue. Each note is scheduled at the start of the
+ * timeline plus the precomputed end of the note before it, not at the moment the previous step ran, so a late
+ * step doesn't delay the rest of the melody.
+ *
+ * <p>The future of a timeline completes when its last note ends. Cancelling the future stops the timeline,
+ * or removes it from the queue if it didn't start yet.
+ */
+final class BuzzerSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuzzerSequencer.class);
+
+    private final TaskScheduler scheduler;
+    private final IntConsumer output;
+    private final Consumer<PlayNote> noteListener;
+    private final Deque<Timeline> queue = new ArrayDeque<>();
+    private Timeline current;
+
+    /**
+     * @param scheduler    Runs the steps of the timelines
+     * @param output       Plays a frequency in Hz, 0 silences the buzzer
+     * @param noteListener Called when a note starts, not for rests
+     */
+    BuzzerSequencer(TaskScheduler scheduler, IntConsumer output, Consumer<PlayNote> noteListener) {
+        this.scheduler = scheduler;
+        this.output = output;
+        this.noteListener = noteListener;
+    }
+
+    private final class Timeline {
+        final Melody melody;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        // Reused for every note
+        final Runnable nextStep = () -> step(this);
+        int index;
+        Instant start;
+        ScheduledFuture<?> step;
+
+        Timeline(Melody melody) {
+            this.melody = melody;
+        }
+    }
+
+    /**
+     * Plays the melody after the timelines which are playing or queued.
+     */
+    synchronized CompletableFuture<Void> enqueue(Melody melody) {
+        var timeline = create(melody);
+        queue.addLast(timeline);
+        if (current == null) {
+            startNext();
+        }
+        return timeline.done;
+    }
+
+    /**
+     * Cancels the playing and queued timelines, and plays the melody immediately.
+     */
+    synchronized CompletableFuture<Void> preempt(Melody melody) {
+        cancelAll();
+        var timeline = create(melody);
+        queue.addLast(timeline);
+        startNext();
+        return timeline.done;
+    }
+
+    /**
+     * Cancels the playing and queued timelines and silences the buzzer.
+     */
+    synchronized void stop() {
+        cancelAll();
+        output.accept(0);
+    }
+
+    private Timeline create(Melody melody) {
+        var timeline = new Timeline(melody);
+        timeline.done.whenComplete((result, error) -> {
+            if (timeline.done.isCancelled()) {
+                cancelled(timeline);
+            }
+        });
+        return timeline;
+    }
+
+    private void cancelAll() {
+        List<Timeline> cancelled = new ArrayList<>(queue);
+        queue.clear();
+        if (current != null) {
+            cancelled.add(current);
+            cancelStep(current);
+            current = null;
+        }
+        cancelled.forEach(t -> t.done.cancel(false));
+    }
+
+    /**
+     * Called when the future of a timeline was cancelled, by the sequencer or by the caller.
+     */
+    private synchronized void cancelled(Timeline timeline) {
+        if (timeline == current) {
+            cancelStep(timeline);
+            current = null;
+            output.accept(0);
+            startNext();
+        } else {
+            queue.remove(timeline);
+        }
+    }
+
+    private void cancelStep(Timeline timeline) {
+        if (timeline.step != null) {
+            timeline.step.cancel(false);
+        }
+    }
+
+    private void startNext() {
+        current = queue.pollFirst();
+        if (current != null) {
+            current.start = Instant.now();
+            step(current);
+        }
+    }
+
+    /**
+     * Starts the next note of the timeline, or ends the timeline after the last note.
+     */
+    private synchronized void step(Timeline timeline) {
+        if (timeline != current) {
+            // Cancelled while this step was due
+            return;
+        }
+        try {
+            var melody = timeline.melody;
+            int index = timeline.index;
+            if (index == melody.size()) {
+                if (index == 0 || melody.duration(index - 1) > 0) {
+                    output.accept(0);
+                }
+                current = null;
+                timeline.done.complete(null);
+                startNext();
+                return;
+            }
+
+            output.accept(melody.frequency(index));
+            var note = melody.note(index);
+            if (note != null) {
+                noteListener.accept(note);
+            }
+            timeline.index++;
+
+            // A duration of zero keeps the tone on, which only makes sense for the last note
+            timeline.step = scheduler.schedule(timeline.nextStep, timeline.start.plusMillis(melody.endMs(index)));
+        } catch (Exception e) {
+            logger.error("Error playing note: {}", e.getMessage());
+            output.accept(0);
+            current = null;
+            timeline.done.completeExceptionally(e);
+            startNext();
+        }
+    }
+}
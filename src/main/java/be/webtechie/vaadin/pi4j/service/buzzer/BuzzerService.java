@@ -2,25 +2,36 @@ package be.webtechie.vaadin.pi4j.service.buzzer;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
 import be.webtechie.vaadin.pi4j.event.BuzzerEvent;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
-import be.webtechie.vaadin.pi4j.service.SleepHelper;
 import be.webtechie.vaadin.pi4j.views.electronics.BuzzerView;
 import com.pi4j.context.Context;
 import com.pi4j.io.pwm.Pwm;
 import com.pi4j.io.pwm.PwmType;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plays notes on the PWM buzzer. The notes are played by a {@link BuzzerSequencer} on the task scheduler, so
+ * the methods return immediately, with a future which completes when the notes have been played.
+ * Melodies in the RTTTL format are compiled with {@link Rtttl#compile(String)}.
+ */
 @Service
 public class BuzzerService {
 
     private static final Logger logger = LoggerFactory.getLogger(BuzzerService.class);
-    private final ApplicationEventPublisher eventPublisher;
+    private final HardwareEventPublisher eventPublisher;
     private Pwm pwm;
+    private BuzzerSequencer sequencer;
 
-    public BuzzerService(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService) {
+    public BuzzerService(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService,
+                         TaskScheduler taskScheduler) {
         this.eventPublisher = eventPublisher;
 
         if (!config.hasBuzzer()) {
@@ -37,6 +48,7 @@ public class BuzzerService {
                     .shutdown(0)
                     .build();
             this.pwm = pi4j.create(pwmConfig);
+            this.sequencer = new BuzzerSequencer(taskScheduler, this::playTone, this::onNote);
 
             // Register the view for this feature
             pi4JService.registerView(BuzzerView.class);
@@ -51,56 +63,92 @@ public class BuzzerService {
         return pwm != null;
     }
 
-    public void playNote(PlayNote playNote) {
-        if (this.pwm == null) {
+    /**
+     * Plays the note after the notes which are playing or queued, without waiting for it.
+     *
+     * @return Completes when the note has been played
+     */
+    public CompletableFuture<Void> playNote(PlayNote playNote) {
+        return play(List.of(playNote));
+    }
+
+    /**
+     * Plays the notes after the notes which are playing or queued, without waiting for them.
+     *
+     * @return Completes when the last note has been played, cancel it to stop the notes
+     */
+    public CompletableFuture<Void> play(List<PlayNote> notes) {
+        return play(Melody.of("Notes", notes));
+    }
+
+    /**
+     * Plays the melody after the notes which are playing or queued, without waiting for it.
+     *
+     * @return Completes when the melody has been played, cancel it to stop the melody
+     */
+    public CompletableFuture<Void> play(Melody melody) {
+        if (sequencer == null) {
             logger.error("Buzzer not initialized");
-            return;
+            return CompletableFuture.failedFuture(new IllegalStateException("Buzzer not initialized"));
         }
-        logger.info("Playing note {}", playNote.note());
-        playTone(playNote.note().getFrequency(), playNote.duration());
-        eventPublisher.publishEvent(new BuzzerEvent(this, playNote));
+        logger.info("Queueing melody {}, {} notes, {} ms", melody.getName(), melody.size(), melody.getDurationMs());
+        return sequencer.enqueue(melody);
     }
 
     /**
-     * Plays a tone with the given frequency in Hz for a specific duration.
-     * This method is blocking and will sleep until the specified duration has passed.
-     * A frequency of zero causes the buzzer to play silence.
-     * A duration of zero to play the tone indefinitely and return immediately.
+     * Stops the notes which are playing or queued, and plays the given notes immediately.
      *
-     * @param frequency Frequency in Hz
-     * @param duration  Duration in milliseconds
+     * @return Completes when the last note has been played, cancel it to stop the notes
      */
-    private void playTone(int frequency, int duration) {
-        if (frequency > 0) {
-            // Activate the PWM with a duty cycle of 50% and the given frequency in Hz.
-            // This causes the buzzer to be on for half of the time during each cycle, resulting in the desired frequency.
-            pwm.on(50, frequency);
+    public CompletableFuture<Void> playNow(List<PlayNote> notes) {
+        return playNow(Melody.of("Notes", notes));
+    }
 
-            // If the duration is larger than zero, the tone should be automatically stopped after the given duration.
-            if (duration > 0) {
-                SleepHelper.sleep(duration);
-                this.playSilence();
-            }
-        } else {
-            this.playSilence(duration);
+    /**
+     * Stops the notes which are playing or queued, and plays the melody immediately.
+     *
+     * @return Completes when the melody has been played, cancel it to stop the melody
+     */
+    public CompletableFuture<Void> playNow(Melody melody) {
+        if (sequencer == null) {
+            logger.error("Buzzer not initialized");
+            return CompletableFuture.failedFuture(new IllegalStateException("Buzzer not initialized"));
         }
+        return sequencer.preempt(melody);
     }
 
     /**
-     * Silences the buzzer and returns immediately.
+     * Stops the notes which are playing or queued and silences the buzzer.
      */
-    private void playSilence() {
-        pwm.off();
+    public void stop() {
+        if (sequencer != null) {
+            sequencer.stop();
+        }
     }
 
     /**
-     * Silences the buzzer and waits for the given duration.
-     * This method is blocking and will sleep until the specified duration has passed.
-     *
-     * @param duration Duration in milliseconds
+     * Called by the sequencer when a note starts.
+     */
+    private void onNote(PlayNote playNote) {
+        logger.info("Playing note {}", playNote.note());
+        eventPublisher.publish(new BuzzerEvent(this, playNote));
+    }
+
+    /**
+     * Plays a tone with the given frequency in Hz, a frequency of zero silences the buzzer.
      */
-    private void playSilence(int duration) {
-        this.playSilence();
-        SleepHelper.sleep(duration);
+    private void playTone(int frequency) {
+        if (frequency > 0) {
+            // Activate the PWM with a duty cycle of 50% and the given frequency in Hz.
+            // This causes the buzzer to be on for half of the time during each cycle, resulting in the desired frequency.
+            pwm.on(50, frequency);
+        } else {
+            pwm.off();
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        stop();
     }
 }
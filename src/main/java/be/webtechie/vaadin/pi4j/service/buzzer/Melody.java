@@ -0,0 +1,86 @@
+package be.webtechie.vaadin.pi4j.service.buzzer;
+
+import java.util.List;
+
+/**
+ * Immutable melody, compiled into a schedule of frequencies and durations which the {@link BuzzerSequencer}
+ * plays without any lookups or allocations per note.
+ *
+ * <p>Create one from RTTTL text with {@link Rtttl#compile(String)}, or from notes with {@link #of(String, List)}.
+ */
+public final class Melody {
+
+    private final String name;
+    // Frequency in Hz (0 for a rest) and duration in milliseconds of every note
+    private final int[] schedule;
+    // Time from the start of the melody to the end of every note, so playback doesn't accumulate drift
+    private final long[] endMs;
+    // The notes as published in the BuzzerEvents, null for a rest
+    private final PlayNote[] notes;
+
+    Melody(String name, int[] schedule, PlayNote[] notes) {
+        this.name = name;
+        this.schedule = schedule;
+        this.notes = notes;
+        this.endMs = new long[notes.length];
+        long total = 0;
+        for (int i = 0; i < notes.length; i++) {
+            total += Math.max(0, schedule[i * 2 + 1]);
+            endMs[i] = total;
+        }
+    }
+
+    /**
+     * Creates a melody which plays the notes one after another.
+     */
+    public static Melody of(String name, List<PlayNote> playNotes) {
+        int[] schedule = new int[playNotes.size() * 2];
+        PlayNote[] notes = new PlayNote[playNotes.size()];
+        for (int i = 0; i < notes.length; i++) {
+            notes[i] = playNotes.get(i);
+            schedule[i * 2] = notes[i].note().getFrequency();
+            schedule[i * 2 + 1] = notes[i].duration();
+        }
+        return new Melody(name, schedule, notes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return notes.length;
+    }
+
+    /**
+     * Frequency in Hz of the note at the index, 0 for a rest.
+     */
+    public int frequency(int index) {
+        return schedule[index * 2];
+    }
+
+    /**
+     * Duration in milliseconds of the note at the index.
+     */
+    public int duration(int index) {
+        return schedule[index * 2 + 1];
+    }
+
+    /**
+     * Time in milliseconds from the start of the melody to the end of the note at the index.
+     */
+    public long endMs(int index) {
+        return endMs[index];
+    }
+
+    /**
+     * The note at the index, or null for a rest.
+     */
+    public PlayNote note(int index) {
+        return notes[index];
+    }
+
+    public long getDurationMs() {
+        return notes.length == 0 ? 0 : endMs[notes.length - 1];
+    }
+}
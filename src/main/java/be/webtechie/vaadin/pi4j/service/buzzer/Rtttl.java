@@ -0,0 +1,175 @@
+package be.webtechie.vaadin.pi4j.service.buzzer;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles melodies in the RTTTL (Ring Tone Text Transfer Language) format of old Nokia phones, e.g.
+ * {@code Scale:d=4,o=5,b=120:c,d,e,f,g,a,b,c6}.
+ *
+ * <p>The text has a name, defaults for the duration ({@code d}, 1 is a whole note), octave ({@code o}) and
+ * beats per minute ({@code b}), and the notes. Each note is {@code [duration]letter[#][.][octave][.]} with
+ * {@code p} as the letter for a rest, a dot makes the note 1.5 times longer.
+ *
+ * <p>Compiled melodies are cached by their text, so playing the same melody again doesn't parse it again.
+ */
+public final class Rtttl {
+
+    private static final int CACHE_SIZE = 32;
+    // Semitones from C of the note letters a-g
+    private static final int[] SEMITONES = {9, 11, 0, 2, 4, 5, 7};
+    private static final Note[] NOTES = Note.values();
+
+    private static final Map<String, Melody> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Melody> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private Rtttl() {
+        // Hide constructor
+    }
+
+    /**
+     * Compiles the RTTTL text into a melody, or returns the cached melody of the same text.
+     *
+     * @throws IllegalArgumentException if the text is not valid RTTTL
+     */
+    public static Melody compile(String text) {
+        String key = text.strip();
+        synchronized (cache) {
+            var melody = cache.get(key);
+            if (melody != null) {
+                return melody;
+            }
+        }
+        var melody = parse(key);
+        synchronized (cache) {
+            cache.put(key, melody);
+        }
+        return melody;
+    }
+
+    private static Melody parse(String text) {
+        String[] sections = text.split(":", -1);
+        if (sections.length != 3) {
+            throw new IllegalArgumentException("RTTTL needs a name, defaults and notes, separated by ':'");
+        }
+
+        int defaultDuration = 4;
+        int defaultOctave = 6;
+        int bpm = 63;
+        for (String setting : sections[1].split(",")) {
+            setting = setting.strip().toLowerCase(Locale.ROOT);
+            if (setting.isEmpty()) {
+                continue;
+            }
+            int separator = setting.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid RTTTL default '" + setting + "'");
+            }
+            int value = parseNumber(setting.substring(separator + 1), setting);
+            switch (setting.substring(0, separator).strip()) {
+                case "d" -> defaultDuration = value;
+                case "o" -> defaultOctave = value;
+                case "b" -> bpm = value;
+                default -> throw new IllegalArgumentException("Unknown RTTTL default '" + setting + "'");
+            }
+        }
+        if (defaultDuration <= 0 || bpm <= 0) {
+            throw new IllegalArgumentException("RTTTL duration and beats per minute must be positive");
+        }
+
+        // A beat is a quarter note
+        int wholeNoteMs = 4 * 60_000 / bpm;
+        String[] tokens = sections[2].split(",");
+        int[] schedule = new int[tokens.length * 2];
+        PlayNote[] notes = new PlayNote[tokens.length];
+        int count = 0;
+        for (String token : tokens) {
+            token = token.strip().toLowerCase(Locale.ROOT);
+            if (token.isEmpty()) {
+                continue;
+            }
+            int position = 0;
+            int duration = defaultDuration;
+            int digits = countDigits(token, position);
+            if (digits > 0) {
+                duration = parseNumber(token.substring(position, position + digits), token);
+                position += digits;
+            }
+            if (position >= token.length() || "abcdefgp".indexOf(token.charAt(position)) < 0) {
+                throw new IllegalArgumentException("Invalid RTTTL note '" + token + "'");
+            }
+            char letter = token.charAt(position++);
+            boolean sharp = position < token.length() && token.charAt(position) == '#';
+            if (sharp) {
+                position++;
+            }
+            boolean dotted = position < token.length() && token.charAt(position) == '.';
+            if (dotted) {
+                position++;
+            }
+            int octave = defaultOctave;
+            digits = countDigits(token, position);
+            if (digits > 0) {
+                octave = parseNumber(token.substring(position, position + digits), token);
+                position += digits;
+            }
+            // The dot is allowed before and after the octave
+            if (position < token.length() && token.charAt(position) == '.') {
+                dotted = true;
+                position++;
+            }
+            if (position != token.length() || duration <= 0) {
+                throw new IllegalArgumentException("Invalid RTTTL note '" + token + "'");
+            }
+
+            int durationMs = wholeNoteMs / duration;
+            if (dotted) {
+                durationMs += durationMs / 2;
+            }
+            if (letter != 'p') {
+                var note = toNote(letter, sharp, octave, token);
+                notes[count] = new PlayNote(note, durationMs);
+                schedule[count * 2] = note.getFrequency();
+            }
+            schedule[count * 2 + 1] = durationMs;
+            count++;
+        }
+
+        String name = sections[0].strip();
+        return new Melody(name.isEmpty() ? "Melody" : name,
+                Arrays.copyOf(schedule, count * 2), Arrays.copyOf(notes, count));
+    }
+
+    /**
+     * Looks up the piano key, the index in {@link Note} counts semitones from A0.
+     */
+    private static Note toNote(char letter, boolean sharp, int octave, String token) {
+        int index = octave * 12 + SEMITONES[letter - 'a'] + (sharp ? 1 : 0) - 9;
+        if (index < 0 || index >= NOTES.length) {
+            throw new IllegalArgumentException("RTTTL note '" + token + "' is out of the range of the buzzer");
+        }
+        return NOTES[index];
+    }
+
+    private static int countDigits(String value, int from) {
+        int end = from;
+        while (end < value.length() && Character.isDigit(value.charAt(end))) {
+            end++;
+        }
+        return end - from;
+    }
+
+    private static int parseNumber(String value, String context) {
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in RTTTL '" + context + "'");
+        }
+    }
+}
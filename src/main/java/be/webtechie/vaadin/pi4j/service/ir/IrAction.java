@@ -0,0 +1,184 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import be.webtechie.vaadin.pi4j.service.matrix.MatrixSymbol;
+
+import java.util.Arrays;
+
+/**
+ * Action which is executed by the {@link IrActionService} when an IR code is received.
+ *
+ * <p>Every action can be written as {@code type} or {@code type:argument}, e.g. {@code beep:200} or
+ * {@code matrix:HEART}, which is how the actions are stored in the mapping file.
+ */
+public sealed interface IrAction {
+
+    Kind kind();
+
+    /**
+     * The argument of the action, empty if the action has none.
+     */
+    String argument();
+
+    /**
+     * Human-readable description, e.g. "Buzzer beep: 200".
+     */
+    default String describe() {
+        return argument().isEmpty() ? kind().getLabel() : kind().getLabel() + ": " + argument();
+    }
+
+    /**
+     * Writes the action as {@code type:argument}, which can be read again with {@link #parse(String)}.
+     */
+    default String format() {
+        return argument().isEmpty() ? kind().getId() : kind().getId() + ":" + argument();
+    }
+
+    /**
+     * Reads an action written as {@code type} or {@code type:argument}.
+     *
+     * @throws IllegalArgumentException if the type is unknown or the argument is invalid
+     */
+    static IrAction parse(String value) {
+        int separator = value.indexOf(':');
+        String id = separator < 0 ? value.trim() : value.substring(0, separator).trim();
+        String argument = separator < 0 ? "" : value.substring(separator + 1).trim();
+        return Kind.byId(id).create(argument);
+    }
+
+    enum Kind {
+        BEEP("beep", "Buzzer beep", "Duration (ms)"),
+        LED_TOGGLE("led", "Toggle LED", null),
+        MATRIX_SYMBOL("matrix", "Matrix symbol", "Symbol name"),
+        OLED_TEXT("oled", "OLED text", "Text"),
+        SEGMENT_VALUE("segment", "Seven-segment value", "Value (0-9999)");
+
+        private final String id;
+        private final String label;
+        private final String argumentLabel;
+
+        Kind(String id, String label, String argumentLabel) {
+            this.id = id;
+            this.label = label;
+            this.argumentLabel = argumentLabel;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Label of the argument, or null if the action has no argument.
+         */
+        public String getArgumentLabel() {
+            return argumentLabel;
+        }
+
+        /**
+         * Creates the action of this kind from its argument.
+         *
+         * @throws IllegalArgumentException if the argument is invalid
+         */
+        public IrAction create(String argument) {
+            try {
+                return switch (this) {
+                    case BEEP -> new Beep(Integer.parseInt(argument));
+                    case LED_TOGGLE -> new ToggleLed();
+                    case MATRIX_SYMBOL -> new ShowSymbol(MatrixSymbol.valueOf(argument.toUpperCase()));
+                    case OLED_TEXT -> new OledText(argument);
+                    case SEGMENT_VALUE -> new SegmentValue(Integer.parseInt(argument));
+                };
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(label + " needs a number, not '" + argument + "'");
+            }
+        }
+
+        static Kind byId(String id) {
+            return Arrays.stream(values())
+                    .filter(k -> k.id.equalsIgnoreCase(id))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown IR action: " + id));
+        }
+    }
+
+    record Beep(int durationMs) implements IrAction {
+        public Beep {
+            if (durationMs < 1 || durationMs > 5000) {
+                throw new IllegalArgumentException("Beep duration must be 1-5000 ms");
+            }
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.BEEP;
+        }
+
+        @Override
+        public String argument() {
+            return String.valueOf(durationMs);
+        }
+    }
+
+    record ToggleLed() implements IrAction {
+        @Override
+        public Kind kind() {
+            return Kind.LED_TOGGLE;
+        }
+
+        @Override
+        public String argument() {
+            return "";
+        }
+    }
+
+    record ShowSymbol(MatrixSymbol symbol) implements IrAction {
+        @Override
+        public Kind kind() {
+            return Kind.MATRIX_SYMBOL;
+        }
+
+        @Override
+        public String argument() {
+            return symbol.name();
+        }
+    }
+
+    record OledText(String text) implements IrAction {
+        public OledText {
+            if (text.isBlank()) {
+                throw new IllegalArgumentException("OLED text can't be empty");
+            }
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.OLED_TEXT;
+        }
+
+        @Override
+        public String argument() {
+            return text;
+        }
+    }
+
+    record SegmentValue(int value) implements IrAction {
+        public SegmentValue {
+            if (value < 0 || value > 9999) {
+                throw new IllegalArgumentException("Seven-segment value must be 0-9999");
+            }
+        }
+
+        @Override
+        public Kind kind() {
+            return Kind.SEGMENT_VALUE;
+        }
+
+        @Override
+        public String argument() {
+            return String.valueOf(value);
+        }
+    }
+}
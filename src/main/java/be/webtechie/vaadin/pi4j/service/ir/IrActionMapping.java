@@ -0,0 +1,38 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Maps an IR code of a protocol to the action which is executed when it is received.
+ *
+ * @param protocol Name of the protocol as given by {@link IrDecoder#name()}, or {@link #ANY_PROTOCOL}
+ */
+public record IrActionMapping(String protocol, int code, IrAction action) {
+
+    /**
+     * Protocol of a mapping which matches the code of every protocol.
+     */
+    public static final String ANY_PROTOCOL = "*";
+
+    public String getCodeHex() {
+        return String.format("0x%02X", code);
+    }
+
+    /**
+     * True if this is the mapping of the code of the protocol.
+     */
+    boolean matches(String protocol, int code) {
+        return this.code == code && this.protocol.equals(protocol);
+    }
+
+    /**
+     * Key of the mapping in the action table, the protocol in the upper and the code in the lower 32 bits.
+     * The protocol is reduced to the hash of its name, which is cached by the string, so different protocols
+     * can have the same key.
+     */
+    static long key(String protocol, int code) {
+        return ((long) protocol.hashCode() << 32) | (code & 0xFFFFFFFFL);
+    }
+
+    long key() {
+        return key(protocol, code);
+    }
+}
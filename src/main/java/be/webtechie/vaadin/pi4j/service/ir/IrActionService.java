@@ -0,0 +1,230 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
+import be.webtechie.vaadin.pi4j.event.IrActionsChangedEvent;
+import be.webtechie.vaadin.pi4j.service.buzzer.BuzzerService;
+import be.webtechie.vaadin.pi4j.service.buzzer.Note;
+import be.webtechie.vaadin.pi4j.service.buzzer.PlayNote;
+import be.webtechie.vaadin.pi4j.service.joystick.JoystickService;
+import be.webtechie.vaadin.pi4j.service.led.LedService;
+import be.webtechie.vaadin.pi4j.service.matrix.RedMatrixService;
+import be.webtechie.vaadin.pi4j.service.oled.OledService;
+import be.webtechie.vaadin.pi4j.service.segment.SevenSegmentService;
+import be.webtechie.vaadin.pi4j.service.segment.SevenSegmentSymbol;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the {@link IrAction} mapped to a received IR code, like a beep, toggling the LED or showing a
+ * symbol on the LED matrix.
+ *
+ * <p>A mapping is for a code of one protocol, or of any protocol with {@link IrActionMapping#ANY_PROTOCOL}.
+ * The mappings are kept in an {@link IrActionTable} and stored in the file given by {@code ir.actions.file},
+ * so they survive a restart. The actions are executed on a small pool of {@code ir.actions.threads} threads
+ * with a bounded queue; when the hardware can't keep up with the remote, the newest actions are dropped.
+ */
+@Service
+public class IrActionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IrActionService.class);
+    private static final int QUEUE_CAPACITY = 16;
+
+    private final HardwareEventPublisher eventPublisher;
+    private final JoystickService joystickService;
+    private final BuzzerService buzzerService;
+    private final LedService ledService;
+    private final RedMatrixService matrixService;
+    private final OledService oledService;
+    private final SevenSegmentService sevenSegmentService;
+    private final Path mappingFile;
+    private final IrActionTable table = new IrActionTable();
+    private final ThreadPoolExecutor executor;
+
+    public IrActionService(HardwareEventPublisher eventPublisher, JoystickService joystickService,
+                           BuzzerService buzzerService, LedService ledService, RedMatrixService matrixService,
+                           @Lazy OledService oledService, SevenSegmentService sevenSegmentService,
+                           @Value("${ir.actions.file:ir-actions.properties}") String mappingFile,
+                           @Value("${ir.actions.threads:2}") int threads) {
+        this.eventPublisher = eventPublisher;
+        this.joystickService = joystickService;
+        this.buzzerService = buzzerService;
+        this.ledService = ledService;
+        this.matrixService = matrixService;
+        this.oledService = oledService;
+        this.sevenSegmentService = sevenSegmentService;
+        this.mappingFile = Path.of(mappingFile);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                Thread.ofVirtual().name("ir-action-", 0).factory(),
+                (task, pool) -> logger.warn("IR action dropped, {} actions are waiting", pool.getQueue().size()));
+
+        table.replaceAll(load());
+        logger.info("{} IR actions loaded from {}", table.size(), this.mappingFile);
+    }
+
+    /**
+     * Executes the action mapped to the code, a mapping for the protocol goes before one for any protocol.
+     *
+     * @return true if an action is mapped to the code
+     */
+    public boolean dispatch(String protocol, int code) {
+        var action = getAction(protocol, code);
+        if (action == null) {
+            return false;
+        }
+        logger.info("IR code 0x{} ({}) mapped to {}", Integer.toHexString(code), protocol, action.describe());
+        executor.execute(() -> execute(action));
+        return true;
+    }
+
+    /**
+     * Returns the action which {@link #dispatch(String, int)} would execute, or null.
+     */
+    public IrAction getAction(String protocol, int code) {
+        var mapping = table.get(protocol, code);
+        if (mapping == null) {
+            mapping = table.get(IrActionMapping.ANY_PROTOCOL, code);
+        }
+        return mapping == null ? null : mapping.action();
+    }
+
+    /**
+     * All mappings, sorted by code and protocol.
+     */
+    public List<IrActionMapping> getMappings() {
+        var mappings = table.mappings();
+        mappings.sort(Comparator.comparingInt(IrActionMapping::code).thenComparing(IrActionMapping::protocol));
+        return mappings;
+    }
+
+    /**
+     * Maps the code to the action, replacing the current action of the code and protocol.
+     */
+    public void setAction(String protocol, int code, IrAction action) {
+        table.put(new IrActionMapping(protocol, code, action));
+        logger.info("IR code 0x{} ({}) mapped to {}", Integer.toHexString(code), protocol, action.describe());
+        mappingsChanged();
+    }
+
+    public void removeAction(String protocol, int code) {
+        if (table.remove(protocol, code)) {
+            logger.info("IR action of code 0x{} ({}) removed", Integer.toHexString(code), protocol);
+            mappingsChanged();
+        }
+    }
+
+    private void mappingsChanged() {
+        save();
+        eventPublisher.publish(new IrActionsChangedEvent(this, getMappings()));
+    }
+
+    private void execute(IrAction action) {
+        try {
+            switch (action) {
+                case IrAction.Beep beep -> beep(beep.durationMs());
+                case IrAction.ToggleLed ignored -> ledService.setState(!ledService.getState());
+                case IrAction.ShowSymbol showSymbol -> matrixService.setSymbol(showSymbol.symbol());
+                case IrAction.OledText oledText -> oledService.displayText(oledText.text());
+                case IrAction.SegmentValue segmentValue -> showSegmentValue(segmentValue.value());
+            }
+        } catch (Exception e) {
+            logger.error("Error executing IR action {}: {}", action.describe(), e.getMessage());
+        }
+    }
+
+    /**
+     * Beeps with the PCF8574 buzzer of the Pioneer600, or plays a note on the PWM buzzer of the CrowPi.
+     */
+    private void beep(int durationMs) {
+        if (joystickService.isAvailable()) {
+            joystickService.beep(durationMs);
+        } else if (buzzerService.isAvailable()) {
+            buzzerService.playNote(new PlayNote(Note.A5, durationMs));
+        } else {
+            logger.warn("No buzzer available for IR action");
+        }
+    }
+
+    /**
+     * Shows the value right-aligned on the four digits, without leading zeros.
+     */
+    private void showSegmentValue(int value) {
+        var digits = SevenSegmentSymbol.values();
+        for (int position = 3, remaining = value; position >= 0; position--, remaining /= 10) {
+            boolean leadingZero = remaining == 0 && position < 3;
+            sevenSegmentService.setSymbol(position, leadingZero
+                    ? SevenSegmentSymbol.EMPTY
+                    : digits[SevenSegmentSymbol.NUMBER_0.ordinal() + remaining % 10]);
+        }
+    }
+
+    /**
+     * Reads the mappings, stored as {@code protocol.0xCODE=type:argument}.
+     */
+    private List<IrActionMapping> load() {
+        List<IrActionMapping> mappings = new ArrayList<>();
+        if (!Files.exists(mappingFile)) {
+            return mappings;
+        }
+        var properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(mappingFile)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            logger.error("Can't read IR actions from {}: {}", mappingFile, e.getMessage());
+            return mappings;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                int separator = key.lastIndexOf('.');
+                String protocol = key.substring(0, separator);
+                int code = Integer.decode(key.substring(separator + 1));
+                mappings.add(new IrActionMapping(protocol, code, IrAction.parse(properties.getProperty(key))));
+            } catch (RuntimeException e) {
+                logger.warn("Ignoring invalid IR action {}: {}", key, e.getMessage());
+            }
+        }
+        return mappings;
+    }
+
+    /**
+     * Writes the mappings to a temporary file first, so a crash can't leave a half-written file.
+     */
+    private synchronized void save() {
+        var properties = new Properties();
+        for (var mapping : table.mappings()) {
+            properties.setProperty(mapping.protocol() + "." + mapping.getCodeHex(), mapping.action().format());
+        }
+        var temporary = mappingFile.resolveSibling(mappingFile.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary)) {
+                properties.store(writer, "IR code to action mappings: protocol.code=action[:argument]");
+            }
+            Files.move(temporary, mappingFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Can't write IR actions to {}: {}", mappingFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,114 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lookup table from the {@code long} key of an {@link IrActionMapping} to the mapping, read for every received
+ * IR code and changed only from the UI.
+ *
+ * <p>The keys are kept in a primitive open-addressing array, so a lookup doesn't box the key or follow entry
+ * objects. The protocol is only part of the key as the hash of its name, so a slot with the same key is only
+ * a match when the protocol and code of its mapping are equal as well.
+ *
+ * <p>Every change builds a new table and publishes it through a volatile field, so lookups never lock and always
+ * see a complete table.
+ */
+final class IrActionTable {
+
+    private volatile Table table = new Table(8);
+
+    private static final class Table {
+        final long[] keys;
+        final IrActionMapping[] mappings;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.mappings = new IrActionMapping[capacity];
+            this.mask = capacity - 1;
+        }
+
+        int indexOf(String protocol, int code) {
+            long key = IrActionMapping.key(protocol, code);
+            int index = mix(key) & mask;
+            while (mappings[index] != null && !(keys[index] == key && mappings[index].matches(protocol, code))) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        void put(IrActionMapping mapping) {
+            int index = indexOf(mapping.protocol(), mapping.code());
+            if (mappings[index] == null) {
+                size++;
+            }
+            keys[index] = mapping.key();
+            mappings[index] = mapping;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * Returns the mapping of the code of the protocol, or null.
+     */
+    IrActionMapping get(String protocol, int code) {
+        var current = table;
+        return current.mappings[current.indexOf(protocol, code)];
+    }
+
+    synchronized void put(IrActionMapping mapping) {
+        var entries = mappings();
+        entries.removeIf(m -> m.matches(mapping.protocol(), mapping.code()));
+        entries.add(mapping);
+        table = build(entries);
+    }
+
+    synchronized boolean remove(String protocol, int code) {
+        var entries = mappings();
+        boolean removed = entries.removeIf(m -> m.matches(protocol, code));
+        if (removed) {
+            table = build(entries);
+        }
+        return removed;
+    }
+
+    synchronized void replaceAll(List<IrActionMapping> entries) {
+        table = build(entries);
+    }
+
+    int size() {
+        return table.size;
+    }
+
+    /**
+     * All mappings, in no particular order.
+     */
+    List<IrActionMapping> mappings() {
+        var current = table;
+        List<IrActionMapping> result = new ArrayList<>(current.size);
+        for (var mapping : current.mappings) {
+            if (mapping != null) {
+                result.add(mapping);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds a table which is at most half full, so probe sequences stay short.
+     */
+    private static Table build(List<IrActionMapping> entries) {
+        int capacity = Math.max(8, Integer.highestOneBit(Math.max(1, entries.size() * 2 - 1)) << 1);
+        var result = new Table(capacity);
+        for (var mapping : entries) {
+            result.put(mapping);
+        }
+        return result;
+    }
+}
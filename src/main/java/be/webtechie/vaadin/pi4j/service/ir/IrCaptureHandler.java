@@ -0,0 +1,21 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Receives the results of an IR capture.
+ */
+interface IrCaptureHandler {
+
+    /**
+     * Called as soon as a frame has been decoded, which can be before the frame has ended.
+     *
+     * @param address  Address of the device, or -1 if the protocol has none
+     * @param extended True if the frame uses the extended address format of the protocol
+     * @param repeat   True if the frame only says the key is still held
+     */
+    void onDecoded(IrDecoder decoder, int code, int address, boolean extended, boolean repeat);
+
+    /**
+     * Called when a frame has ended, with all its pulses. The pulse array is reused once this call returns.
+     */
+    void onFrame(int[] pulses, int length);
+}
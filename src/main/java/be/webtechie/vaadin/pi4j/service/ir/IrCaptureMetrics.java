@@ -0,0 +1,165 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing and decode counters of the IR capture, to tell decode failures caused by scheduling jitter on the Pi
+ * apart from those caused by the remote.
+ *
+ * <p>The sample interval is only measured by the polling capture, it shows how far the actual interval between
+ * two samples is off from the intended 50us. For every frame the capture duration is measured, and which
+ * protocol decoded it. A frame which no protocol decoded counts as a failed attempt for the protocols which
+ * recognized its leader. A protocol which often fails after its leader points to pulses which were measured
+ * too long or too short.
+ *
+ * <p>Recording doesn't allocate and doesn't lock, so it can be done from the capture itself.
+ */
+class IrCaptureMetrics {
+
+    final Histogram sampleInterval = new Histogram();
+    final Histogram frameCapture = new Histogram();
+    private final Map<IrDecoder, Counters> byDecoder = new IdentityHashMap<>();
+    private final List<IrDecoder> decoders;
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private static final class Counters {
+        // Taken once, the name of a decoder can depend on the last frame
+        final String protocol;
+        final LongAdder attempts = new LongAdder();
+        final LongAdder decoded = new LongAdder();
+
+        Counters(String protocol) {
+            this.protocol = protocol;
+        }
+    }
+
+    /**
+     * @param decoders The protocol decoders of the stream decoder, without the fallback
+     */
+    IrCaptureMetrics(List<IrDecoder> decoders) {
+        this.decoders = List.copyOf(decoders);
+        // Only read after construction, so no concurrent map is needed
+        for (var decoder : this.decoders) {
+            byDecoder.put(decoder, new Counters(decoder.name()));
+        }
+    }
+
+    /**
+     * Records the outcome of a completed frame, must be called before the stream decoder is reset.
+     *
+     * @param decoder      The stream decoder which was fed the frame
+     * @param captureNanos Time from the first to the last pulse of the frame
+     */
+    void recordFrame(IrStreamDecoder decoder, long captureNanos) {
+        frames.increment();
+        frameCapture.record(captureNanos / 1_000);
+        var counters = byDecoder.get(decoder.matched());
+        if (counters != null) {
+            counters.attempts.increment();
+            counters.decoded.increment();
+            return;
+        }
+        // Noise, or a frame of an unknown protocol handled by the fallback, or a frame which failed halfway
+        rejected.increment();
+        for (int i = 0; i < decoder.decoderCount(); i++) {
+            if (decoder.isCandidate(i)) {
+                byDecoder.get(decoder.decoder(i)).attempts.increment();
+            }
+        }
+    }
+
+    void reset() {
+        sampleInterval.reset();
+        frameCapture.reset();
+        byDecoder.values().forEach(c -> {
+            c.attempts.reset();
+            c.decoded.reset();
+        });
+        frames.reset();
+        rejected.reset();
+    }
+
+    /**
+     * @param preemptions Times the polling capture thread was preempted, -1 if unknown
+     */
+    IrCaptureStats snapshot(long preemptions) {
+        return new IrCaptureStats(
+                sampleInterval.snapshot(),
+                frameCapture.snapshot(),
+                decoders.stream()
+                        .map(byDecoder::get)
+                        .map(c -> new IrProtocolMetrics(c.protocol, c.attempts.sum(), c.decoded.sum()))
+                        .toList(),
+                frames.sum(),
+                rejected.sum(),
+                preemptions);
+    }
+
+    /**
+     * Histogram of durations in microseconds, with a bucket per power of two.
+     * Bucket 0 holds 0us, bucket n holds 2^(n-1) up to 2^n - 1 us.
+     */
+    static final class Histogram {
+
+        private static final int BUCKETS = 32;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long valueUs) {
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, valueUs)));
+            buckets.incrementAndGet(bucket);
+            sum.add(valueUs);
+            long current = max.get();
+            while (valueUs > current && !max.compareAndSet(current, valueUs)) {
+                current = max.get();
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            sum.reset();
+            max.set(0);
+        }
+
+        IrHistogram snapshot() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long maxUs = max.get();
+            return new IrHistogram(total,
+                    total == 0 ? 0 : sum.sum() / total,
+                    percentile(counts, total, 0.50, maxUs),
+                    percentile(counts, total, 0.99, maxUs),
+                    maxUs,
+                    counts);
+        }
+
+        /**
+         * Returns the upper bound of the bucket which holds the percentile, not higher than the maximum.
+         */
+        private static long percentile(long[] counts, long total, double percentile, long maxUs) {
+            long target = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(maxUs, (1L << i) - 1);
+                }
+            }
+            return maxUs;
+        }
+    }
+}
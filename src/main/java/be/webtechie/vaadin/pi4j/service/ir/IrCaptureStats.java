@@ -0,0 +1,17 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.List;
+
+/**
+ * Snapshot of the timing and decode metrics of the IR capture, see {@link IrService#getCaptureStats()}.
+ *
+ * @param sampleInterval Actual interval between two samples of the polling capture, empty for edge capture
+ * @param frameCapture   Time from the first to the last pulse of a frame
+ * @param protocols      Decode counters per protocol
+ * @param frames         Captured frames
+ * @param rejected       Frames which none of the protocols decoded
+ * @param preemptions    Times the polling capture thread was preempted, -1 if unknown or for edge capture
+ */
+public record IrCaptureStats(IrHistogram sampleInterval, IrHistogram frameCapture,
+                             List<IrProtocolMetrics> protocols, long frames, long rejected, long preemptions) {
+}
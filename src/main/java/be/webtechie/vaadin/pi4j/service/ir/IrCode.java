@@ -5,8 +5,16 @@ import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a received IR code.
+ *
+ * @param code      The decoded code
+ * @param address   Address of the device which sent it, or -1 if the protocol has none
+ * @param extended  True if the frame uses the extended address format of the protocol, like extended NEC
+ * @param protocol  Name of the protocol which decoded it
+ * @param repeat    True if this is a repeat of the previous code, sent while the key is held
+ * @param timestamp When the code was received
  */
-public record IrCode(int code, LocalDateTime timestamp) {
+public record IrCode(int code, int address, boolean extended, String protocol, boolean repeat,
+                     LocalDateTime timestamp) {
 
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
 
@@ -14,12 +22,23 @@ public record IrCode(int code, LocalDateTime timestamp) {
         return String.format("0x%02X", code);
     }
 
+    /**
+     * The address in hex, with 4 digits for an extended address, or an empty string if there is none.
+     */
+    public String getAddressHex() {
+        if (address < 0) {
+            return "";
+        }
+        return String.format(extended ? "0x%04X" : "0x%02X", address);
+    }
+
     public String getTimestampFormatted() {
         return timestamp.format(TIME_FORMAT);
     }
 
     @Override
     public String toString() {
-        return getTimestampFormatted() + " - " + getCodeHex();
+        return getTimestampFormatted() + " - " + getCodeHex() + " (" + protocol
+                + (address < 0 ? "" : ", address " + getAddressHex()) + (repeat ? ", repeat)" : ")");
     }
 }
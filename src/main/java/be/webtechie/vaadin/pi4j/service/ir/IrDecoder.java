@@ -0,0 +1,104 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decodes an IR frame while it is being received, as a state machine which is fed one pulse at a time.
+ *
+ * <p>Pulses are durations in microseconds, alternating LOW (mark) and HIGH (space), starting with the first
+ * mark. A decoder reports {@link Result#FAILED} as soon as the frame can no longer match its protocol, and
+ * {@link Result#DONE} as soon as the last bit it needs has arrived, so the code can be handled before the
+ * frame has even ended.
+ *
+ * <p>Decoders keep state, so an instance must only be used by one capture at a time.
+ *
+ * <p>Decoders are discovered with {@link java.util.ServiceLoader}, so additional protocols can be added by
+ * listing their class in {@code META-INF/services/be.webtechie.vaadin.pi4j.service.ir.IrDecoder}.
+ * They need a public no-argument constructor.
+ */
+public interface IrDecoder {
+
+    enum Result {
+        /**
+         * The frame still matches, more pulses are needed.
+         */
+        MORE,
+        /**
+         * The frame is decoded, {@link #code()} returns the code.
+         */
+        DONE,
+        /**
+         * The frame doesn't match this protocol.
+         */
+        FAILED
+    }
+
+    /**
+     * Name of the protocol, used for logging.
+     */
+    String name();
+
+    /**
+     * Prepares the decoder for a new frame.
+     */
+    void reset();
+
+    /**
+     * Feeds the next pulse of the frame.
+     *
+     * @param durationUs Pulse duration in microseconds
+     */
+    Result feed(int durationUs);
+
+    /**
+     * Called when the frame has ended (long HIGH period), for protocols of which the length is only known then.
+     */
+    default Result end() {
+        return Result.FAILED;
+    }
+
+    /**
+     * The decoded code, only valid after {@link Result#DONE}.
+     */
+    int code();
+
+    /**
+     * The decoded address of the device, or -1 if the protocol doesn't send one, only valid after
+     * {@link Result#DONE}.
+     */
+    default int address() {
+        return -1;
+    }
+
+    /**
+     * True if the decoded frame uses the extended address format of its protocol, only valid after
+     * {@link Result#DONE}.
+     */
+    default boolean isExtended() {
+        return false;
+    }
+
+    /**
+     * True if the decoded frame only says the previous key is still held, only valid after {@link Result#DONE}.
+     */
+    default boolean isRepeat() {
+        return false;
+    }
+
+    /**
+     * Decodes a complete captured frame by feeding it pulse by pulse.
+     *
+     * @param pulses Pulse durations in microseconds
+     * @param length Number of valid pulses
+     * @return The decoded code, or -1 if the frame doesn't match this protocol
+     */
+    default int decode(int[] pulses, int length) {
+        reset();
+        var result = Result.MORE;
+        for (int i = 0; i < length && result == Result.MORE; i++) {
+            result = feed(pulses[i]);
+        }
+        if (result == Result.MORE) {
+            result = end();
+        }
+        return result == Result.DONE ? code() : -1;
+    }
+}
@@ -0,0 +1,182 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
+import com.pi4j.io.gpio.digital.DigitalStateChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Captures IR frames from the state change events of the receiver input, instead of sampling its state.
+ *
+ * <p>Every edge is timestamped with {@link System#nanoTime()} and the time since the previous edge is stored as
+ * the duration of the previous level in the {@link IrPulseRing}, so the frame has the same layout as a sampled
+ * capture (alternating LOW/HIGH in microseconds, starting with the first LOW). Each pulse is also fed to the
+ * {@link IrStreamDecoder} right away, so a code is handled as soon as its last bit has arrived.
+ *
+ * <p>A frame is complete when the input stays quiet for longer than the frame gap. The watcher thread which
+ * detects this, and which hands the decoded code to the handler, is parked in between, so no CPU is used while
+ * no remote is pressed.
+ */
+class IrEdgeCapture {
+
+    private static final Logger logger = LoggerFactory.getLogger(IrEdgeCapture.class);
+    private static final long FRAME_GAP_NANOS = 10_000_000; // Long HIGH period ends a transmission
+
+    private final DigitalInput input;
+    private final IrPulseRing pulseRing;
+    private final IrStreamDecoder decoder;
+    private final IrCaptureHandler handler;
+    private final IrCaptureMetrics metrics;
+    private final DigitalStateChangeListener listener = this::onEdge;
+    private final Object lock = new Object();
+
+    // Guarded by lock, together with the write side of the pulse ring and the decoder
+    private boolean inFrame = false;
+    private boolean decoded = false;
+    private boolean decodedHandled = false;
+    private long lastEdgeNanos;
+    private long frameStartNanos;
+
+    private volatile boolean running = false;
+    private volatile Thread watcher;
+
+    /**
+     * @param input     The IR receiver input
+     * @param pulseRing Ring the pulse durations are captured in
+     * @param decoder   Decoder which is fed while the pulses arrive
+     * @param handler   Called on the watcher thread with the decoded code and the pulses of every frame
+     * @param metrics   Receives the duration and decode outcome of every frame
+     */
+    IrEdgeCapture(DigitalInput input, IrPulseRing pulseRing, IrStreamDecoder decoder, IrCaptureHandler handler,
+                  IrCaptureMetrics metrics) {
+        this.input = input;
+        this.pulseRing = pulseRing;
+        this.decoder = decoder;
+        this.handler = handler;
+        this.metrics = metrics;
+    }
+
+    void start() {
+        if (running) {
+            return;
+        }
+        synchronized (lock) {
+            inFrame = false;
+            pulseRing.discard();
+        }
+        running = true;
+        watcher = Thread.ofVirtual().name("ir-frame-watcher").start(this::watchFrames);
+        input.addListener(listener);
+        logger.info("IR edge capture started");
+    }
+
+    void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        input.removeListener(listener);
+        watcher.interrupt();
+        logger.info("IR edge capture stopped");
+    }
+
+    private void onEdge(DigitalStateChangeEvent event) {
+        long now = System.nanoTime();
+        boolean wakeUp = true;
+        synchronized (lock) {
+            if (!inFrame) {
+                // Wait for the start of a transmission (falling edge - LOW signal)
+                if (event.state() != DigitalState.LOW) {
+                    return;
+                }
+                inFrame = true;
+                frameStartNanos = now;
+                decoded = false;
+                decodedHandled = false;
+                decoder.reset();
+            } else {
+                int duration = (int) ((now - lastEdgeNanos) / 1_000);
+                // Ignored once the frame is full, the watcher completes it
+                pulseRing.add(duration);
+                if (!decoded) {
+                    decoded = decoder.feed(duration);
+                } else {
+                    // Already handed over, the watcher only needs to wake up for the end of the frame
+                    wakeUp = false;
+                }
+            }
+            lastEdgeNanos = now;
+        }
+        if (wakeUp) {
+            LockSupport.unpark(watcher);
+        }
+    }
+
+    private void watchFrames() {
+        while (running) {
+            int slot = -1;
+            boolean frameEnded = false;
+            IrDecoder matched = null;
+            int code = -1;
+            int address = -1;
+            boolean extended = false;
+            boolean repeat = false;
+            long waitNanos = 0;
+            synchronized (lock) {
+                if (inFrame) {
+                    long now = System.nanoTime();
+                    long quiet = now - lastEdgeNanos;
+                    if (quiet >= FRAME_GAP_NANOS) {
+                        if (!decoded) {
+                            decoded = decoder.end();
+                        }
+                        metrics.recordFrame(decoder, lastEdgeNanos - frameStartNanos);
+                        slot = pulseRing.publish();
+                        frameEnded = true;
+                        inFrame = false;
+                    } else {
+                        waitNanos = FRAME_GAP_NANOS - quiet;
+                    }
+                    if (decoded && !decodedHandled) {
+                        decodedHandled = true;
+                        matched = decoder.matched();
+                        code = decoder.code();
+                        address = decoder.address();
+                        extended = decoder.isExtended();
+                        repeat = decoder.isRepeat();
+                    }
+                }
+            }
+
+            if (matched != null) {
+                try {
+                    handler.onDecoded(matched, code, address, extended, repeat);
+                } catch (Exception e) {
+                    logger.error("Error while handling IR code: {}", e.getMessage());
+                }
+            }
+            if (slot >= 0) {
+                try {
+                    handler.onFrame(pulseRing.pulses(slot), pulseRing.length(slot));
+                } catch (Exception e) {
+                    logger.error("Error while handling IR frame: {}", e.getMessage());
+                } finally {
+                    pulseRing.release();
+                }
+            }
+            if (frameEnded || matched != null) {
+                continue;
+            }
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+            } else {
+                // Idle until the next edge
+                LockSupport.park(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Snapshot of a duration histogram of the IR capture, all values in microseconds.
+ * The percentiles are the upper bound of the power-of-two bucket they fall in.
+ *
+ * @param buckets Counts per bucket, bucket 0 holds 0us, bucket n holds 2^(n-1) up to 2^n - 1 us
+ */
+public record IrHistogram(long count, long meanUs, long p50Us, long p99Us, long maxUs, long[] buckets) {
+
+    /**
+     * Number of values of at least the given duration, rounded down to the bucket it falls in.
+     */
+    public long countAtLeast(long durationUs) {
+        int first = 64 - Long.numberOfLeadingZeros(Math.max(0, durationUs));
+        long total = 0;
+        for (int i = first; i < buckets.length; i++) {
+            total += buckets[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decode counters of one IR protocol.
+ *
+ * @param attempts Frames of which the decoder recognized the leader
+ * @param decoded  Frames the decoder decoded
+ */
+public record IrProtocolMetrics(String protocol, long attempts, long decoded) {
+
+    /**
+     * Share of the attempted frames which were decoded, between 0 and 1, or 1 without attempts.
+     */
+    public double successRate() {
+        return attempts == 0 ? 1 : (double) decoded / attempts;
+    }
+}
@@ -0,0 +1,97 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring of pulse frames, handed from the capturing thread to the decoding thread.
+ *
+ * <p>Each slot is an {@code int[]} of pulse durations in microseconds, allocated once. The capturing side fills
+ * the current write slot and publishes it when the frame is complete, the decoding side reads the published slot
+ * and releases it afterwards. While a frame is being decoded, the next one is already captured in another slot,
+ * so no pulse list needs to be allocated (or boxed) per frame, and the garbage collector stays out of the capture.
+ *
+ * <p>Meant for exactly one writer thread and one reader thread.
+ */
+final class IrPulseRing {
+
+    private final int[][] slots;
+    private final int[] lengths;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private int writeLength = 0;
+
+    /**
+     * @param frames    Number of frames which can be waiting for the decoder
+     * @param maxPulses Maximum number of pulses in one frame
+     */
+    IrPulseRing(int frames, int maxPulses) {
+        this.slots = new int[frames][maxPulses];
+        this.lengths = new int[frames];
+    }
+
+    // Writer side
+
+    /**
+     * Adds a pulse duration to the frame being captured.
+     *
+     * @return false if the frame is full
+     */
+    boolean add(int durationUs) {
+        var slot = slots[(int) (published.get() % slots.length)];
+        if (writeLength >= slot.length) {
+            return false;
+        }
+        slot[writeLength++] = durationUs;
+        return true;
+    }
+
+    /**
+     * Number of pulses in the frame being captured.
+     */
+    int writeLength() {
+        return writeLength;
+    }
+
+    /**
+     * Completes the frame being captured and makes it available to the reader.
+     *
+     * @return The slot of the frame, or -1 if the reader is too far behind and the frame was dropped
+     */
+    int publish() {
+        long sequence = published.get();
+        if (sequence - released.get() >= slots.length - 1) {
+            // Keep one slot free for writing, the frame in it gets overwritten by the next one
+            writeLength = 0;
+            return -1;
+        }
+        int slot = (int) (sequence % slots.length);
+        lengths[slot] = writeLength;
+        writeLength = 0;
+        published.set(sequence + 1);
+        return slot;
+    }
+
+    /**
+     * Drops the frame being captured.
+     */
+    void discard() {
+        writeLength = 0;
+    }
+
+    // Reader side
+
+    int[] pulses(int slot) {
+        return slots[slot];
+    }
+
+    int length(int slot) {
+        return lengths[slot];
+    }
+
+    /**
+     * Returns the oldest published slot to the writer, must be called once for every published frame.
+     */
+    void release() {
+        released.incrementAndGet();
+    }
+}
@@ -0,0 +1,43 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Recognizes a held key of protocols without repeat frames, which send the complete frame again instead.
+ *
+ * <p>A frame repeats the previous one if it has the same code, protocol, address and address format, and arrives
+ * within the window after it. The address format matters for NEC: a standard address 0xAB and an extended
+ * address 0x00AB report the same number, but come from different remotes.
+ *
+ * <p>Not thread-safe, the decoded frames are handled one at a time.
+ */
+final class IrRepeatFilter {
+
+    private final long windowNanos;
+    private String lastProtocol;
+    private int lastCode = -1;
+    private int lastAddress = -1;
+    private boolean lastExtended;
+    private long lastNanos;
+
+    /**
+     * @param windowNanos Time after a frame in which the same frame is a repeat
+     */
+    IrRepeatFilter(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Records a decoded frame and returns whether it repeats the previous one.
+     *
+     * @param nowNanos Time the frame was decoded, from {@link System#nanoTime()}
+     */
+    boolean repeats(String protocol, int code, int address, boolean extended, long nowNanos) {
+        boolean repeat = code == lastCode && protocol.equals(lastProtocol) && address == lastAddress
+                && extended == lastExtended && nowNanos - lastNanos < windowNanos;
+        lastProtocol = protocol;
+        lastCode = code;
+        lastAddress = address;
+        lastExtended = extended;
+        lastNanos = nowNanos;
+        return repeat;
+    }
+}
@@ -1,11 +1,12 @@
 package be.webtechie.vaadin.pi4j.service.ir;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.event.IrCodeEvent;
-import be.webtechie.vaadin.pi4j.event.IrTriggerChangedEvent;
 import be.webtechie.vaadin.pi4j.event.KeyStateEvent;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
-import be.webtechie.vaadin.pi4j.service.joystick.JoystickService;
+import be.webtechie.vaadin.pi4j.service.TimingCriticalThread;
+import be.webtechie.vaadin.pi4j.service.TimingCriticalThreads;
 import be.webtechie.vaadin.pi4j.service.oled.OledService;
 import be.webtechie.vaadin.pi4j.views.electronics.IrReceiverView;
 import com.pi4j.context.Context;
@@ -14,14 +15,15 @@ import com.pi4j.io.gpio.digital.DigitalState;
 import com.pi4j.io.gpio.digital.PullResistance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -29,8 +31,20 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for reading IR (infrared) remote signals.
- * Supports NEC and Sony SIRC protocols.
- * Displays last code on OLED and allows KEY press to assign buzzer trigger.
+ * Supports Sony SIRC, NEC, Samsung32, RC5 and RC6 protocols, see {@link IrDecoder} to add more.
+ * Displays last code on OLED and executes the action mapped to the code by the {@link IrActionService}.
+ * A KEY press maps a beep to the last received code.
+ *
+ * <p>The property {@code ir.capture-mode} selects how frames are captured: {@code edge} (default) timestamps
+ * the state changes of the input and uses no CPU while idle, {@code polling} samples the input in a busy loop
+ * on a {@link TimingCriticalThread}, which can be pinned to a CPU and given a real-time priority.
+ *
+ * <p>With {@code ir.trace.record} every captured frame is appended to an {@link IrTrace} file. With
+ * {@code ir.trace.replay} the frames of a trace file are fed through the decoders instead of reading the input,
+ * so decoders can be tried on a machine without the receiver, using the mock platform.
+ *
+ * <p>The timing of the capture and the decode outcome per protocol are available through
+ * {@link #getCaptureStats()}.
  */
 @Service
 public class IrService {
@@ -40,30 +54,64 @@ public class IrService {
 
     // Timing constants in microseconds
     private static final int SAMPLE_PERIOD_US = 50; // Sample every 50 microseconds
-
-    private final ApplicationEventPublisher eventPublisher;
-    private final JoystickService joystickService;
+    private static final int MAX_PULSES = 100;
+    private static final int PULSE_RING_FRAMES = 4;
+    private static final int FRAME_GAP_MS = 10; // Long HIGH period ends a transmission
+    private static final long FRAME_GAP_NANOS = FRAME_GAP_MS * 1_000_000L;
+    private static final long MAX_MARK_NANOS = 100_000_000; // ~100ms max wait for the signal to go HIGH again
+    private static final long REPEAT_WINDOW_NANOS = 150_000_000; // Full frames repeat every 45-110ms
+
+    private final HardwareEventPublisher eventPublisher;
+    private final IrActionService irActionService;
     private final OledService oledService;
     private final DigitalInput irInput;
+    private final IrEdgeCapture edgeCapture;
+    private final Path replayTrace;
+    private final IrTrace.Writer traceWriter;
+    private final TimingCriticalThreads timingCriticalThreads;
     private ExecutorService executor;
+    // Handles the KEY presses one at a time, in the order they were published
+    private final ExecutorService keyExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("ir-key").factory());
+    private volatile TimingCriticalThread captureThread;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicInteger activeViewCount = new AtomicInteger(0);
     private final boolean mockMode;
     private final boolean available;
 
-    // Buzzer trigger configuration
-    private final AtomicInteger buzzerTriggerCode = new AtomicInteger(-1);
     private final AtomicInteger lastReceivedCode = new AtomicInteger(-1);
-
-    public IrService(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher,
-                     Pi4JService pi4JService, JoystickService joystickService, @Lazy OledService oledService) {
+    private volatile String lastReceivedProtocol;
+
+    // Reused for every captured frame, so capturing doesn't allocate
+    private final IrPulseRing pulseRing = new IrPulseRing(PULSE_RING_FRAMES, MAX_PULSES);
+    private final List<IrDecoder> decoders = loadDecoders();
+    private final IrStreamDecoder streamDecoder = new IrStreamDecoder(
+            decoders,
+            new RawDecoder() // Just return first significant pattern if no protocol matches
+    );
+    private final IrCaptureMetrics captureMetrics = new IrCaptureMetrics(decoders);
+    private volatile long preemptionsAtReset;
+
+    // Recognizes protocols which repeat the complete frame while a key is held
+    private final IrRepeatFilter repeatFilter = new IrRepeatFilter(REPEAT_WINDOW_NANOS);
+
+    public IrService(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher,
+                     Pi4JService pi4JService, IrActionService irActionService, @Lazy OledService oledService,
+                     TimingCriticalThreads timingCriticalThreads,
+                     @Value("${ir.capture-mode:edge}") String captureMode,
+                     @Value("${ir.trace.record:}") String recordTrace,
+                     @Value("${ir.trace.replay:}") String replayTrace) {
         this.eventPublisher = eventPublisher;
-        this.joystickService = joystickService;
+        this.irActionService = irActionService;
         this.oledService = oledService;
+        this.timingCriticalThreads = timingCriticalThreads;
 
         if (!config.hasIrReceiver()) {
             logger.info("IR receiver not available on this board");
             this.irInput = null;
+            this.edgeCapture = null;
+            this.replayTrace = null;
+            this.traceWriter = null;
             this.executor = null;
             this.mockMode = false;
             this.available = false;
@@ -91,11 +139,41 @@ public class IrService {
 
         this.irInput = tempInput;
         this.mockMode = useMockMode;
+        this.replayTrace = replayTrace.isBlank() ? null : Path.of(replayTrace);
+        this.traceWriter = this.replayTrace == null ? openTraceWriter(recordTrace) : null;
+        if (this.replayTrace != null) {
+            this.edgeCapture = null;
+            logger.info("IR capture mode: replay of trace {}", this.replayTrace);
+        } else if (!useMockMode && "edge".equalsIgnoreCase(captureMode)) {
+            this.edgeCapture = new IrEdgeCapture(tempInput, pulseRing, streamDecoder, new IrCaptureHandler() {
+                @Override
+                public void onDecoded(IrDecoder decoder, int code, int address, boolean extended, boolean repeat) {
+                    handleDecoded(decoder, code, address, extended, repeat);
+                }
+
+                @Override
+                public void onFrame(int[] pulses, int length) {
+                    handleFrame(pulses, length);
+                }
+            }, captureMetrics);
+            logger.info("IR capture mode: edge events");
+        } else {
+            this.edgeCapture = null;
+            logger.info("IR capture mode: polling every {}us", SAMPLE_PERIOD_US);
+        }
         this.available = true;
 
         // Register the view
         pi4JService.registerView(IrReceiverView.class);
 
+        // Listen for KEY presses to map a beep to the last code. Handled on a separate thread, as changing
+        // the mappings publishes an event itself, which must not wait on this consumer.
+        eventPublisher.addConsumer("ir-key", (event, sequence, endOfBatch) -> {
+            if (event instanceof KeyStateEvent keyStateEvent) {
+                keyExecutor.execute(() -> onKeyStateEvent(keyStateEvent));
+            }
+        });
+
         // IR reading is started on-demand when view is opened (to save CPU)
         logger.info("IR receiver ready - will start reading when view is opened");
     }
@@ -113,8 +191,14 @@ public class IrService {
 
         if (count == 1 && !running.get()) {
             running.set(true);
-            executor = Executors.newSingleThreadExecutor();
-            executor.submit(this::irReadLoop);
+            if (edgeCapture != null) {
+                edgeCapture.start();
+            } else if (replayTrace != null) {
+                executor = Executors.newSingleThreadExecutor();
+                executor.submit(this::irReplayLoop);
+            } else {
+                captureThread = timingCriticalThreads.start("ir-capture", this::irReadLoop);
+            }
             updateOledDisplay(-1);
             logger.info("IR reading loop started");
         }
@@ -134,28 +218,30 @@ public class IrService {
         if (count <= 0) {
             activeViewCount.set(0);
             running.set(false);
+            if (edgeCapture != null) {
+                edgeCapture.stop();
+            }
             if (executor != null) {
                 executor.shutdownNow();
                 executor = null;
             }
+            if (captureThread != null) {
+                captureThread.interrupt();
+            }
             logger.info("IR reading loop stopped");
         }
     }
 
     /**
-     * Listens for KEY press events to assign buzzer trigger.
+     * Listens for KEY press events to map a beep to the last received code.
      */
-    @EventListener
-    public void onKeyStateEvent(KeyStateEvent event) {
-        if (!available) {
-            return;
-        }
+    private void onKeyStateEvent(KeyStateEvent event) {
         if (event.isPressed()) {
             int lastCode = lastReceivedCode.get();
-            if (lastCode >= 0) {
-                setBuzzerTriggerCode(lastCode);
-                logger.info("KEY pressed - assigned IR code 0x{} as buzzer trigger",
-                        Integer.toHexString(lastCode));
+            String protocol = lastReceivedProtocol;
+            if (lastCode >= 0 && protocol != null) {
+                irActionService.setAction(protocol, lastCode, new IrAction.Beep(200));
+                logger.info("KEY pressed - mapped a beep to IR code 0x{}", Integer.toHexString(lastCode));
                 updateOledDisplay(lastCode);
             }
         }
@@ -166,21 +252,31 @@ public class IrService {
     }
 
     /**
-     * Sets the IR code that will trigger the buzzer.
-     * Set to -1 to disable buzzer triggering.
+     * Names of the protocols which can be decoded.
      */
-    public void setBuzzerTriggerCode(int code) {
-        buzzerTriggerCode.set(code);
-        logger.info("Buzzer trigger code set to: 0x{}", Integer.toHexString(code & 0xFF));
-        // Notify listeners of trigger change
-        eventPublisher.publishEvent(new IrTriggerChangedEvent(this, code));
+    public List<String> getProtocols() {
+        return decoders.stream().map(IrDecoder::name).toList();
     }
 
     /**
-     * Gets the currently configured buzzer trigger code.
+     * Gets the protocol of the last received IR code, or null.
      */
-    public int getBuzzerTriggerCode() {
-        return buzzerTriggerCode.get();
+    public String getLastReceivedProtocol() {
+        return lastReceivedProtocol;
+    }
+
+    /**
+     * Returns true if frames are captured from edge events, false if the input is sampled in a busy loop.
+     */
+    public boolean isEdgeCapture() {
+        return edgeCapture != null;
+    }
+
+    /**
+     * Returns true if the frames of a trace file are replayed instead of reading the input.
+     */
+    public boolean isReplay() {
+        return replayTrace != null;
     }
 
     /**
@@ -198,22 +294,19 @@ public class IrService {
 
                 // Wait for start of transmission (falling edge - LOW signal)
                 if (irInput.state() == DigitalState.LOW) {
-                    // Capture the pulse train
-                    List<Integer> pulses = capturePulses();
-
-                    if (pulses.size() >= 10) {
-                        logger.info("Captured {} pulses", pulses.size());
-                        logPulses(pulses);
-
-                        // Try to decode
-                        int code = decodeSignal(pulses);
-                        if (code >= 0) {
-                            handleIrCode(code);
-                        }
+                    // Capture and decode the pulse train
+                    int slot = capturePulses();
+                    if (streamDecoder.matched() != null) {
+                        handleDecoded(streamDecoder.matched(), streamDecoder.code(), streamDecoder.address(),
+                                streamDecoder.isExtended(), streamDecoder.isRepeat());
+                    }
+                    if (slot >= 0) {
+                        handleFrame(pulseRing.pulses(slot), pulseRing.length(slot));
+                        pulseRing.release();
                     }
 
-                    // Wait a bit before next capture to avoid re-triggering
-                    Thread.sleep(100);
+                    // Skip the rest of this frame, so it isn't seen as the start of a new one
+                    waitForFrameEnd();
                 }
 
                 // Small delay
@@ -231,202 +324,214 @@ public class IrService {
     }
 
     /**
-     * Captures pulse timings from the IR receiver.
-     * Returns a list of pulse durations in microseconds (alternating LOW/HIGH).
+     * Replays the frames of the trace file with their recorded timing, in place of reading the input.
      */
-    private List<Integer> capturePulses() {
-        List<Integer> pulses = new ArrayList<>();
-        DigitalState currentState = DigitalState.LOW;
-        int duration = 0;
-        int maxPulses = 100;
-        int timeout = 0;
-        int maxTimeout = 2000; // ~100ms max wait for signal
-
-        while (running.get() && pulses.size() < maxPulses && timeout < maxTimeout) {
-            DigitalState state = irInput.state();
+    private void irReplayLoop() {
+        List<IrTrace.Frame> frames;
+        try {
+            frames = IrTrace.read(replayTrace);
+        } catch (IOException e) {
+            logger.error("Can't read IR trace {}: {}", replayTrace, e.getMessage());
+            return;
+        }
+        logger.info("IR replay started, {} frames from {}", frames.size(), replayTrace);
 
-            if (state == currentState) {
-                duration += SAMPLE_PERIOD_US;
-                timeout = 0;
-            } else {
-                // State changed - record pulse duration
-                if (duration > 0) {
-                    pulses.add(duration);
-                }
-                currentState = state;
-                duration = SAMPLE_PERIOD_US;
-                timeout = 0;
+        for (var frame : frames) {
+            try {
+                Thread.sleep(frame.delayMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-
-            // Check for end of transmission (long HIGH period)
-            if (currentState == DigitalState.HIGH && duration > 10000) {
+            if (!running.get()) {
                 break;
             }
-
-            busyWait(SAMPLE_PERIOD_US * 1000L);
-            timeout++;
-        }
-
-        // Add final pulse
-        if (duration > 0 && duration < 10000) {
-            pulses.add(duration);
+            try {
+                int[] pulses = frame.pulses();
+                streamDecoder.reset();
+                boolean decoded = false;
+                for (int i = 0; i < pulses.length && !decoded; i++) {
+                    decoded = streamDecoder.feed(pulses[i]);
+                }
+                if (!decoded) {
+                    streamDecoder.end();
+                }
+                captureMetrics.recordFrame(streamDecoder, frameDurationNanos(pulses));
+                if (streamDecoder.matched() != null) {
+                    handleDecoded(streamDecoder.matched(), streamDecoder.code(), streamDecoder.address(),
+                            streamDecoder.isExtended(), streamDecoder.isRepeat());
+                }
+                handleFrame(pulses, pulses.length);
+            } catch (Exception e) {
+                logger.error("Error in IR replay: {}", e.getMessage());
+            }
         }
 
-        return pulses;
+        logger.info("IR replay finished");
     }
 
     /**
-     * Logs pulse timings for debugging.
+     * Duration of a recorded frame, the replay takes no time to capture it.
      */
-    private void logPulses(List<Integer> pulses) {
-        StringBuilder sb = new StringBuilder("Pulses (us): ");
-        for (int i = 0; i < Math.min(pulses.size(), 20); i++) {
-            sb.append(pulses.get(i));
-            if (i < pulses.size() - 1) sb.append(", ");
+    private static long frameDurationNanos(int[] pulses) {
+        long total = 0;
+        for (int pulse : pulses) {
+            total += pulse;
         }
-        if (pulses.size() > 20) {
-            sb.append("... (").append(pulses.size()).append(" total)");
-        }
-        logger.info(sb.toString());
+        return total * 1_000;
     }
 
     /**
-     * Tries to decode the captured signal using multiple protocols.
+     * Waits until the input has been HIGH for longer than the gap between frames.
      */
-    private int decodeSignal(List<Integer> pulses) {
-        // Try Sony SIRC first (since user has Sony remote)
-        int code = decodeSonySirc(pulses);
-        if (code >= 0) {
-            logger.info("Decoded Sony SIRC: 0x{}", Integer.toHexString(code));
-            return code;
+    private void waitForFrameEnd() throws InterruptedException {
+        int highMs = 0;
+        while (running.get() && highMs < FRAME_GAP_MS) {
+            Thread.sleep(1);
+            highMs = irInput.state() == DigitalState.HIGH ? highMs + 1 : 0;
         }
-
-        // Try NEC protocol
-        code = decodeNec(pulses);
-        if (code >= 0) {
-            logger.info("Decoded NEC: 0x{}", Integer.toHexString(code));
-            return code;
-        }
-
-        // Try raw decode - just return first significant pattern
-        code = decodeRaw(pulses);
-        if (code >= 0) {
-            logger.info("Decoded RAW: 0x{}", Integer.toHexString(code));
-            return code;
-        }
-
-        return -1;
     }
 
     /**
-     * Decodes Sony SIRC protocol (12, 15, or 20 bit).
-     * Start: 2400us pulse, 600us space
-     * Bit 0: 600us pulse, 600us space
-     * Bit 1: 1200us pulse, 600us space
+     * Handles a code decoded by either the polling loop or the edge capture.
+     * Protocols without repeat frames send the complete frame again while a key is held, the same frame
+     * shortly after the previous one is handled as a repeat as well, see {@link IrRepeatFilter}.
      */
-    private int decodeSonySirc(List<Integer> pulses) {
-        if (pulses.size() < 14) return -1; // Need at least start + 12 bits
+    private synchronized void handleDecoded(IrDecoder decoder, int code, int address, boolean extended,
+                                            boolean repeat) {
+        String protocol = decoder.name();
+        // Always recorded, so a held key keeps being recognized after a repeat frame
+        repeat |= repeatFilter.repeats(protocol, code, address, extended, System.nanoTime());
+
+        logger.info("Decoded {}: 0x{}{}", protocol, Integer.toHexString(code), repeat ? " (repeat)" : "");
+        handleIrCode(new IrCode(code, address, extended, protocol, repeat, LocalDateTime.now()));
+    }
 
-        // Check start pulse (should be ~2400us)
-        int startPulse = pulses.get(0);
-        if (startPulse < 1800 || startPulse > 3000) {
-            return -1;
-        }
+    /**
+     * Discovers the protocol decoders registered as {@link IrDecoder} service.
+     */
+    private static List<IrDecoder> loadDecoders() {
+        List<IrDecoder> decoders = ServiceLoader.load(IrDecoder.class, IrDecoder.class.getClassLoader()).stream()
+                .map(ServiceLoader.Provider::get)
+                .toList();
+        logger.info("IR protocol decoders: {}", decoders.stream().map(IrDecoder::name).toList());
+        return decoders;
+    }
 
-        // Check start space (should be ~600us)
-        int startSpace = pulses.get(1);
-        if (startSpace < 300 || startSpace > 900) {
-            return -1;
+    /**
+     * Logs a captured frame, from either the polling loop or the edge capture, and records it if enabled.
+     */
+    private void handleFrame(int[] pulses, int length) {
+        if (length >= 10) {
+            logger.info("Captured {} pulses", length);
+            logPulses(pulses, length);
         }
-
-        // Decode bits
-        int code = 0;
-        int bitCount = 0;
-        for (int i = 2; i < pulses.size() - 1 && bitCount < 20; i += 2) {
-            int pulse = pulses.get(i);
-            // int space = pulses.get(i + 1); // Space is always ~600us
-
-            // 1200us pulse = 1, 600us pulse = 0
-            if (pulse > 900) {
-                code |= (1 << bitCount);
+        if (traceWriter != null && length > 0) {
+            try {
+                traceWriter.write(pulses, length);
+            } catch (IOException e) {
+                logger.error("Can't record IR frame: {}", e.getMessage());
             }
-            bitCount++;
         }
-
-        if (bitCount >= 7) { // At least 7 bits for command
-            // For SIRC, first 7 bits are command, rest is address
-            return code & 0x7F; // Return just command
-        }
-
-        return -1;
     }
 
     /**
-     * Decodes NEC protocol.
-     * Start: 9000us pulse, 4500us space
-     * Bit 0: 560us pulse, 560us space
-     * Bit 1: 560us pulse, 1690us space
+     * Opens the trace file to record the captured frames in, if configured.
      */
-    private int decodeNec(List<Integer> pulses) {
-        if (pulses.size() < 66) return -1; // Need start + 32 bits * 2
-
-        // Check start pulse (should be ~9000us)
-        int startPulse = pulses.get(0);
-        if (startPulse < 7000 || startPulse > 11000) {
-            return -1;
+    private static IrTrace.Writer openTraceWriter(String recordTrace) {
+        if (recordTrace.isBlank()) {
+            return null;
         }
-
-        // Check start space (should be ~4500us)
-        int startSpace = pulses.get(1);
-        if (startSpace < 3500 || startSpace > 5500) {
-            return -1;
+        try {
+            var writer = new IrTrace.Writer(Path.of(recordTrace));
+            logger.info("Recording IR frames to {}", recordTrace);
+            return writer;
+        } catch (IOException e) {
+            logger.warn("Can't open IR trace {} for recording: {}", recordTrace, e.getMessage());
+            return null;
         }
+    }
 
-        // Decode 32 bits
-        int[] data = new int[4];
-        for (int i = 0; i < 32; i++) {
-            int pulseIdx = 2 + i * 2;
-            int spaceIdx = pulseIdx + 1;
-            if (spaceIdx >= pulses.size()) break;
+    /**
+     * Captures pulse timings from the IR receiver into the pulse ring.
+     * Pulse durations are in microseconds (alternating LOW/HIGH).
+     * Every pulse is fed to the stream decoder, sampling stops as soon as the code is decoded.
+     *
+     * <p>A pulse is the time between the samples at which the level changed, measured with
+     * {@link System#nanoTime()}, so a sample which comes late because the thread was preempted doesn't
+     * shorten the pulse. It's still rounded to the sample period.
+     *
+     * @return The slot of the captured frame in the pulse ring, or -1 if it was dropped
+     */
+    private int capturePulses() {
+        long startNanos = System.nanoTime();
+        long sampleNanos = startNanos;
+        // The input was LOW when the capture started, which is the start of the first pulse
+        long edgeNanos = startNanos;
+        boolean firstSample = true;
+        DigitalState currentState = DigitalState.LOW;
+        boolean full = false;
+        boolean decoded = false;
+        streamDecoder.reset();
 
-            int space = pulses.get(spaceIdx);
-            int byteIdx = i / 8;
-            int bitIdx = i % 8;
+        while (running.get() && !full && !decoded) {
+            DigitalState state = irInput.state();
+            long now = System.nanoTime();
+            if (!firstSample) {
+                // Should be the sample period, anything longer is the busy wait being preempted
+                captureMetrics.sampleInterval.record((now - sampleNanos) / 1_000);
+            }
+            firstSample = false;
+            sampleNanos = now;
 
-            // Long space = 1
-            if (space > 1000) {
-                data[byteIdx] |= (1 << bitIdx);
+            if (state != currentState) {
+                // State changed - record pulse duration
+                int duration = (int) ((now - edgeNanos) / 1_000);
+                full = !pulseRing.add(duration);
+                decoded = streamDecoder.feed(duration);
+                currentState = state;
+                edgeNanos = now;
+            } else if (now - edgeNanos > (currentState == DigitalState.HIGH ? FRAME_GAP_NANOS : MAX_MARK_NANOS)) {
+                // End of transmission (long HIGH period), or no IR signal at all
+                break;
             }
+
+            busyWait(SAMPLE_PERIOD_US * 1000L);
         }
 
-        // Validate NEC checksum
-        if ((data[0] + data[1]) == 0xFF && (data[2] + data[3]) == 0xFF) {
-            return data[2]; // Return command byte
+        // Add final pulse, unless the code was decoded before it ended
+        if (!decoded) {
+            long durationNanos = System.nanoTime() - edgeNanos;
+            if (durationNanos < FRAME_GAP_NANOS) {
+                int duration = (int) (durationNanos / 1_000);
+                pulseRing.add(duration);
+                decoded = streamDecoder.feed(duration);
+            }
+            if (!decoded) {
+                streamDecoder.end();
+            }
         }
+        captureMetrics.recordFrame(streamDecoder, System.nanoTime() - startNanos);
 
-        return -1;
+        return pulseRing.publish();
     }
 
     /**
-     * Raw decode - creates a simple hash from the pulse pattern.
-     * Useful when protocol is unknown but we want consistent codes.
+     * Logs pulse timings for debugging.
      */
-    private int decodeRaw(List<Integer> pulses) {
-        if (pulses.size() < 10) return -1;
-
-        // Create a simple pattern signature
-        int code = 0;
-        int bitPos = 0;
-        int threshold = 800; // Threshold for short/long pulse
-
-        for (int i = 0; i < Math.min(pulses.size(), 16); i++) {
-            if (pulses.get(i) > threshold) {
-                code |= (1 << bitPos);
-            }
-            bitPos++;
+    private void logPulses(int[] pulses, int length) {
+        if (!logger.isInfoEnabled()) {
+            return;
         }
-
-        return code & 0xFF;
+        StringBuilder sb = new StringBuilder("Pulses (us): ");
+        for (int i = 0; i < Math.min(length, 20); i++) {
+            sb.append(pulses[i]);
+            if (i < length - 1) sb.append(", ");
+        }
+        if (length > 20) {
+            sb.append("... (").append(length).append(" total)");
+        }
+        logger.info(sb.toString());
     }
 
     /**
@@ -449,30 +554,28 @@ public class IrService {
 
     /**
      * Handles a successfully decoded IR code.
+     * Repeats of a held key are published as well, but don't update the display or execute the action again.
      */
-    private void handleIrCode(int code) {
-        logger.info("IR code received: 0x{} (decimal: {}), trigger set to: 0x{}",
-                Integer.toHexString(code), code, Integer.toHexString(buzzerTriggerCode.get() & 0xFF));
+    private void handleIrCode(IrCode irCode) {
+        int code = irCode.code();
+        String protocol = irCode.protocol();
 
         // Store as last received code
         lastReceivedCode.set(code);
+        lastReceivedProtocol = protocol;
+
+        eventPublisher.publish(new IrCodeEvent(this, irCode));
+        if (irCode.repeat()) {
+            return;
+        }
+
+        logger.info("IR code received: 0x{} (decimal: {}, protocol: {})", Integer.toHexString(code), code, protocol);
 
         // Update OLED display
         updateOledDisplay(code);
 
-        IrCode irCode = new IrCode(code, LocalDateTime.now());
-        eventPublisher.publishEvent(new IrCodeEvent(this, irCode));
-
-        // Check if this code should trigger the buzzer
-        int trigger = buzzerTriggerCode.get();
-        if (trigger >= 0 && code == trigger) {
-            logger.info("Buzzer trigger code MATCHED! Calling beep...");
-            new Thread(() -> {
-                logger.info("Beep thread started, calling joystickService.beep(200)");
-                joystickService.beep(200);
-                logger.info("Beep thread completed");
-            }).start();
-        }
+        // Execute the action mapped to this code, if any
+        irActionService.dispatch(protocol, code);
     }
 
     /**
@@ -492,18 +595,41 @@ public class IrService {
             sb.append("--\n");
         }
 
-        int trigger = buzzerTriggerCode.get();
-        if (trigger >= 0) {
-            sb.append("Buzzer: ").append(String.format("0x%02X", trigger)).append("\n");
-        } else {
-            sb.append("Buzzer: --\n");
-        }
+        String protocol = lastReceivedProtocol;
+        var action = receivedCode >= 0 && protocol != null ? irActionService.getAction(protocol, receivedCode) : null;
+        sb.append("Action: ").append(action != null ? action.format() : "--").append("\n");
 
-        sb.append("Press KEY to assign");
+        sb.append("KEY maps a beep");
 
         oledService.displayText(sb.toString());
     }
 
+    /**
+     * Returns a snapshot of the timing and decode metrics of the capture.
+     */
+    public IrCaptureStats getCaptureStats() {
+        var thread = captureThread;
+        long preemptions = thread == null ? -1 : thread.getPreemptions();
+        return captureMetrics.snapshot(preemptions < 0 ? -1 : Math.max(0, preemptions - preemptionsAtReset));
+    }
+
+    /**
+     * Clears the timing and decode metrics of the capture.
+     */
+    public void resetCaptureStats() {
+        captureMetrics.reset();
+        var thread = captureThread;
+        preemptionsAtReset = thread == null ? 0 : Math.max(0, thread.getPreemptions());
+    }
+
+    /**
+     * Describes the CPU and priority of the polling capture thread, or null if it wasn't started.
+     */
+    public String getCaptureScheduling() {
+        var thread = captureThread;
+        return thread == null ? null : thread.getScheduling();
+    }
+
     /**
      * Gets the last received IR code.
      */
@@ -516,7 +642,7 @@ public class IrService {
      */
     public void simulateIrCode(int code) {
         logger.info("Simulating IR code: 0x{}", Integer.toHexString(code));
-        handleIrCode(code);
+        handleIrCode(new IrCode(code, -1, false, "Simulated", false, LocalDateTime.now()));
     }
 
     /**
@@ -524,8 +650,22 @@ public class IrService {
      */
     public void shutdown() {
         running.set(false);
+        keyExecutor.shutdownNow();
+        if (edgeCapture != null) {
+            edgeCapture.stop();
+        }
         if (executor != null) {
             executor.shutdownNow();
         }
+        if (captureThread != null) {
+            captureThread.interrupt();
+        }
+        if (traceWriter != null) {
+            try {
+                traceWriter.close();
+            } catch (IOException e) {
+                logger.warn("Can't close IR trace: {}", e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,196 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.List;
+
+/**
+ * Runs all protocol decoders in parallel on the pulses of a frame while it is being received.
+ *
+ * <p>Every pulse is fed to the decoders which still match; a decoder which reports {@link IrDecoder.Result#FAILED}
+ * is skipped for the rest of the frame. The first decoder which reports {@link IrDecoder.Result#DONE} gives the
+ * code, and the remaining pulses of the frame are ignored. The fallback decoder only gets its turn when the frame
+ * has ended without any protocol matching.
+ *
+ * <p>The decoder which matched is moved to the front when the next frame starts, so the protocols of the remotes
+ * in use are tried first and win when more than one protocol matches.
+ *
+ * <p>Not thread-safe, the capture feeding it has to make sure of that.
+ */
+final class IrStreamDecoder {
+
+    // A decoder which accepted this many pulses recognized the leader, the frame is of its protocol
+    private static final int CANDIDATE_PULSES = 2;
+
+    private final IrDecoder[] decoders;
+    private final IrDecoder fallback;
+    private final boolean[] active;
+    private final int[] accepted;
+    private int activeCount;
+    private IrDecoder matched;
+    private int matchedIndex = -1;
+    private int code = -1;
+    private int address = -1;
+    private boolean extended;
+    private boolean repeat;
+
+    /**
+     * @param decoders Protocol decoders, in order of priority when more than one matches on the same pulse
+     * @param fallback Decoder used when none of the protocols matched
+     */
+    IrStreamDecoder(List<IrDecoder> decoders, IrDecoder fallback) {
+        this.decoders = decoders.toArray(new IrDecoder[0]);
+        this.fallback = fallback;
+        this.active = new boolean[this.decoders.length];
+        this.accepted = new int[this.decoders.length];
+        reset();
+    }
+
+    /**
+     * Prepares all decoders for a new frame.
+     */
+    void reset() {
+        if (matchedIndex > 0) {
+            // Move to front, the others keep their order
+            var decoder = decoders[matchedIndex];
+            System.arraycopy(decoders, 0, decoders, 1, matchedIndex);
+            decoders[0] = decoder;
+        }
+        matchedIndex = -1;
+        for (int i = 0; i < decoders.length; i++) {
+            decoders[i].reset();
+            active[i] = true;
+            accepted[i] = 0;
+        }
+        activeCount = decoders.length;
+        fallback.reset();
+        matched = null;
+        code = -1;
+        address = -1;
+        extended = false;
+        repeat = false;
+    }
+
+    /**
+     * Feeds the next pulse of the frame.
+     *
+     * @return true once the frame is decoded, further pulses of this frame can be ignored
+     */
+    boolean feed(int durationUs) {
+        if (matched != null) {
+            return true;
+        }
+        fallback.feed(durationUs);
+        for (int i = 0; i < decoders.length && activeCount > 0; i++) {
+            if (!active[i]) {
+                continue;
+            }
+            switch (decoders[i].feed(durationUs)) {
+                case DONE -> {
+                    accepted[i]++;
+                    match(decoders[i], i);
+                    return true;
+                }
+                case FAILED -> {
+                    active[i] = false;
+                    activeCount--;
+                }
+                case MORE -> accepted[i]++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called when the frame has ended, gives the decoders which need the end of the frame their chance.
+     *
+     * @return true if the frame is decoded
+     */
+    boolean end() {
+        if (matched != null) {
+            return true;
+        }
+        for (int i = 0; i < decoders.length; i++) {
+            if (active[i] && decoders[i].end() == IrDecoder.Result.DONE) {
+                match(decoders[i], i);
+                return true;
+            }
+        }
+        if (fallback.end() == IrDecoder.Result.DONE) {
+            match(fallback, -1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * True while at least one protocol decoder can still match the frame.
+     */
+    boolean isMatching() {
+        return activeCount > 0;
+    }
+
+    /**
+     * Number of protocol decoders, excluding the fallback.
+     */
+    int decoderCount() {
+        return decoders.length;
+    }
+
+    /**
+     * The protocol decoder at the given position, the order changes when a frame is matched.
+     */
+    IrDecoder decoder(int index) {
+        return decoders[index];
+    }
+
+    /**
+     * True if the decoder at the given position recognized the start of the current frame, whether it
+     * decoded the frame or failed on a later pulse.
+     */
+    boolean isCandidate(int index) {
+        return accepted[index] >= CANDIDATE_PULSES || matchedIndex == index;
+    }
+
+    /**
+     * The decoder which decoded the frame, or null.
+     */
+    IrDecoder matched() {
+        return matched;
+    }
+
+    /**
+     * The decoded code, or -1.
+     */
+    int code() {
+        return code;
+    }
+
+    /**
+     * The decoded address, or -1 if the protocol has none.
+     */
+    int address() {
+        return address;
+    }
+
+    /**
+     * True if the decoded frame uses the extended address format of its protocol.
+     */
+    boolean isExtended() {
+        return extended;
+    }
+
+    /**
+     * True if the decoded frame is a repeat of a held key.
+     */
+    boolean isRepeat() {
+        return repeat;
+    }
+
+    private void match(IrDecoder decoder, int index) {
+        matched = decoder;
+        matchedIndex = index;
+        code = decoder.code();
+        address = decoder.address();
+        extended = decoder.isExtended();
+        repeat = decoder.isRepeat();
+    }
+}
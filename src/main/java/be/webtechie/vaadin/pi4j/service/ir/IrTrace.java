@@ -0,0 +1,137 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary file of captured IR pulse trains, to reproduce captures without the remote and the receiver.
+ *
+ * <p>The file starts with the magic bytes {@code IRT1}, followed by the frames. Every frame is stored as
+ * unsigned LEB128 varints: the milliseconds since the start of the previous frame, the number of pulses and the
+ * pulse durations in microseconds. Most pulses fit in two bytes, so a NEC frame takes about 130 bytes.
+ */
+public final class IrTrace {
+
+    private static final byte[] MAGIC = {'I', 'R', 'T', '1'};
+
+    /**
+     * A recorded frame.
+     *
+     * @param delayMs Milliseconds since the start of the previous frame
+     * @param pulses  Pulse durations in microseconds, alternating LOW/HIGH
+     */
+    public record Frame(long delayMs, int[] pulses) {
+    }
+
+    private IrTrace() {
+        // Utility class
+    }
+
+    /**
+     * Reads all frames of a trace file.
+     */
+    public static List<Frame> read(Path path) throws IOException {
+        try (var in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads all frames of a trace.
+     */
+    public static List<Frame> read(InputStream stream) throws IOException {
+        var in = new BufferedInputStream(stream);
+        if (!Arrays.equals(in.readNBytes(MAGIC.length), MAGIC)) {
+            throw new IOException("Not an IR trace file");
+        }
+        List<Frame> frames = new ArrayList<>();
+        while (true) {
+            long delay = readVarint(in, true);
+            if (delay < 0) {
+                return frames;
+            }
+            int[] pulses = new int[(int) readVarint(in, false)];
+            for (int i = 0; i < pulses.length; i++) {
+                pulses[i] = (int) readVarint(in, false);
+            }
+            frames.add(new Frame(delay, pulses));
+        }
+    }
+
+    /**
+     * Appends frames to a trace file, creating it if needed.
+     */
+    public static final class Writer implements Closeable {
+
+        private final OutputStream out;
+        private long lastFrameMillis = -1;
+
+        public Writer(Path path) throws IOException {
+            boolean newFile = !Files.exists(path) || Files.size(path) == 0;
+            this.out = new BufferedOutputStream(Files.newOutputStream(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            if (newFile) {
+                out.write(MAGIC);
+            }
+        }
+
+        /**
+         * Writes a frame and flushes it to the file.
+         */
+        public synchronized void write(int[] pulses, int length) throws IOException {
+            long now = System.currentTimeMillis();
+            writeVarint(lastFrameMillis < 0 ? 0 : now - lastFrameMillis);
+            lastFrameMillis = now;
+            writeVarint(length);
+            for (int i = 0; i < length; i++) {
+                writeVarint(pulses[i]);
+            }
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+
+        private void writeVarint(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    /**
+     * @param endAllowed True if the end of the stream is expected here, -1 is returned then
+     */
+    private static long readVarint(InputStream in, boolean endAllowed) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (endAllowed && shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated IR trace file");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid varint in IR trace file");
+    }
+}
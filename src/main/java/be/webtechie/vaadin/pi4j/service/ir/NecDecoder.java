@@ -0,0 +1,127 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decodes NEC protocol, including extended NEC with a 16-bit address and repeat frames.
+ * Start: 9000us pulse, 4500us space
+ * Bit 0: 560us pulse, 560us space
+ * Bit 1: 560us pulse, 1690us space
+ * Repeat: 9000us pulse, 2250us space, 560us pulse, sent every 108ms while a key is held
+ *
+ * <p>The code is available as soon as the space of the 32nd bit has been received. Standard and extended frames
+ * are both reported as NEC, {@link #isExtended()} tells them apart. A repeat frame has no address, it reports
+ * the address of the frame it repeats. It's only accepted within {@link #REPEAT_TIMEOUT_NANOS} after the previous
+ * frame, a later one belongs to a press of which the full frame was lost, or to another remote.
+ */
+public class NecDecoder implements IrDecoder {
+
+    /**
+     * Time after a frame in which a repeat frame is accepted: repeats follow every 108ms, plus some margin
+     */
+    static final long REPEAT_TIMEOUT_NANOS = 150_000_000;
+
+    private final LongSupplier nanoTime;
+    private int index;
+    private int data;
+    private boolean repeat;
+    private boolean extended;
+    private int address = -1;
+    private int lastCode = -1;
+    private long lastFrameNanos;
+
+    public NecDecoder() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoTime Clock which times the repeat frames
+     */
+    NecDecoder(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public String name() {
+        return "NEC";
+    }
+
+    @Override
+    public void reset() {
+        index = 0;
+        data = 0;
+        repeat = false;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        int i = index++;
+        if (i == 0) {
+            // Check start pulse (should be ~9000us)
+            return durationUs < 7000 || durationUs > 11000 ? Result.FAILED : Result.MORE;
+        }
+        if (i == 1) {
+            // Check start space (should be ~4500us, or ~2250us for a repeat frame)
+            if (durationUs >= 1750 && durationUs <= 2750 && lastCode >= 0) {
+                long now = nanoTime.getAsLong();
+                if (now - lastFrameNanos > REPEAT_TIMEOUT_NANOS) {
+                    // Too late to belong to the last command
+                    lastCode = -1;
+                    return Result.FAILED;
+                }
+                lastFrameNanos = now;
+                repeat = true;
+                return Result.DONE;
+            }
+            return durationUs < 3500 || durationUs > 5500 ? Result.FAILED : Result.MORE;
+        }
+        if (i % 2 == 0) {
+            // Pulse is always ~560us
+            return Result.MORE;
+        }
+
+        // Bits are sent LSB first: address, inverted address (or high address byte), command, inverted command
+        int bit = (i - 3) / 2;
+        if (durationUs > 1000) {
+            // Long space = 1
+            data |= (1 << bit);
+        }
+        if (bit < 31) {
+            return Result.MORE;
+        }
+
+        // Validate NEC checksum, extended NEC uses the second byte for the address as well
+        int address = data & 0xFF;
+        int addressInverted = (data >>> 8) & 0xFF;
+        int command = (data >>> 16) & 0xFF;
+        int commandInverted = (data >>> 24) & 0xFF;
+        if ((command + commandInverted) != 0xFF) {
+            return Result.FAILED;
+        }
+        extended = (address + addressInverted) != 0xFF;
+        this.address = extended ? data & 0xFFFF : address;
+        lastCode = command;
+        lastFrameNanos = nanoTime.getAsLong();
+        return Result.DONE;
+    }
+
+    @Override
+    public int code() {
+        return repeat ? lastCode : (data >>> 16) & 0xFF; // Return command byte
+    }
+
+    @Override
+    public int address() {
+        return address;
+    }
+
+    @Override
+    public boolean isExtended() {
+        return extended;
+    }
+
+    @Override
+    public boolean isRepeat() {
+        return repeat;
+    }
+}
@@ -0,0 +1,47 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Raw decode - creates a simple hash from the pulse pattern.
+ * Useful when protocol is unknown but we want consistent codes.
+ *
+ * <p>Never fails while pulses arrive, the code is only given when the frame ends.
+ */
+public class RawDecoder implements IrDecoder {
+
+    private static final int THRESHOLD = 800; // Threshold for short/long pulse
+    private static final int PATTERN_PULSES = 16;
+
+    private int count;
+    private int code;
+
+    @Override
+    public String name() {
+        return "RAW";
+    }
+
+    @Override
+    public void reset() {
+        count = 0;
+        code = 0;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        // Create a simple pattern signature
+        if (count < PATTERN_PULSES && durationUs > THRESHOLD) {
+            code |= (1 << count);
+        }
+        count++;
+        return Result.MORE;
+    }
+
+    @Override
+    public Result end() {
+        return count >= 10 ? Result.DONE : Result.FAILED;
+    }
+
+    @Override
+    public int code() {
+        return code & 0xFF;
+    }
+}
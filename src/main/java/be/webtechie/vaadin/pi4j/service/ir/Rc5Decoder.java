@@ -0,0 +1,118 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decodes Philips RC5 protocol (including the extended command bit).
+ * 14 Manchester encoded bits of 1778us: 2 start bits, toggle bit, 5 address bits, 6 command bits, MSB first.
+ * A 1 is a space followed by a pulse, a 0 a pulse followed by a space, each half 889us.
+ *
+ * <p>The toggle bit changes with every key press, so a frame with the same toggle bit and code as the previous
+ * one is a repeat of a held key.
+ */
+public class Rc5Decoder implements IrDecoder {
+
+    // Half-bit of 889us, a pulse is one or two half-bits
+    private static final int SINGLE_MIN_US = 600;
+    private static final int SINGLE_MAX_US = 1200;
+    private static final int DOUBLE_MIN_US = 1350;
+    private static final int DOUBLE_MAX_US = 2100; // Not wider, the 2400us SIRC leader would pass as two half-bits
+    private static final int HALF_BITS = 28;
+
+    // Half bits received so far, a set bit is a pulse (mark)
+    private long halfBits;
+    private int halfBitCount;
+    private int frame;
+    private int lastFrame = -1;
+    private boolean repeat;
+
+    @Override
+    public String name() {
+        return "RC5";
+    }
+
+    @Override
+    public void reset() {
+        // The first half of the first start bit is a space, which can't be seen before the first pulse
+        halfBits = 0;
+        halfBitCount = 1;
+        repeat = false;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        boolean mark = isMarkNext();
+        int units;
+        if (durationUs >= SINGLE_MIN_US && durationUs <= SINGLE_MAX_US) {
+            units = 1;
+        } else if (durationUs >= DOUBLE_MIN_US && durationUs <= DOUBLE_MAX_US) {
+            units = 2;
+        } else {
+            return Result.FAILED;
+        }
+        for (int i = 0; i < units && halfBitCount < HALF_BITS; i++) {
+            if (mark) {
+                halfBits |= 1L << halfBitCount;
+            }
+            halfBitCount++;
+            if (halfBitCount % 2 == 0 && !isValidBit(halfBitCount / 2 - 1)) {
+                return Result.FAILED;
+            }
+        }
+        return halfBitCount == HALF_BITS ? complete() : Result.MORE;
+    }
+
+    @Override
+    public Result end() {
+        // A last bit of 0 ends with a space, which merges into the gap after the frame
+        if (halfBitCount == HALF_BITS - 1) {
+            halfBitCount++;
+            return isValidBit(HALF_BITS / 2 - 1) ? complete() : Result.FAILED;
+        }
+        return Result.FAILED;
+    }
+
+    @Override
+    public int code() {
+        int command = frame & 0x3F;
+        // The second start bit is the inverted 7th command bit in extended RC5
+        boolean extended = (frame & (1 << 12)) == 0;
+        return extended ? command | 0x40 : command;
+    }
+
+    @Override
+    public int address() {
+        return (frame >>> 6) & 0x1F;
+    }
+
+    @Override
+    public boolean isRepeat() {
+        return repeat;
+    }
+
+    private boolean isMarkNext() {
+        // Levels alternate with every pulse, the last half bit received tells which level comes next
+        return (halfBits & (1L << (halfBitCount - 1))) == 0;
+    }
+
+    private boolean isValidBit(int bit) {
+        boolean first = (halfBits & (1L << (bit * 2))) != 0;
+        boolean second = (halfBits & (1L << (bit * 2 + 1))) != 0;
+        return first != second;
+    }
+
+    private Result complete() {
+        int value = 0;
+        for (int bit = 0; bit < HALF_BITS / 2; bit++) {
+            // Pulse in the second half is a 1
+            boolean one = (halfBits & (1L << (bit * 2 + 1))) != 0;
+            value = (value << 1) | (one ? 1 : 0);
+        }
+        // Both start bits are 1 in standard RC5, only the first one has to be
+        if ((value & (1 << 13)) == 0) {
+            return Result.FAILED;
+        }
+        repeat = value == lastFrame;
+        lastFrame = value;
+        frame = value;
+        return Result.DONE;
+    }
+}
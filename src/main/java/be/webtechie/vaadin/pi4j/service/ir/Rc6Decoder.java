@@ -0,0 +1,132 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decodes Philips RC6 mode 0 protocol.
+ * Leader: 2666us pulse, 889us space, followed by Manchester encoded bits with 444us halves: start bit (1),
+ * 3 mode bits, a toggle bit of double length, 8 address bits and 8 command bits, MSB first.
+ * A 1 is a pulse followed by a space, a 0 a space followed by a pulse.
+ *
+ * <p>The toggle bit changes with every key press, so a frame with the same toggle bit and code as the previous
+ * one is a repeat of a held key.
+ */
+public class Rc6Decoder implements IrDecoder {
+
+    private static final int UNIT_US = 444;
+    private static final int TOGGLE_UNIT = 8; // Start bit and mode bits take 8 units
+    private static final int UNITS = 44; // Start bit, mode, toggle (4 units), address and command
+
+    private int index;
+    // Units received after the leader, a set bit is a pulse (mark)
+    private long units;
+    private int unitCount;
+    private int frame;
+    private int lastFrame = -1;
+    private boolean repeat;
+
+    @Override
+    public String name() {
+        return "RC6";
+    }
+
+    @Override
+    public void reset() {
+        index = 0;
+        units = 0;
+        unitCount = 0;
+        repeat = false;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        int i = index++;
+        if (i == 0) {
+            // Check leader pulse (should be ~2666us)
+            return durationUs < 2000 || durationUs > 3300 ? Result.FAILED : Result.MORE;
+        }
+        if (i == 1) {
+            // Check leader space (should be ~889us)
+            return durationUs < 600 || durationUs > 1200 ? Result.FAILED : Result.MORE;
+        }
+
+        // After the leader, pulses are at even indexes
+        boolean mark = i % 2 == 0;
+        int count = (durationUs + UNIT_US / 2) / UNIT_US;
+        if (count < 1 || count > 4) {
+            return Result.FAILED;
+        }
+        for (int u = 0; u < count && unitCount < UNITS; u++) {
+            if (mark) {
+                units |= 1L << unitCount;
+            }
+            unitCount++;
+            if (!isValidSoFar()) {
+                return Result.FAILED;
+            }
+        }
+        return unitCount == UNITS ? complete() : Result.MORE;
+    }
+
+    @Override
+    public Result end() {
+        // A last bit of 1 ends with a space, which merges into the gap after the frame
+        if (unitCount == UNITS - 1) {
+            unitCount++;
+            return isValidSoFar() ? complete() : Result.FAILED;
+        }
+        return Result.FAILED;
+    }
+
+    @Override
+    public int code() {
+        return frame & 0xFF; // Return command byte
+    }
+
+    @Override
+    public int address() {
+        return (frame >>> 8) & 0xFF;
+    }
+
+    @Override
+    public boolean isRepeat() {
+        return repeat;
+    }
+
+    private boolean unit(int position) {
+        return (units & (1L << position)) != 0;
+    }
+
+    /**
+     * Checks the bit which was completed by the last unit, if any.
+     */
+    private boolean isValidSoFar() {
+        int last = unitCount - 1;
+        if (last < TOGGLE_UNIT) {
+            // Start bit and mode bits, two units each
+            return last % 2 == 0 || unit(last - 1) != unit(last);
+        }
+        if (last < TOGGLE_UNIT + 4) {
+            // Toggle bit, two units per half
+            return switch (last - TOGGLE_UNIT) {
+                case 1, 3 -> unit(last - 1) == unit(last) && (last - TOGGLE_UNIT == 1 || unit(last) != unit(last - 2));
+                default -> true;
+            };
+        }
+        return (last - TOGGLE_UNIT) % 2 == 0 || unit(last - 1) != unit(last);
+    }
+
+    private Result complete() {
+        // Start bit has to be 1, and only mode 0 is supported
+        if (!unit(0) || unit(2) || unit(4) || unit(6)) {
+            return Result.FAILED;
+        }
+        int value = unit(TOGGLE_UNIT) ? 1 : 0;
+        for (int position = TOGGLE_UNIT + 4; position < UNITS; position += 2) {
+            // Pulse in the first half is a 1
+            value = (value << 1) | (unit(position) ? 1 : 0);
+        }
+        repeat = value == lastFrame;
+        lastFrame = value;
+        frame = value;
+        return Result.DONE;
+    }
+}
@@ -0,0 +1,63 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decodes Samsung32 protocol, which is NEC with a shorter start and the address sent twice.
+ * Start: 4500us pulse, 4500us space
+ * Bit 0: 560us pulse, 560us space
+ * Bit 1: 560us pulse, 1690us space
+ *
+ * <p>While a key is held the complete frame is sent again, so there are no separate repeat frames.
+ */
+public class Samsung32Decoder implements IrDecoder {
+
+    private int index;
+    private int data;
+
+    @Override
+    public String name() {
+        return "Samsung32";
+    }
+
+    @Override
+    public void reset() {
+        index = 0;
+        data = 0;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        int i = index++;
+        if (i == 0 || i == 1) {
+            // Check start pulse and space (both should be ~4500us)
+            return durationUs < 3500 || durationUs > 5500 ? Result.FAILED : Result.MORE;
+        }
+        if (i % 2 == 0) {
+            // Pulse is always ~560us
+            return Result.MORE;
+        }
+
+        // Bits are sent LSB first: address, address, command, inverted command
+        int bit = (i - 3) / 2;
+        if (durationUs > 1000) {
+            // Long space = 1
+            data |= (1 << bit);
+        }
+        if (bit < 31) {
+            return Result.MORE;
+        }
+
+        int command = (data >>> 16) & 0xFF;
+        int commandInverted = (data >>> 24) & 0xFF;
+        return (command + commandInverted) == 0xFF ? Result.DONE : Result.FAILED;
+    }
+
+    @Override
+    public int code() {
+        return (data >>> 16) & 0xFF; // Return command byte
+    }
+
+    @Override
+    public int address() {
+        return data & 0xFF;
+    }
+}
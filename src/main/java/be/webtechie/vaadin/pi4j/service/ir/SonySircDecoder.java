@@ -0,0 +1,70 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+/**
+ * Decodes Sony SIRC protocol (12, 15, or 20 bit).
+ * Start: 2400us pulse, 600us space
+ * Bit 0: 600us pulse, 600us space
+ * Bit 1: 1200us pulse, 600us space
+ *
+ * <p>The number of bits is only known when the frame ends, unless all 20 bits have been received.
+ */
+public class SonySircDecoder implements IrDecoder {
+
+    private static final int MAX_BITS = 20;
+
+    private int index;
+    private int code;
+    private int bitCount;
+
+    @Override
+    public String name() {
+        return "Sony SIRC";
+    }
+
+    @Override
+    public void reset() {
+        index = 0;
+        code = 0;
+        bitCount = 0;
+    }
+
+    @Override
+    public Result feed(int durationUs) {
+        int i = index++;
+        if (i == 0) {
+            // Check start pulse (should be ~2400us)
+            return durationUs < 1800 || durationUs > 3000 ? Result.FAILED : Result.MORE;
+        }
+        if (i % 2 == 1) {
+            // Start space and bit spaces are always ~600us, a longer one is the RC6 leader or another protocol
+            return durationUs < 300 || durationUs > 800 ? Result.FAILED : Result.MORE;
+        }
+        if (durationUs < 300 || durationUs > 1500) {
+            return Result.FAILED;
+        }
+        // 1200us pulse = 1, 600us pulse = 0
+        if (durationUs > 900) {
+            code |= (1 << bitCount);
+        }
+        bitCount++;
+        return bitCount == MAX_BITS ? Result.DONE : Result.MORE;
+    }
+
+    @Override
+    public Result end() {
+        // At least 7 bits for command
+        return bitCount >= 7 ? Result.DONE : Result.FAILED;
+    }
+
+    @Override
+    public int code() {
+        // For SIRC, first 7 bits are command, rest is address
+        return code & 0x7F; // Return just command
+    }
+
+    @Override
+    public int address() {
+        // 5 bits for 12-bit frames, 8 bits for 15-bit frames, 13 bits for 20-bit frames
+        return code >>> 7;
+    }
+}
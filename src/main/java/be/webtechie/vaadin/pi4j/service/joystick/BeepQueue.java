@@ -0,0 +1,166 @@
+package be.webtechie.vaadin.pi4j.service.joystick;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Single owner of the PCF8574 beeper, so beep requests from views, key presses and IR actions never switch
+ * the beeper from several threads at once.
+ *
+ * <p>A request only moves the moment the beeper must be switched off, one thread does the I2C writes. A request
+ * while the beeper is on extends the current beep instead of starting a new one, up to {@link #MAX_ON_MS}.
+ * Requests which follow each other within {@link #MIN_REQUEST_INTERVAL_MS} are dropped, so mashing a button
+ * doesn't flood the I2C bus. A failed switch-off is retried every {@link #OFF_RETRY_MS}, so the beeper never
+ * keeps sounding because of one failed I2C write.
+ */
+final class BeepQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(BeepQueue.class);
+    static final long MIN_REQUEST_INTERVAL_MS = 50;
+    static final long MAX_ON_MS = 2_000;
+    static final long OFF_RETRY_MS = 100;
+
+    private final Consumer<Boolean> beeper;
+    private final Thread owner;
+
+    // Guarded by this
+    private long offAtNanos; // 0 when no beep is due
+    private long onSinceNanos;
+    private boolean on;
+    private long lastAcceptedNanos;
+    private long requested;
+    private long merged;
+    private long dropped;
+    private boolean running = true;
+
+    /**
+     * @param beeper Switches the beeper on or off, only called from the owner thread
+     */
+    BeepQueue(Consumer<Boolean> beeper) {
+        this.beeper = beeper;
+        this.lastAcceptedNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(MIN_REQUEST_INTERVAL_MS);
+        this.owner = Thread.ofVirtual().name("pcf8574-beeper").start(this::run);
+    }
+
+    /**
+     * Requests a beep, returns immediately.
+     *
+     * @return false if the request was dropped by the rate limit
+     */
+    synchronized boolean request(int durationMs) {
+        requested++;
+        long now = System.nanoTime();
+        if (now - lastAcceptedNanos < TimeUnit.MILLISECONDS.toNanos(MIN_REQUEST_INTERVAL_MS)) {
+            dropped++;
+            logger.debug("Beep of {}ms dropped, {} dropped in total", durationMs, dropped);
+            return false;
+        }
+        lastAcceptedNanos = now;
+
+        long until = now + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        long limit = (on ? onSinceNanos : now) + TimeUnit.MILLISECONDS.toNanos(MAX_ON_MS);
+        if (offAtNanos != 0) {
+            offAtNanos = Math.min(Math.max(offAtNanos, until), limit);
+            merged++;
+        } else {
+            offAtNanos = Math.min(until, limit);
+            notifyAll();
+        }
+        return true;
+    }
+
+    synchronized BeepStats getStats() {
+        return new BeepStats(requested, merged, dropped);
+    }
+
+    /**
+     * Stops the owner thread, which switches the beeper off if it's on.
+     */
+    void stop() {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            owner.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        boolean beeperOn = false;
+        boolean offFailed = false;
+        try {
+            while (true) {
+                boolean target;
+                synchronized (this) {
+                    // Keeps going while the beeper is on, also when no beep is due because switching off failed
+                    while (running && offAtNanos == 0 && !beeperOn) {
+                        wait();
+                    }
+                    if (!running) {
+                        break;
+                    }
+                    long now = System.nanoTime();
+                    target = offAtNanos - now > 0;
+                    if (!target) {
+                        offAtNanos = 0;
+                    } else if (!on) {
+                        onSinceNanos = now;
+                    }
+                    on = target;
+                }
+
+                // The I2C write is done without holding the lock, so requests never wait for the bus
+                if (target != beeperOn) {
+                    try {
+                        beeper.accept(target);
+                        beeperOn = target;
+                        offFailed = false;
+                    } catch (Exception e) {
+                        if (target) {
+                            logger.error("Can't switch beeper on: {}", e.getMessage());
+                            cancelBeep();
+                        } else if (!offFailed) {
+                            logger.error("Can't switch beeper off, retrying every {}ms: {}", OFF_RETRY_MS,
+                                    e.getMessage());
+                            offFailed = true;
+                        } else {
+                            logger.debug("Can't switch beeper off: {}", e.getMessage());
+                        }
+                    }
+                }
+
+                if (beeperOn) {
+                    synchronized (this) {
+                        // A failed switch-off is retried after a back-off, unless a new beep is requested
+                        long remaining = offAtNanos == 0
+                                ? TimeUnit.MILLISECONDS.toNanos(OFF_RETRY_MS)
+                                : offAtNanos - System.nanoTime();
+                        if (running && remaining > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (beeperOn) {
+            try {
+                beeper.accept(false);
+            } catch (Exception e) {
+                logger.error("Can't switch beeper off: {}", e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void cancelBeep() {
+        offAtNanos = 0;
+        on = false;
+    }
+}
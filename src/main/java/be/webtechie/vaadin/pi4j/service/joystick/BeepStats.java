@@ -0,0 +1,11 @@
+package be.webtechie.vaadin.pi4j.service.joystick;
+
+/**
+ * Counters of the beep requests of the PCF8574 buzzer, see {@link JoystickService#getBeepStats()}.
+ *
+ * @param requested All beep requests
+ * @param merged    Requests which extended a beep which was already on
+ * @param dropped   Requests which followed the previous one too quickly
+ */
+public record BeepStats(long requested, long merged, long dropped) {
+}
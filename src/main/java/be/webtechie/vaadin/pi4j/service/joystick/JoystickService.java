@@ -1,14 +1,15 @@
 package be.webtechie.vaadin.pi4j.service.joystick;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.event.JoystickEvent;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.views.electronics.JoystickView;
 import be.webtechie.vaadin.pi4j.views.electronics.SimpleBuzzerView;
 import com.pi4j.context.Context;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
@@ -18,7 +19,8 @@ import java.util.Random;
 
 /**
  * Service for reading joystick input via PCF8574 I/O expander.
- * Publishes joystick direction changes via Spring ApplicationEventPublisher.
+ * Publishes joystick direction changes via the HardwareEventPublisher.
+ * Beeps of the buzzer on the same expander go through a {@link BeepQueue}.
  */
 @Service
 public class JoystickService {
@@ -27,18 +29,20 @@ public class JoystickService {
     private static final long POLLING_INTERVAL_MS = 100; // Poll every 100ms
 
     private final PCF8574 pcf8574;
-    private final ApplicationEventPublisher eventPublisher;
+    private final BeepQueue beepQueue;
+    private final HardwareEventPublisher eventPublisher;
     private final boolean mockMode;
     private final Random random = new Random();
 
     private JoystickDirection lastDirection = JoystickDirection.NONE;
 
-    public JoystickService(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
+    public JoystickService(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
         this.eventPublisher = eventPublisher;
 
         if (!config.hasJoystick() || config.getI2cDevicePcf8574() == 0x00) {
             logger.info("Joystick not available on this board");
             this.pcf8574 = null;
+            this.beepQueue = null;
             this.mockMode = false;
             return;
         }
@@ -61,6 +65,7 @@ public class JoystickService {
         }
 
         this.pcf8574 = tempPcf8574;
+        this.beepQueue = tempPcf8574 == null ? null : new BeepQueue(tempPcf8574::setBeeper);
         this.mockMode = useMockMode;
 
         // Register the views
@@ -91,32 +96,47 @@ public class JoystickService {
     }
 
     /**
-     * Triggers a short beep using the PCF8574 buzzer.
+     * Triggers a beep using the PCF8574 buzzer and returns immediately.
+     * A beep while the buzzer is already on extends the current beep.
      *
      * @param durationMs duration of the beep in milliseconds
+     * @return false if the beep was dropped, because it followed the previous one too quickly, or because there
+     * is no beeper, see {@link #hasBeeper()}
      */
-    public void beep(int durationMs) {
-        logger.info("beep({}) called, pcf8574={}", durationMs, pcf8574 != null ? "initialized" : "null");
-        if (pcf8574 == null) {
+    public boolean beep(int durationMs) {
+        if (beepQueue == null) {
             logger.debug("Beep requested (mock mode, duration: {}ms)", durationMs);
-            return;
-        }
-        try {
-            pcf8574.setBeeper(true);
-            Thread.sleep(durationMs);
-            pcf8574.setBeeper(false);
-            logger.info("beep({}) completed", durationMs);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            pcf8574.setBeeper(false);
+            return false;
         }
+        return beepQueue.request(durationMs);
+    }
+
+    /**
+     * Returns true if the PCF8574 with the beeper is available, without it every beep is dropped.
+     */
+    public boolean hasBeeper() {
+        return beepQueue != null;
     }
 
     /**
      * Triggers a short beep (100ms).
      */
-    public void beep() {
-        beep(100);
+    public boolean beep() {
+        return beep(100);
+    }
+
+    /**
+     * Returns the counters of the beep requests.
+     */
+    public BeepStats getBeepStats() {
+        return beepQueue == null ? new BeepStats(0, 0, 0) : beepQueue.getStats();
+    }
+
+    @PreDestroy
+    private void shutdown() {
+        if (beepQueue != null) {
+            beepQueue.stop();
+        }
     }
 
     private void pollJoystick() {
@@ -137,7 +157,7 @@ public class JoystickService {
             if (direction != lastDirection) {
                 lastDirection = direction;
                 logger.debug("Joystick direction: {}", direction);
-                eventPublisher.publishEvent(new JoystickEvent(this, direction));
+                eventPublisher.publish(new JoystickEvent(this, direction));
             }
         } catch (Exception e) {
             logger.error("Error reading joystick: {}", e.getMessage());
@@ -11,6 +11,8 @@ import org.slf4j.LoggerFactory;
  * - P0-P3: Joystick directions (active low)
  * - P4: LED control
  * - P7: Beeper control
+ * The outputs are kept in a latch, so switching the LED or beeper is a single write instead of a read and a write.
+ * All access is synchronized, as the joystick polling and the beeper use the device from different threads.
  */
 public class PCF8574 {
 
@@ -29,6 +31,8 @@ public class PCF8574 {
     private static final int BEEPER_BIT = 0x80;      // P7
 
     private final I2C i2c;
+    // Last value written, so the LED and beeper can be switched with a single write
+    private int latch;
 
     /**
      * Creates a new PCF8574 instance.
@@ -46,6 +50,8 @@ public class PCF8574 {
                 .build();
         logger.info("Creating I2C device on bus {} at address 0x{}", i2cBus, Integer.toHexString(address));
         this.i2c = pi4j.create(i2cConfig);
+        // P0-P3 are inputs, which are written high
+        this.latch = readByte() | 0x0F;
         logger.info("PCF8574 initialized on I2C bus {} at address 0x{}", i2cBus, Integer.toHexString(address));
     }
 
@@ -54,9 +60,9 @@ public class PCF8574 {
      *
      * @return the current joystick direction, or NONE if no direction is pressed
      */
-    public JoystickDirection readJoystick() {
+    public synchronized JoystickDirection readJoystick() {
         // Set P0-P3 as inputs by writing high bits
-        int current = readByte();
+        int current = latch;
         int writeVal = 0x0F | current;
         writeByte(writeVal);
 
@@ -90,12 +96,11 @@ public class PCF8574 {
      *
      * @param on true to turn LED on, false to turn off
      */
-    public void setLed(boolean on) {
-        int current = readByte();
+    public synchronized void setLed(boolean on) {
         if (on) {
-            writeByte(current & ~LED_BIT);  // Clear bit to turn on
+            writeByte(latch & ~LED_BIT);  // Clear bit to turn on
         } else {
-            writeByte(current | LED_BIT);   // Set bit to turn off
+            writeByte(latch | LED_BIT);   // Set bit to turn off
         }
     }
 
@@ -104,10 +109,10 @@ public class PCF8574 {
      *
      * @param on true to turn beeper on, false to turn off
      */
-    public void setBeeper(boolean on) {
-        int current = readByte();
+    public synchronized void setBeeper(boolean on) {
+        int current = latch;
         int newValue = on ? (current & ~BEEPER_BIT) : (current | BEEPER_BIT);
-        logger.info("setBeeper({}): current=0x{}, writing=0x{}", on,
+        logger.debug("setBeeper({}): current=0x{}, writing=0x{}", on,
                 Integer.toHexString(current), Integer.toHexString(newValue));
         writeByte(newValue);
     }
@@ -131,6 +136,7 @@ public class PCF8574 {
         try {
             // PCF8574 doesn't have registers - write directly
             i2c.write((byte) value);
+            latch = value;
         } catch (Exception e) {
             logger.error("I2C write failed for value 0x{}: {}", Integer.toHexString(value), e.getMessage());
             throw e;
@@ -1,18 +1,25 @@
 package be.webtechie.vaadin.pi4j.service.matrix;
 
-import be.webtechie.vaadin.pi4j.service.SleepHelper;
 import com.pi4j.context.Context;
 import com.pi4j.io.spi.Spi;
 import com.pi4j.io.spi.SpiConfig;
+import org.springframework.scheduling.TaskScheduler;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
  * Implementation of the CrowPi LED matrix using SPI with Pi4J
+ * <p>
+ * Printed strings and transitions are compiled into frames up front and played by a {@link MatrixAnimator} from the
+ * task scheduler, so these methods return immediately. A new animation replaces the running one.
+ * <p>
+ * The frames of an animation are drawn from a scheduler thread, the methods which change the buffer hold the
+ * {@link #lock} of the driver until the result is sent, so a frame never mixes with another drawing.
  */
 public class LedMatrixComponent extends MAX7219 {
     /**
@@ -32,24 +39,42 @@ public class LedMatrixComponent extends MAX7219 {
      */
     protected static final MatrixDirection DEFAULT_SCROLL_MATRIX_DIRECTION = MatrixDirection.LEFT;
 
+    /**
+     * Plays the printed strings and transitions, one row byte array per frame
+     */
+    private final MatrixAnimator<byte[]> animator;
+
     /**
      * Creates a new LED matrix component with the default channel and baud rate.
      *
-     * @param pi4j Pi4J context
+     * @param pi4j          Pi4J context
+     * @param taskScheduler Scheduler which plays the animations
      */
-    public LedMatrixComponent(Context pi4j) {
-        this(pi4j, DEFAULT_CHANNEL, DEFAULT_BAUD_RATE);
+    public LedMatrixComponent(Context pi4j, TaskScheduler taskScheduler) {
+        this(pi4j, DEFAULT_CHANNEL, DEFAULT_BAUD_RATE, taskScheduler);
     }
 
     /**
      * Creates a new LED matrix component with a custom channel and baud rate.
      *
-     * @param pi4j    Pi4J context
-     * @param channel SPI channel
-     * @param baud    SPI baud rate
+     * @param pi4j          Pi4J context
+     * @param channel       SPI channel
+     * @param baud          SPI baud rate
+     * @param taskScheduler Scheduler which plays the animations
      */
-    public LedMatrixComponent(Context pi4j, int channel, int baud) {
-        super(pi4j.create(buildSpiConfig(pi4j, channel, baud)));
+    public LedMatrixComponent(Context pi4j, int channel, int baud, TaskScheduler taskScheduler) {
+        this((Spi) pi4j.create(buildSpiConfig(pi4j, channel, baud)), taskScheduler);
+    }
+
+    /**
+     * Creates a new LED matrix component on the given SPI instance.
+     *
+     * @param spi           SPI instance
+     * @param taskScheduler Scheduler which plays the animations
+     */
+    LedMatrixComponent(Spi spi, TaskScheduler taskScheduler) {
+        super(spi);
+        this.animator = new MatrixAnimator<>(taskScheduler, this::showFrame);
     }
 
     /**
@@ -111,40 +136,59 @@ public class LedMatrixComponent extends MAX7219 {
      * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired row/column offset for new buffer
      */
     protected void scroll(MatrixDirection matrixDirection, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
+        synchronized (lock) {
+            // Call internal scroll function based on direction
+            // This has been split up into separate methods to keep this method tidy
+            shift(buffer, matrixDirection, matrixScrollMode, newBuffer, newOffset);
+
+            // Immediately draw the updated buffer to the LED matrix
+            refresh();
+        }
+    }
+
+    /**
+     * Scrolls the rows towards the given direction and fills the empty row/column based on scroll mode.
+     * This works on any array of rows, so animations can be compiled without changing the display.
+     *
+     * @param rows             Rows to scroll, one byte per row
+     * @param matrixDirection  Desired scroll direction
+     * @param matrixScrollMode Desired scroll mode
+     * @param newBuffer        Only if {@link MatrixScrollMode#REPLACE}: New buffer for replacement values
+     * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired row/column offset for new buffer
+     */
+    private static void shift(byte[] rows, MatrixDirection matrixDirection, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
         // Call internal scroll function based on direction
         // This has been split up into separate methods to keep this method tidy
         switch (matrixDirection) {
             case UP:
-                scrollUp(matrixScrollMode, newBuffer, newOffset);
+                scrollUp(rows, matrixScrollMode, newBuffer, newOffset);
                 break;
             case DOWN:
-                scrollDown(matrixScrollMode, newBuffer, newOffset);
+                scrollDown(rows, matrixScrollMode, newBuffer, newOffset);
                 break;
             case LEFT:
-                scrollLeft(matrixScrollMode, newBuffer, newOffset);
+                scrollLeft(rows, matrixScrollMode, newBuffer, newOffset);
                 break;
             case RIGHT:
-                scrollRight(matrixScrollMode, newBuffer, newOffset);
+                scrollRight(rows, matrixScrollMode, newBuffer, newOffset);
                 break;
         }
-
-        // Immediately draw the updated buffer to the LED matrix
-        refresh();
     }
 
     /**
      * Scrolls the display upwards and fills the now empty row based on scroll mode.
-     * This works by copying the buffer array with an offset using {@link System#arraycopy(Object, int, Object, int, int)}.
+     * This works by copying the rows array with an offset using {@link System#arraycopy(Object, int, Object, int, int)}.
      *
+     * @param rows             Rows to scroll
      * @param matrixScrollMode Desired scroll mode
      * @param newBuffer        Only if {@link MatrixScrollMode#REPLACE}: New buffer for replacement values
      * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired row offset for new buffer
      */
     @SuppressWarnings("SuspiciousSystemArraycopy")
-    private void scrollUp(MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
-        // Preserve first row and scroll buffer upwards
-        final var firstRow = buffer[0];
-        System.arraycopy(buffer, 1, buffer, 0, HEIGHT - 1);
+    private static void scrollUp(byte[] rows, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
+        // Preserve first row and scroll rows upwards
+        final var firstRow = rows[0];
+        System.arraycopy(rows, 1, rows, 0, HEIGHT - 1);
 
         // Determine target value for last row based on scroll mode
         final byte lastRow;
@@ -157,22 +201,23 @@ public class LedMatrixComponent extends MAX7219 {
         }
 
         // Set last row to determined value
-        buffer[HEIGHT - 1] = lastRow;
+        rows[HEIGHT - 1] = lastRow;
     }
 
     /**
      * Scrolls the display downwards and fills the now empty row based on scroll mode.
-     * This works by copying the buffer array with an offset using {@link System#arraycopy(Object, int, Object, int, int)}.
+     * This works by copying the rows array with an offset using {@link System#arraycopy(Object, int, Object, int, int)}.
      *
+     * @param rows             Rows to scroll
      * @param matrixScrollMode Desired scroll mode
      * @param newBuffer        Only if {@link MatrixScrollMode#REPLACE}: New buffer for replacement values
      * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired row offset for new buffer
      */
     @SuppressWarnings("SuspiciousSystemArraycopy")
-    private void scrollDown(MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
-        // Preserve last row and scroll buffer downwards
-        final var lastRow = buffer[HEIGHT - 1];
-        System.arraycopy(buffer, 0, buffer, 1, HEIGHT - 1);
+    private static void scrollDown(byte[] rows, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
+        // Preserve last row and scroll rows downwards
+        final var lastRow = rows[HEIGHT - 1];
+        System.arraycopy(rows, 0, rows, 1, HEIGHT - 1);
 
         // Determine target value for first row based on scroll mode
         final byte firstRow;
@@ -185,34 +230,35 @@ public class LedMatrixComponent extends MAX7219 {
         }
 
         // Set first row to determined value
-        buffer[0] = firstRow;
+        rows[0] = firstRow;
     }
 
     /**
      * Scrolls the display to the left and fills the now empty column based on scroll mode.
      * This works by shifting each row to the left and combining the new column value with a binary OR.
      *
+     * @param rows             Rows to scroll
      * @param matrixScrollMode Desired scroll mode
      * @param newBuffer        Only if {@link MatrixScrollMode#REPLACE}: New buffer for replacement values
      * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired column offset for new buffer
      */
-    private void scrollLeft(MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
+    private static void scrollLeft(byte[] rows, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
         // Scroll each row individually to the left
         for (int row = 0; row < HEIGHT; row++) {
             // Convert byte to integer to ensure proper bit operations
-            final int tmp = buffer[row] & 0xFF;
+            final int tmp = rows[row] & 0xFF;
 
             if (matrixScrollMode == MatrixScrollMode.ROTATE) {
                 // Shift left by one (therefore moving the columns) and wrap the value around
-                buffer[row] = (byte) ((tmp << 1) | (tmp >>> 7));
+                rows[row] = (byte) ((tmp << 1) | (tmp >>> 7));
             } else if (matrixScrollMode == MatrixScrollMode.REPLACE) {
                 // Determine target value for last column based on new buffer
                 final int lastColumn = getBitFromByte(newBuffer[row], WIDTH - 1 - newOffset);
                 // Combine shifted row (without last column) with last column
-                buffer[row] = (byte) ((tmp << 1) | lastColumn);
+                rows[row] = (byte) ((tmp << 1) | lastColumn);
             } else {
                 // Shift left by one, causing the last column to be empty
-                buffer[row] = (byte) (tmp << 1);
+                rows[row] = (byte) (tmp << 1);
             }
         }
     }
@@ -221,48 +267,52 @@ public class LedMatrixComponent extends MAX7219 {
      * Scrolls the display to the right and fills the now empty column based on scroll mode.
      * This works by shifting each row to the right and combining the new column value with a binary OR.
      *
+     * @param rows             Rows to scroll
      * @param matrixScrollMode Desired scroll mode
      * @param newBuffer        Only if {@link MatrixScrollMode#REPLACE}: New buffer for replacement values
      * @param newOffset        Only if {@link MatrixScrollMode#REPLACE}: Desired column offset for new buffer
      */
-    private void scrollRight(MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
+    private static void scrollRight(byte[] rows, MatrixScrollMode matrixScrollMode, byte[] newBuffer, int newOffset) {
         // Scroll each row individually to the right
         for (int row = 0; row < HEIGHT; row++) {
             // Convert byte to integer to ensure proper bit operations
-            final int tmp = buffer[row] & 0xFF;
+            final int tmp = rows[row] & 0xFF;
 
             if (matrixScrollMode == MatrixScrollMode.ROTATE) {
                 // Shift right by one (therefore moving the columns) and wrap the value around
-                buffer[row] = (byte) ((tmp >>> 1) | (tmp << 7));
+                rows[row] = (byte) ((tmp >>> 1) | (tmp << 7));
             } else if (matrixScrollMode == MatrixScrollMode.REPLACE) {
                 // Determine target value for first column based on new buffer
                 final int firstColumn = getBitFromByte(newBuffer[row], newOffset) << 7;
                 // Combine shifted row (without first column) with first column
-                buffer[row] = (byte) ((tmp >>> 1) | firstColumn);
+                rows[row] = (byte) ((tmp >>> 1) | firstColumn);
             } else {
                 // Shift right by one, causing the first column to be empty
-                buffer[row] = (byte) (tmp >>> 1);
+                rows[row] = (byte) (tmp >>> 1);
             }
         }
     }
 
     /**
      * Prints the given string to the LED matrix by scrolling each character in from left to right with the default scroll delay.
-     * This method is blocking until the string has been fully printed and will both start and end with an empty display.
+     * This method returns immediately, the string scrolls in the background and replaces a running animation.
+     * The animation will both start and end with an empty display.
      * <p>
      * A pattern in the format "{SYMBOL-NAME}" can be used to include a symbol with the given name in the string.
      * E.g. if "{HEART}" occurs within the string, it will be automatically replaced with the {@link MatrixSymbol#HEART} symbol.
      * If a pattern includes a symbol which could not be found, it is silently ignored and added as-is.
      *
      * @param string String to be displayed
+     * @return Future which completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string) {
-        print(string, DEFAULT_SCROLL_MATRIX_DIRECTION);
+    public CompletableFuture<Void> print(String string) {
+        return print(string, DEFAULT_SCROLL_MATRIX_DIRECTION);
     }
 
     /**
      * Prints the given string to the LED matrix by scrolling each character in towards the given direction with the default scroll delay.
-     * This method is blocking until the string has been fully printed and will both start and end with an empty display.
+     * This method returns immediately, the string scrolls in the background and replaces a running animation.
+     * The animation will both start and end with an empty display.
      * <p>
      * A pattern in the format "{SYMBOL-NAME}" can be used to include a symbol with the given name in the string.
      * E.g. if "{HEART}" occurs within the string, it will be automatically replaced with the {@link MatrixSymbol#HEART} symbol.
@@ -270,14 +320,16 @@ public class LedMatrixComponent extends MAX7219 {
      *
      * @param string                String to be displayed
      * @param scrollMatrixDirection Direction towards character should be scrolled in
+     * @return Future which completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string, MatrixDirection scrollMatrixDirection) {
-        print(string, scrollMatrixDirection, DEFAULT_SCROLL_DELAY);
+    public CompletableFuture<Void> print(String string, MatrixDirection scrollMatrixDirection) {
+        return print(string, scrollMatrixDirection, DEFAULT_SCROLL_DELAY);
     }
 
     /**
      * Prints the given string to the LED matrix by scrolling each character in towards the given direction with a custom scroll delay.
-     * This method is blocking until the string has been fully printed and will both start and end with an empty display.
+     * This method returns immediately, the string scrolls in the background and replaces a running animation.
+     * The animation will both start and end with an empty display.
      * <p>
      * A pattern in the format "{SYMBOL-NAME}" can be used to include a symbol with the given name in the string.
      * E.g. if "{HEART}" occurs within the string, it will be automatically replaced with the {@link MatrixSymbol#HEART} symbol.
@@ -286,22 +338,24 @@ public class LedMatrixComponent extends MAX7219 {
      * @param string                String to be displayed
      * @param scrollMatrixDirection Direction towards character should be scrolled in
      * @param scrollDelay           Delay in milliseconds between scroll operations
+     * @return Future which completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string, MatrixDirection scrollMatrixDirection, long scrollDelay) {
-        // Convert string to list of symbols
-        final var symbols = convertToMatrixSymbols(string);
-
-        // Immediately print a space to clear the current display
-        print(MatrixSymbol.SPACE);
-
-        // Display each symbol one after another by transitioning them into the display
-        for (MatrixSymbol symbol : symbols) {
-            transition(symbol, scrollMatrixDirection, scrollDelay);
+    public CompletableFuture<Void> print(String string, MatrixDirection scrollMatrixDirection, long scrollDelay) {
+        // Get the string as strip of symbols, which is only parsed and rendered the first time
+        // The strip ends with a space, without this we would still see the last letter of the provided string
+        final var strip = MatrixTextStrip.of(string);
+
+        // The first frame is empty to clear the current display, the next frames scroll the symbols in one after another
+        final List<byte[]> frames = new ArrayList<>(strip.steps() + 1);
+        for (int step = 0; step <= strip.steps(); step++) {
+            final long frame = strip.frame(scrollMatrixDirection, step);
+            final var rows = new byte[HEIGHT];
+            for (int y = 0; y < HEIGHT; y++) {
+                rows[y] = (byte) MatrixTextStrip.row(frame, y);
+            }
+            frames.add(rows);
         }
-
-        // Transition to a space symbol to clear the current display at the end
-        // Without this we would still see the last letter of the provided string
-        transition(MatrixSymbol.SPACE, scrollMatrixDirection, scrollDelay);
+        return animator.play(new MatrixAnimation<>(frames, scrollDelay));
     }
 
     /**
@@ -311,64 +365,13 @@ public class LedMatrixComponent extends MAX7219 {
      * This method will also search for MatrixSymbol reference patterns in the provided string, which are represented as "{SYMBOL-NAME}".
      * If this pattern is found within the string, this method will try to lookup the symbol and if found add it instead of the pattern.
      * If no symbol with a given name is found, it gets silently ignored and added as-is to the list of output symbols.
+     * The parsed symbols are cached by the {@link MatrixTextStrip}, so a repeated string is only parsed once.
      *
      * @param string String to parse and convert to symbols
      * @return List of symbols to print for representing the given string
      */
     protected List<MatrixSymbol> convertToMatrixSymbols(String string) {
-        final List<MatrixSymbol> symbols = new ArrayList<>();
-
-        // Initialize state for our loop
-        final StringBuilder buffer = new StringBuilder();
-        boolean referenceMode = false;
-
-        // Loop over each character of the string and look for MatrixSymbol references
-        for (int i = 0; i < string.length(); i++) {
-            // Get the character at the current position within the string
-            char c = string.charAt(i);
-
-            if (c == '{') {
-                // We encountered an opening curly brace, this might be the start of a MatrixSymbol reference
-                // Enable reference mode and silently skip this character for now
-                referenceMode = true;
-            } else if (referenceMode && c == '}') {
-                try {
-                    // Attempt to find a symbol with the given name written between the curly braces
-                    final var symbolName = buffer.toString().toUpperCase();
-                    final var symbol = MatrixSymbol.valueOf(symbolName);
-                    symbols.add(symbol);
-                } catch (IllegalArgumentException e) {
-                    // We have not found a symbol with this name, so add the buffer as-is to our list of symbols to output
-                    // We also have to add the curly braces here, as they are NOT contained within the buffer
-                    symbols.add(MatrixSymbol.BRACE_LEFT);
-                    for (int j = 0; j < buffer.length(); j++) {
-                        symbols.add(lookupMatrixSymbol(buffer.charAt(j)));
-                    }
-                    symbols.add(MatrixSymbol.BRACE_RIGHT);
-                } finally {
-                    // Clear the buffer and disable reference mode
-                    buffer.delete(0, buffer.length());
-                    referenceMode = false;
-                }
-            } else if (referenceMode) {
-                // We are in reference mode but this is not a closing curly brace, so lets add the character to the buffer
-                buffer.append(c);
-            } else {
-                // We are not in reference mode and therefore not currently processing any MatrixSymbol reference
-                // Directly lookup the given character in the symbol table and add to list of symbols
-                symbols.add(lookupMatrixSymbol(c));
-            }
-        }
-
-        // If we are still in reference mode, add the opening curly brace and contents of the buffer as-is
-        if (referenceMode) {
-            symbols.add(MatrixSymbol.BRACE_LEFT);
-            for (int i = 0; i < buffer.length(); i++) {
-                symbols.add(lookupMatrixSymbol(buffer.charAt(i)));
-            }
-        }
-
-        return symbols;
+        return new ArrayList<>(MatrixTextStrip.of(string).getSymbols());
     }
 
     /**
@@ -387,8 +390,10 @@ public class LedMatrixComponent extends MAX7219 {
      * @param symbol MatrixSymbol to display
      */
     public void print(MatrixSymbol symbol) {
-        System.arraycopy(symbol.getRows(), 0, buffer, 0, HEIGHT);
-        refresh();
+        synchronized (lock) {
+            System.arraycopy(symbol.getRows(), 0, buffer, 0, HEIGHT);
+            refresh();
+        }
     }
 
     /**
@@ -396,9 +401,10 @@ public class LedMatrixComponent extends MAX7219 {
      * This works by scrolling each column in one-by-one towards the default scroll direction with the default scroll delay.
      *
      * @param symbol New symbol to display
+     * @return Future which completes when the symbol is fully shown, cancel it to stop scrolling
      */
-    public void transition(MatrixSymbol symbol) {
-        transition(symbol, DEFAULT_SCROLL_MATRIX_DIRECTION, DEFAULT_SCROLL_DELAY);
+    public CompletableFuture<Void> transition(MatrixSymbol symbol) {
+        return transition(symbol, DEFAULT_SCROLL_MATRIX_DIRECTION, DEFAULT_SCROLL_DELAY);
     }
 
     /**
@@ -407,23 +413,65 @@ public class LedMatrixComponent extends MAX7219 {
      *
      * @param symbol                New symbol to display
      * @param scrollMatrixDirection Desired scrolling direction, e.g. {@link MatrixDirection#LEFT} means the new symbol scrolls in from right towards left
+     * @return Future which completes when the symbol is fully shown, cancel it to stop scrolling
      */
-    public void transition(MatrixSymbol symbol, MatrixDirection scrollMatrixDirection) {
-        transition(symbol, scrollMatrixDirection, DEFAULT_SCROLL_DELAY);
+    public CompletableFuture<Void> transition(MatrixSymbol symbol, MatrixDirection scrollMatrixDirection) {
+        return transition(symbol, scrollMatrixDirection, DEFAULT_SCROLL_DELAY);
     }
 
     /**
      * Transitions the current LED matrix display to the given symbol by gradually scrolling the symbol in.
      * This works by scrolling each column in one-by-one towards the given scroll direction with the specified scroll delay.
+     * This method returns immediately, the symbol scrolls in the background and replaces a running animation.
      *
      * @param symbol                New symbol to display
      * @param scrollMatrixDirection Desired scrolling direction, e.g. {@link MatrixDirection#LEFT} means the new symbol scrolls in from right towards left
      * @param scrollDelay           Delay in milliseconds between each scrolled column
+     * @return Future which completes when the symbol is fully shown, cancel it to stop scrolling
      */
-    public void transition(MatrixSymbol symbol, MatrixDirection scrollMatrixDirection, long scrollDelay) {
-        for (int i = 0; i < WIDTH; i++) {
-            scroll(scrollMatrixDirection, MatrixScrollMode.REPLACE, symbol.getRows(), i);
-            SleepHelper.sleep(scrollDelay);
+    public CompletableFuture<Void> transition(MatrixSymbol symbol, MatrixDirection scrollMatrixDirection, long scrollDelay) {
+        final List<byte[]> frames = new ArrayList<>(WIDTH);
+        final byte[] display;
+        synchronized (lock) {
+            display = buffer.clone();
+        }
+        compileTransitions(display, List.of(symbol), scrollMatrixDirection, frames);
+        return animator.play(new MatrixAnimation<>(frames, scrollDelay));
+    }
+
+    /**
+     * Stops the running animation, the LED matrix keeps showing the last frame.
+     */
+    public void stopAnimation() {
+        animator.stop();
+    }
+
+    /**
+     * Scrolls the symbols one after another into the display and adds a frame for every scrolled column.
+     *
+     * @param display               Rows to start from, these are changed into the last frame
+     * @param symbols               Symbols to scroll in
+     * @param scrollMatrixDirection Desired scrolling direction
+     * @param frames                List to add the frames to
+     */
+    private static void compileTransitions(byte[] display, List<MatrixSymbol> symbols, MatrixDirection scrollMatrixDirection, List<byte[]> frames) {
+        for (MatrixSymbol symbol : symbols) {
+            for (int i = 0; i < WIDTH; i++) {
+                shift(display, scrollMatrixDirection, MatrixScrollMode.REPLACE, symbol.getRows(), i);
+                frames.add(display.clone());
+            }
+        }
+    }
+
+    /**
+     * Copies a frame of an animation into the buffer and immediately draws it to the LED matrix.
+     *
+     * @param rows Frame to display
+     */
+    private void showFrame(byte[] rows) {
+        synchronized (lock) {
+            System.arraycopy(rows, 0, buffer, 0, HEIGHT);
+            refresh();
         }
     }
 
@@ -498,17 +546,19 @@ public class LedMatrixComponent extends MAX7219 {
         // Copy image into buffer pixel-by-pixel by looping over Y and X coordinates
         // While retrieving the data buffer (which happens to have the same format) would be slightly quicker, it breaks with sub-images
         // As a slight optimization we first clear the buffer and then only call setPixel() when true
-        clear();
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                if (image.getRGB(x, y) != Color.BLACK.getRGB()) {
-                    setPixel(x, y, true);
+        synchronized (lock) {
+            clear();
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    if (image.getRGB(x, y) != Color.BLACK.getRGB()) {
+                        setPixel(x, y, true);
+                    }
                 }
             }
-        }
 
-        // Immediately draw the updated buffer to the LED matrix
-        refresh();
+            // Immediately draw the updated buffer to the LED matrix
+            refresh();
+        }
     }
 
     /**
@@ -30,6 +30,11 @@ public class MAX7219 {
      */
     protected final byte[] buffer = new byte[HEIGHT];
 
+    /**
+     * Guards the buffer and the SPI writes, so a refresh sends one consistent frame while other threads draw
+     */
+    protected final Object lock = new Object();
+
     /**
      * Pi4J SPI instance
      */
@@ -49,7 +54,9 @@ public class MAX7219 {
      * This means that the current contents of the displays are still being shown until {@link #refresh()} is called.
      */
     public void clear() {
-        Arrays.fill(buffer, (byte) 0);
+        synchronized (lock) {
+            Arrays.fill(buffer, (byte) 0);
+        }
     }
 
     /**
@@ -57,8 +64,10 @@ public class MAX7219 {
      * The contents of the buffer will be preserved by this command.
      */
     public void refresh() {
-        for (int row = 0; row < HEIGHT; row++) {
-            refreshRow(row);
+        synchronized (lock) {
+            for (int row = 0; row < HEIGHT; row++) {
+                refreshRow(row);
+            }
         }
     }
 
@@ -73,7 +82,9 @@ public class MAX7219 {
             throw new IllegalArgumentException("Row must be an integer in the range 0-" + HEIGHT);
         }
 
-        execute((byte) (CMD_SET_FIRST_ROW + row), buffer[row]);
+        synchronized (lock) {
+            execute((byte) (CMD_SET_FIRST_ROW + row), buffer[row]);
+        }
     }
 
     /**
@@ -131,10 +142,12 @@ public class MAX7219 {
 
         // Generate bitmask and set/unset specific bit
         final byte mask = (byte) (1 << (WIDTH - 1 - x));
-        if (enabled) {
-            buffer[y] |= mask;
-        } else {
-            buffer[y] &= ~mask;
+        synchronized (lock) {
+            if (enabled) {
+                buffer[y] |= mask;
+            } else {
+                buffer[y] &= ~mask;
+            }
         }
     }
 
@@ -151,7 +164,9 @@ public class MAX7219 {
 
         // Generate bitmask and retrieve specific bit
         final byte mask = (byte) (1 << (WIDTH - 1 - x));
-        return (buffer[y] & mask) != 0;
+        synchronized (lock) {
+            return (buffer[y] & mask) != 0;
+        }
     }
 
     /**
@@ -178,7 +193,9 @@ public class MAX7219 {
      * @param data    Data for the given command
      */
     private void execute(byte command, byte data) {
-        spi.write(command, data);
+        synchronized (lock) {
+            spi.write(command, data);
+        }
     }
 }
 
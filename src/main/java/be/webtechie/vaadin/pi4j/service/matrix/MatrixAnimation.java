@@ -0,0 +1,32 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import java.util.List;
+
+/**
+ * Precomputed frames of a matrix animation, like a scrolled text, shown one after another by the
+ * {@link MatrixAnimator}.
+ *
+ * @param frames     Frames in the format of the matrix, which must not be changed after compiling
+ * @param frameDelay Milliseconds between two frames
+ * @param <F>        Frame type, e.g. {@code 0xRRGGBB} pixels or one byte per row
+ */
+public record MatrixAnimation<F>(List<F> frames, long frameDelay) {
+
+    public MatrixAnimation {
+        frames = List.copyOf(frames);
+        if (frameDelay < 0) {
+            throw new IllegalArgumentException("Frame delay can't be negative");
+        }
+    }
+
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * Milliseconds from the first to the last frame.
+     */
+    public long duration() {
+        return frames.isEmpty() ? 0 : (frames.size() - 1) * frameDelay;
+    }
+}
@@ -0,0 +1,136 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+/**
+ * Shows the frames of a {@link MatrixAnimation} from a scheduler, so no caller thread waits while text scrolls.
+ *
+ * <p>Only one animation plays at a time: playing a new one cancels the running one immediately, without
+ * waiting for it to finish. Each frame is scheduled at the start of the animation plus its offset, so a late
+ * frame doesn't delay the rest.
+ *
+ * <p>The future of an animation completes when its last frame is shown. Cancelling the future stops the
+ * animation and leaves the last shown frame on the matrix.
+ *
+ * @param <F> Frame type of the matrix
+ */
+public final class MatrixAnimator<F> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatrixAnimator.class);
+
+    private final TaskScheduler scheduler;
+    private final Consumer<F> display;
+    private Playback current;
+
+    /**
+     * @param scheduler Shows the frames
+     * @param display   Shows a frame on the matrix
+     */
+    public MatrixAnimator(TaskScheduler scheduler, Consumer<F> display) {
+        this.scheduler = scheduler;
+        this.display = display;
+    }
+
+    private final class Playback {
+        final MatrixAnimation<F> animation;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        // Reused for every frame
+        final Runnable nextFrame = () -> step(this);
+        final Instant start = Instant.now();
+        int index;
+        ScheduledFuture<?> step;
+
+        Playback(MatrixAnimation<F> animation) {
+            this.animation = animation;
+        }
+    }
+
+    /**
+     * Cancels the running animation and starts the new one.
+     *
+     * @return Completes when the last frame is shown, cancel it to stop the animation
+     */
+    public synchronized CompletableFuture<Void> play(MatrixAnimation<F> animation) {
+        stop();
+        var playback = new Playback(animation);
+        playback.done.whenComplete((result, error) -> {
+            if (playback.done.isCancelled()) {
+                cancelled(playback);
+            }
+        });
+        current = playback;
+        playback.step = scheduler.schedule(playback.nextFrame, playback.start);
+        return playback.done;
+    }
+
+    /**
+     * Cancels the running animation, the matrix keeps showing the last frame.
+     */
+    public synchronized void stop() {
+        var playback = current;
+        if (playback != null) {
+            current = null;
+            cancelStep(playback);
+            playback.done.cancel(false);
+        }
+    }
+
+    public synchronized boolean isPlaying() {
+        return current != null;
+    }
+
+    /**
+     * Called when the future of an animation was cancelled, by the animator or by the caller.
+     */
+    private synchronized void cancelled(Playback playback) {
+        if (playback == current) {
+            cancelStep(playback);
+            current = null;
+        }
+    }
+
+    private void cancelStep(Playback playback) {
+        if (playback.step != null) {
+            playback.step.cancel(false);
+        }
+    }
+
+    /**
+     * Shows the next frame of the animation, or ends the animation after the last frame.
+     */
+    private synchronized void step(Playback playback) {
+        if (playback != current) {
+            // Cancelled or replaced while this frame was due
+            return;
+        }
+        var animation = playback.animation;
+        if (playback.index == animation.size()) {
+            current = null;
+            playback.done.complete(null);
+            return;
+        }
+        try {
+            display.accept(animation.frames().get(playback.index));
+        } catch (Exception e) {
+            logger.error("Error showing animation frame: {}", e.getMessage());
+            current = null;
+            playback.done.completeExceptionally(e);
+            return;
+        }
+        playback.index++;
+        if (playback.index == animation.size()) {
+            current = null;
+            playback.done.complete(null);
+            return;
+        }
+        playback.step = scheduler.schedule(playback.nextFrame,
+                playback.start.plusMillis(playback.index * animation.frameDelay()));
+    }
+}
@@ -126,6 +126,21 @@ public enum MatrixSymbol {
     BRACE_RIGHT('}', (byte) 0xE0, (byte) 0x30, (byte) 0x30, (byte) 0x1C, (byte) 0x30, (byte) 0x30, (byte) 0xE0, (byte) 0x00),
     TILDE('~', (byte) 0x76, (byte) 0xDC, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00);
 
+    /**
+     * Symbols indexed by their ASCII character, for a lookup without scanning all symbols
+     */
+    private static final MatrixSymbol[] BY_ASCII = new MatrixSymbol[128];
+
+    static {
+        for (MatrixSymbol symbol : values()) {
+            int ascii = symbol.getAscii();
+            // The first symbol of a character wins, like the lookup did before
+            if (ascii >= 0 && ascii < BY_ASCII.length && BY_ASCII[ascii] == null) {
+                BY_ASCII[ascii] = symbol;
+            }
+        }
+    }
+
     /**
      * ASCII character to which this symbol belongs to or -1 if no ASCII mapping is available
      */
@@ -168,12 +183,7 @@ public enum MatrixSymbol {
      * @return Symbol if found or null
      */
     public static MatrixSymbol getByChar(char c) {
-        for (MatrixSymbol symbol : MatrixSymbol.values()) {
-            if (symbol.getAscii() == c) {
-                return symbol;
-            }
-        }
-        return null;
+        return c < BY_ASCII.length ? BY_ASCII[c] : null;
     }
 
     /**
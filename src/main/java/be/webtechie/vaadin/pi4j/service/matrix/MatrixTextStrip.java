@@ -0,0 +1,214 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A string rendered once into the rows and columns of its symbols, followed by a space, from which the frames
+ * of the scrolling text are taken without parsing the string or looking up symbols again.
+ *
+ * <p>A pattern in the format "{SYMBOL-NAME}" includes the symbol with that name, a pattern with an unknown name
+ * is shown as-is. Strips are cached by their text, so a ticker which repeats the same text, like a clock or a
+ * temperature, is only rendered the first time.
+ *
+ * <p>A frame is a 64-bit mask with the 8 rows from top to bottom, every row in the format of
+ * {@link MatrixSymbol#getRows()}: the left column is the highest bit of the row byte.
+ */
+public final class MatrixTextStrip {
+
+    private static final int CACHE_SIZE = 32;
+    private static final int SIZE = 8;
+
+    private static final Map<String, MatrixTextStrip> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MatrixTextStrip> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final List<MatrixSymbol> symbols;
+    // Row y of symbol s at s * 8 + y, the trailing space included
+    private final byte[] rows;
+    // Column x of symbol s at s * 8 + x, with the top row in the lowest bit
+    private final byte[] columns;
+
+    private MatrixTextStrip(List<MatrixSymbol> symbols) {
+        this.symbols = Collections.unmodifiableList(symbols);
+        int count = symbols.size() + 1;
+        this.rows = new byte[count * SIZE];
+        this.columns = new byte[count * SIZE];
+        for (int s = 0; s < symbols.size(); s++) {
+            byte[] symbolRows = symbols.get(s).getRows();
+            System.arraycopy(symbolRows, 0, rows, s * SIZE, SIZE);
+            for (int y = 0; y < SIZE; y++) {
+                int row = symbolRows[y] & 0xFF;
+                for (int x = 0; x < SIZE; x++) {
+                    if (((row >> (7 - x)) & 1) == 1) {
+                        columns[s * SIZE + x] |= (byte) (1 << y);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the strip of the string, rendering it if it's not cached.
+     *
+     * @throws IllegalArgumentException if the string contains a character which is not supported by the matrix
+     */
+    public static MatrixTextStrip of(String string) {
+        synchronized (cache) {
+            var strip = cache.get(string);
+            if (strip != null) {
+                return strip;
+            }
+        }
+        var strip = new MatrixTextStrip(parse(string));
+        synchronized (cache) {
+            cache.put(string, strip);
+        }
+        return strip;
+    }
+
+    /**
+     * The symbols of the string, without the trailing space.
+     */
+    public List<MatrixSymbol> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Number of scroll steps until the string and the trailing space are fully scrolled in.
+     */
+    public int steps() {
+        return rows.length;
+    }
+
+    /**
+     * The frame after the number of scroll steps towards the direction, starting from an empty display.
+     * Step 0 is the empty display, the last step shows the trailing space.
+     *
+     * @return The 8 rows, the top row in the highest byte
+     */
+    public long frame(MatrixDirection direction, int step) {
+        long frame = 0;
+        for (int i = 0; i < SIZE; i++) {
+            switch (direction) {
+                case LEFT -> {
+                    // Column i shows the column which entered 7 - i steps ago at the right
+                    int column = column(step - SIZE + i);
+                    frame |= spread(column, 7 - i);
+                }
+                case RIGHT -> {
+                    // Columns enter at the left, the rightmost column of a symbol first
+                    int column = column(reversed(step - 1 - i));
+                    frame |= spread(column, 7 - i);
+                }
+                case UP -> frame |= (long) row(step - SIZE + i) << ((7 - i) * SIZE);
+                case DOWN -> frame |= (long) row(reversed(step - 1 - i)) << ((7 - i) * SIZE);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Returns the row byte of a frame.
+     *
+     * @param y Row, 0 for the top row
+     */
+    public static int row(long frame, int y) {
+        return (int) (frame >>> ((7 - y) * SIZE)) & 0xFF;
+    }
+
+    private int row(int index) {
+        return index < 0 ? 0 : rows[index] & 0xFF;
+    }
+
+    private int column(int index) {
+        return index < 0 ? 0 : columns[index] & 0xFF;
+    }
+
+    /**
+     * Index of the line which entered at the step when the symbols enter with their last row or column first.
+     */
+    private static int reversed(int index) {
+        return index < 0 ? index : index - index % SIZE + 7 - index % SIZE;
+    }
+
+    /**
+     * Puts the column bits into the rows of a frame, at the bit of the column.
+     */
+    private static long spread(int column, int bit) {
+        long frame = 0;
+        for (int y = 0; y < SIZE; y++) {
+            if (((column >> y) & 1) == 1) {
+                frame |= 1L << ((7 - y) * SIZE + bit);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Converts a string into a list of symbols to print on the 8x8 LED matrix.
+     * Any characters not supported by the symbol table will throw an {@link IllegalArgumentException}.
+     */
+    private static List<MatrixSymbol> parse(String string) {
+        final List<MatrixSymbol> symbols = new ArrayList<>(string.length());
+
+        // Initialize state for our loop
+        final StringBuilder buffer = new StringBuilder();
+        boolean referenceMode = false;
+
+        // Loop over each character of the string and look for MatrixSymbol references
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+
+            if (c == '{') {
+                // This might be the start of a MatrixSymbol reference, silently skip this character for now
+                referenceMode = true;
+            } else if (referenceMode && c == '}') {
+                try {
+                    // Attempt to find a symbol with the given name written between the curly braces
+                    symbols.add(MatrixSymbol.valueOf(buffer.toString().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    // No symbol with this name, add the reference as-is, including the curly braces
+                    symbols.add(MatrixSymbol.BRACE_LEFT);
+                    addChars(symbols, buffer);
+                    symbols.add(MatrixSymbol.BRACE_RIGHT);
+                } finally {
+                    buffer.setLength(0);
+                    referenceMode = false;
+                }
+            } else if (referenceMode) {
+                buffer.append(c);
+            } else {
+                symbols.add(lookup(c));
+            }
+        }
+
+        // If we are still in reference mode, add the opening curly brace and contents of the buffer as-is
+        if (referenceMode) {
+            symbols.add(MatrixSymbol.BRACE_LEFT);
+            addChars(symbols, buffer);
+        }
+
+        return symbols;
+    }
+
+    private static void addChars(List<MatrixSymbol> symbols, CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++) {
+            symbols.add(lookup(chars.charAt(i)));
+        }
+    }
+
+    private static MatrixSymbol lookup(char c) {
+        final var symbol = MatrixSymbol.getByChar(c);
+        if (symbol == null) {
+            throw new IllegalArgumentException("Character is not supported by LED matrix");
+        }
+        return symbol;
+    }
+}
@@ -0,0 +1,38 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import com.pi4j.io.pwm.Pwm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Placeholder output on the PWM pin of the matrix, which does NOT show the frames on the LEDs.
+ *
+ * <p>Pi4J can only set the frequency and duty cycle of the PWM, it can't stream a bitstream. Real WS2812B
+ * control on this pin needs the PWM serializer fed by DMA, like the native rpi_ws281x library does. This output
+ * only switches the PWM on while there is data, like the earlier conceptual implementation, so the pin toggles
+ * but the LEDs never get valid colors. Use {@link SpiWs2812bOutput} with the data line on MOSI to drive the LEDs.
+ */
+final class PwmWs2812bOutput implements Ws2812bOutput {
+
+    private static final Logger logger = LoggerFactory.getLogger(PwmWs2812bOutput.class);
+
+    private final Pwm pwm;
+    private final int frequency;
+
+    PwmWs2812bOutput(Pwm pwm, int frequency) {
+        this.pwm = pwm;
+        this.frequency = frequency;
+        logger.warn("The PWM output can't send the WS2812B bitstream, the RGB LED matrix won't show the frames. "
+                + "Connect the data line to SPI MOSI and set rgb-matrix.output=spi.");
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        logger.debug("Not sending {} bytes to WS2812B matrix, only switching the PWM", length);
+        if (length > 0) {
+            pwm.on(50, frequency); // 50% duty cycle as example
+        } else {
+            pwm.off();
+        }
+    }
+}
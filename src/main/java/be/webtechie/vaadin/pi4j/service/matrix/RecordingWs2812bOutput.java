@@ -0,0 +1,47 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Output which keeps the last frame instead of sending it, to verify the bitstream without the LEDs, or to
+ * run without them.
+ */
+public final class RecordingWs2812bOutput implements Ws2812bOutput {
+
+    private byte[] lastFrame = new byte[0];
+    private int length;
+    private long frames;
+
+    @Override
+    public synchronized void write(byte[] data, int length) {
+        if (lastFrame.length < length) {
+            lastFrame = new byte[length];
+        }
+        System.arraycopy(data, 0, lastFrame, 0, length);
+        this.length = length;
+        frames++;
+    }
+
+    /**
+     * Number of frames written.
+     */
+    public synchronized long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Copy of the bitstream of the last frame.
+     */
+    public synchronized byte[] getLastFrame() {
+        return Arrays.copyOf(lastFrame, length);
+    }
+
+    /**
+     * Decodes the color of an LED in the last frame, with the gamma correction and brightness applied.
+     *
+     * @return Color as {@code 0xRRGGBB}
+     */
+    public synchronized int getColor(int led) {
+        return Ws2812bEncoder.decodeLed(lastFrame, led);
+    }
+}
@@ -2,13 +2,14 @@ package be.webtechie.vaadin.pi4j.service.matrix;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
 import be.webtechie.vaadin.pi4j.event.DisplayEvent;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.views.electronics.RedMatrixView;
 import be.webtechie.vaadin.pi4j.views.electronics.RgbMatrixView;
 import com.pi4j.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
 import java.awt.*;
@@ -20,9 +21,10 @@ public class RedMatrixService {
     private final boolean isRgbMatrix;
     private final LedMatrixComponent ledMatrixComponent;
     private final RgbMatrixService rgbMatrixService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final HardwareEventPublisher eventPublisher;
 
-    public RedMatrixService(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService) {
+    public RedMatrixService(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService,
+                            TaskScheduler taskScheduler, RgbMatrixService rgbMatrixService) {
         this.eventPublisher = eventPublisher;
 
         // Check if the board has any matrix support
@@ -37,12 +39,13 @@ public class RedMatrixService {
         this.isRgbMatrix = config.hasRGBMatrix();
 
         if (isRgbMatrix) {
-            this.rgbMatrixService = new RgbMatrixService(pi4j, config);
+            // The same bean as the RgbMatrixView draws on, which owns the output and the refresh thread
+            this.rgbMatrixService = rgbMatrixService;
             this.ledMatrixComponent = null;
             logger.info("RGB LED matrix initialized");
             pi4JService.registerView(RgbMatrixView.class);
         } else {
-            this.ledMatrixComponent = new LedMatrixComponent(pi4j);
+            this.ledMatrixComponent = new LedMatrixComponent(pi4j, taskScheduler);
             this.ledMatrixComponent.setEnabled(true);
             this.ledMatrixComponent.setBrightness(7);
             this.ledMatrixComponent.clear();
@@ -61,6 +64,7 @@ public class RedMatrixService {
             logger.warn("LED matrix not available");
             return;
         }
+        stopAnimation();
         if (isRgbMatrix) {
             rgbMatrixService.clear();
             rgbMatrixService.refresh();
@@ -76,12 +80,13 @@ public class RedMatrixService {
             return;
         }
         logger.info("LED matrix print: {}", symbol.name());
+        stopAnimation();
         if (isRgbMatrix) {
             rgbMatrixService.print(symbol, Color.BLUE);
         } else {
             ledMatrixComponent.print(symbol);
         }
-        eventPublisher.publishEvent(new DisplayEvent(this, DisplayEvent.DisplayType.MATRIX,
+        eventPublisher.publish(new DisplayEvent(this, DisplayEvent.DisplayType.MATRIX,
                 "Symbol: " + symbol.name() + " - HEX: " + symbol.getHexValue()));
     }
 
@@ -91,11 +96,20 @@ public class RedMatrixService {
             return;
         }
         logger.info("LED matrix rotate: {}", direction.name());
+        stopAnimation();
         if (isRgbMatrix) {
             rgbMatrixService.rotate(direction);
         } else {
             ledMatrixComponent.rotate(direction);
         }
-        eventPublisher.publishEvent(new DisplayEvent(this, DisplayEvent.DisplayType.MATRIX, "Move: " + direction.name()));
+        eventPublisher.publish(new DisplayEvent(this, DisplayEvent.DisplayType.MATRIX, "Move: " + direction.name()));
+    }
+
+    private void stopAnimation() {
+        if (isRgbMatrix) {
+            rgbMatrixService.stopAnimation();
+        } else {
+            ledMatrixComponent.stopAnimation();
+        }
     }
 }
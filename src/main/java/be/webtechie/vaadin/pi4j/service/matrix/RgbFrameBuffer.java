@@ -0,0 +1,168 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Framebuffer of an RGB LED matrix, with every pixel packed as {@code 0xRRGGBB} in one flat {@code int[]},
+ * row by row. Black ({@code 0}) is off.
+ *
+ * <p>All operations work on the array with {@link System#arraycopy} and {@link Arrays#fill}, so drawing and
+ * scrolling don't allocate. Not thread-safe, the owner synchronizes access.
+ */
+public final class RgbFrameBuffer {
+
+    public static final int BLACK = 0x000000;
+    public static final int WHITE = 0xFFFFFF;
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    // Holds the row which is wrapped around while scrolling up or down
+    private final int[] scratchRow;
+
+    public RgbFrameBuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+        this.scratchRow = new int[width];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * The pixels, row by row, for reading them in bulk. Don't keep a reference, the content changes.
+     */
+    public int[] pixels() {
+        return pixels;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Returns the color as {@code 0xRRGGBB}, or black outside the buffer.
+     */
+    public int get(int x, int y) {
+        return contains(x, y) ? pixels[y * width + x] : BLACK;
+    }
+
+    /**
+     * Sets the pixel to the color, the alpha bits of the color are ignored. Pixels outside the buffer are ignored.
+     */
+    public void set(int x, int y, int rgb) {
+        if (contains(x, y)) {
+            pixels[y * width + x] = rgb & WHITE;
+        }
+    }
+
+    public boolean isOn(int x, int y) {
+        return get(x, y) != BLACK;
+    }
+
+    public void fill(int rgb) {
+        Arrays.fill(pixels, rgb & WHITE);
+    }
+
+    public void clear() {
+        fill(BLACK);
+    }
+
+    /**
+     * Copies all pixels of a buffer of the same size.
+     */
+    public void copyFrom(RgbFrameBuffer source) {
+        if (source.width != width || source.height != height) {
+            throw new IllegalArgumentException("Buffer must be " + width + "x" + height + " pixels");
+        }
+        System.arraycopy(source.pixels, 0, pixels, 0, pixels.length);
+    }
+
+    /**
+     * Copies a block of {@code 0xRRGGBB} pixels, stored row by row with the given stride, to the position.
+     * The parts outside this buffer are clipped.
+     */
+    public void blit(int[] source, int sourceStride, int sourceWidth, int sourceHeight, int toX, int toY) {
+        int fromX = Math.max(0, -toX);
+        int fromY = Math.max(0, -toY);
+        int columns = Math.min(sourceWidth, width - toX) - fromX;
+        int rows = Math.min(sourceHeight, height - toY);
+        if (columns <= 0) {
+            return;
+        }
+        for (int y = fromY; y < rows; y++) {
+            System.arraycopy(source, y * sourceStride + fromX, pixels, (toY + y) * width + toX + fromX, columns);
+        }
+    }
+
+    /**
+     * Draws the symbol in the color, starting at the left, on a black background.
+     */
+    public void drawSymbol(MatrixSymbol symbol, int rgb) {
+        clear();
+        byte[] rows = symbol.getRows();
+        for (int y = 0; y < height && y < rows.length; y++) {
+            int row = rows[y];
+            int offset = y * width;
+            for (int x = 0; x < width && x < 8; x++) {
+                if (((row >> (7 - x)) & 1) == 1) {
+                    pixels[offset + x] = rgb & WHITE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Shifts the pixels one step towards the direction.
+     *
+     * @param mode        What fills the row or column which became empty
+     * @param replacement Buffer to take the new row or column from with {@link MatrixScrollMode#REPLACE}
+     * @param offset      Step of the transition to the replacement, 0 for the first
+     */
+    public void shift(MatrixDirection direction, MatrixScrollMode mode, RgbFrameBuffer replacement, int offset) {
+        boolean rotate = mode == MatrixScrollMode.ROTATE;
+        int[] next = mode == MatrixScrollMode.REPLACE && replacement != null ? replacement.pixels : null;
+        switch (direction) {
+            case UP -> {
+                System.arraycopy(pixels, 0, scratchRow, 0, width);
+                System.arraycopy(pixels, width, pixels, 0, (height - 1) * width);
+                fillRow(height - 1, rotate ? scratchRow : next, next == null ? 0 : offset * width);
+            }
+            case DOWN -> {
+                System.arraycopy(pixels, (height - 1) * width, scratchRow, 0, width);
+                System.arraycopy(pixels, 0, pixels, width, (height - 1) * width);
+                fillRow(0, rotate ? scratchRow : next, next == null ? 0 : (height - 1 - offset) * width);
+            }
+            case LEFT -> {
+                for (int row = 0; row < pixels.length; row += width) {
+                    int first = pixels[row];
+                    System.arraycopy(pixels, row + 1, pixels, row, width - 1);
+                    // The replacement enters with its left column first
+                    pixels[row + width - 1] = rotate ? first : next != null ? next[row + offset] : BLACK;
+                }
+            }
+            case RIGHT -> {
+                for (int row = 0; row < pixels.length; row += width) {
+                    int last = pixels[row + width - 1];
+                    System.arraycopy(pixels, row, pixels, row + 1, width - 1);
+                    // The replacement enters with its right column first
+                    pixels[row] = rotate ? last : next != null ? next[row + width - 1 - offset] : BLACK;
+                }
+            }
+        }
+    }
+
+    private void fillRow(int y, int[] source, int sourceOffset) {
+        if (source == null) {
+            Arrays.fill(pixels, y * width, (y + 1) * width, BLACK);
+        } else {
+            System.arraycopy(source, sourceOffset, pixels, y * width, width);
+        }
+    }
+}
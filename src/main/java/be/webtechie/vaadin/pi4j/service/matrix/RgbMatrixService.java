@@ -1,24 +1,44 @@
 package be.webtechie.vaadin.pi4j.service.matrix;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
-import be.webtechie.vaadin.pi4j.service.SleepHelper;
 import com.pi4j.context.Context;
 import com.pi4j.io.pwm.Pwm;
 import com.pi4j.io.pwm.PwmConfig;
 import com.pi4j.io.pwm.PwmType;
+import com.pi4j.io.spi.Spi;
+import com.pi4j.io.spi.SpiConfig;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * Implementation of the CrowPi2 RGB LED matrix using PWM/WS2812B with Pi4J V2
  * This targets the 8x8 RGB matrix connected to GPIO26 (PWM0/BCM12) on CrowPi2
+ *
+ * <p>Drawing methods change a back buffer, {@link #refresh()} publishes a copy of it as the next frame. A single
+ * refresh thread sends the newest published frame, at most {@link #MAX_FRAMES_PER_SECOND} times per second and
+ * only if something changed, so a half-drawn frame is never sent and quick updates share one transmission.
+ * Use {@link #update(Consumer)} to draw and publish a frame as a single step from several threads.
+ *
+ * <p>The property {@code rgb-matrix.output} selects where the WS2812B bitstream goes: {@code spi} shifts it out on
+ * MOSI of SPI bus {@code rgb-matrix.spi-bus}, which needs the data line of the LEDs on that pin. {@code pwm} only
+ * switches the PWM pin of the board and doesn't show the frames, see {@link PwmWs2812bOutput}. {@code recording}
+ * keeps the frames without sending them.
+ *
+ * <p>Printed text and transitions are compiled into frames up front and played by a {@link MatrixAnimator}
+ * from the task scheduler, these methods return immediately with a future of the animation.
  */
 @Service
 public class RgbMatrixService {
@@ -41,57 +61,131 @@ public class RgbMatrixService {
      * Default direction for scroll operations
      */
     protected static final MatrixDirection DEFAULT_SCROLL_MATRIX_DIRECTION = MatrixDirection.LEFT;
+    /**
+     * Maximum number of frames sent to the LEDs per second
+     */
+    public static final int MAX_FRAMES_PER_SECOND = 60;
+    private static final long FRAME_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1) / MAX_FRAMES_PER_SECOND;
     private static final Logger logger = LoggerFactory.getLogger(RgbMatrixService.class);
     /**
-     * RGB color buffer for the matrix (3 bytes per LED: R, G, B)
+     * Guards the buffers and the flags, the refresh thread waits on it
+     */
+    private final Object lock = new Object();
+
+    /**
+     * RGB color buffer for the matrix, one packed 0xRRGGBB int per LED, which is drawn in
+     */
+    private final RgbFrameBuffer frameBuffer = new RgbFrameBuffer(WIDTH, HEIGHT);
+
+    /**
+     * Last published frame, which the refresh thread swaps with the front buffer
+     */
+    private RgbFrameBuffer pendingBuffer = new RgbFrameBuffer(WIDTH, HEIGHT);
+
+    /**
+     * Frame which is being sent, only used by the refresh thread after the swap
      */
-    private final Color[][] colorBuffer;
+    private RgbFrameBuffer frontBuffer = new RgbFrameBuffer(WIDTH, HEIGHT);
 
     /**
-     * Monochrome buffer for compatibility with existing matrix symbols
+     * True if a frame was published since the last swap
      */
-    private final boolean[][] monoBuffer;
+    private boolean dirty;
 
     /**
-     * Pi4J PWM instance for controlling WS2812B LEDs
+     * True if the front buffer must be sent again, because the brightness table changed
      */
-    private Pwm pwm;
+    private boolean resend;
+
+    private volatile boolean running = true;
+    private final Thread refreshThread;
+
+    /**
+     * Plays the printed text and transitions, a new animation replaces the running one
+     */
+    private final MatrixAnimator<int[]> animator;
 
     /**
-     * Default brightness (0.0 to 1.0)
+     * Encodes the frame buffer into the WS2812B bitstream, in a buffer which is reused for every refresh.
+     * Applies the brightness and gamma correction with a lookup table.
+     */
+    private final Ws2812bEncoder encoder = new Ws2812bEncoder(TOTAL_LEDS, Ws2812bEncoder.DEFAULT_GAMMA);
+
+    /**
+     * Output of the WS2812B bitstream, records the frames if the configured output is not available
+     */
+    private final Ws2812bOutput output;
+
+    /**
+     * Default brightness (0.0 to 1.0), guarded by the lock like the encoder table it's applied with
      */
     private double brightness = 0.1; // Start dim to avoid power issues
 
     /**
      * Creates a new RGB LED matrix component with a custom GPIO pin.
      *
-     * @param pi4j Pi4J context
-     */
-    public RgbMatrixService(Context pi4j, BoardConfig config) {
-        this.colorBuffer = new Color[HEIGHT][WIDTH];
-        this.monoBuffer = new boolean[HEIGHT][WIDTH];
-
-        // Initialize buffers
-        clear();
-
-        // Create PWM configuration for WS2812B
-        // Note: WS2812B requires precise timing that's difficult with Pi4J PWM
-        // This is a conceptual implementation - real usage would need native library
-        PwmConfig pwmConfig = Pwm.newConfigBuilder(pi4j)
-                .id("WS2812B-PWM")
-                .name("RGB Matrix PWM")
-                .chip(config.getPwmChip())
-                .channel(config.getPwmChannelRgbMatrix()) // TO CHECK
-                .pwmType(PwmType.HARDWARE)
-                .frequency(PWM_FREQUENCY)
-                .initial(0)
-                .shutdown(0)
-                .build();
+     * @param pi4j          Pi4J context
+     * @param taskScheduler Plays the animations
+     * @param outputType    Output of the bitstream: spi, pwm or recording
+     * @param spiBus        SPI bus of which MOSI is connected to the LEDs, for the spi output
+     */
+    public RgbMatrixService(Context pi4j, BoardConfig config, TaskScheduler taskScheduler,
+                            @Value("${rgb-matrix.output:pwm}") String outputType,
+                            @Value("${rgb-matrix.spi-bus:0}") int spiBus) {
+        this(createOutput(pi4j, config, outputType, spiBus), taskScheduler);
+    }
+
+    /**
+     * Creates the matrix on the given output.
+     *
+     * @param output        Output of the WS2812B bitstream
+     * @param taskScheduler Plays the animations
+     */
+    RgbMatrixService(Ws2812bOutput output, TaskScheduler taskScheduler) {
+        this.output = output;
+        encoder.setBrightness(brightness);
+        this.animator = new MatrixAnimator<>(taskScheduler, this::showFrame);
+        this.refreshThread = Thread.ofVirtual().name("rgb-matrix-refresh").start(this::refreshLoop);
+    }
 
+    /**
+     * Creates the output of the bitstream, or one which records the frames if it's not available.
+     */
+    private static Ws2812bOutput createOutput(Context pi4j, BoardConfig config, String outputType, int spiBus) {
         try {
-            this.pwm = pi4j.create(pwmConfig);
+            switch (outputType.strip().toLowerCase(Locale.ROOT)) {
+                case "spi" -> {
+                    // Three output bits per WS2812B bit, so the bit rate is three times the 800kHz of the LEDs
+                    SpiConfig spiConfig = Spi.newConfigBuilder(pi4j)
+                            .id("WS2812B-SPI")
+                            .name("RGB Matrix SPI")
+                            .bus(spiBus)
+                            .baud(Ws2812bEncoder.BIT_RATE)
+                            .build();
+                    logger.info("RGB LED matrix sends its frames on MOSI of SPI bus {}", spiBus);
+                    return new SpiWs2812bOutput(pi4j.create(spiConfig));
+                }
+                case "pwm" -> {
+                    PwmConfig pwmConfig = Pwm.newConfigBuilder(pi4j)
+                            .id("WS2812B-PWM")
+                            .name("RGB Matrix PWM")
+                            .chip(config.getPwmChip())
+                            .channel(config.getPwmChannelRgbMatrix()) // TO CHECK
+                            .pwmType(PwmType.HARDWARE)
+                            .frequency(PWM_FREQUENCY)
+                            .initial(0)
+                            .shutdown(0)
+                            .build();
+                    return new PwmWs2812bOutput(pi4j.create(pwmConfig), PWM_FREQUENCY);
+                }
+                default -> {
+                    logger.info("RGB LED matrix records its frames without sending them");
+                    return new RecordingWs2812bOutput();
+                }
+            }
         } catch (Exception e) {
-            logger.error("Error creating PWM instance for WS2812B LED matrix: {}", e.getMessage());
+            logger.error("Error creating {} output for WS2812B LED matrix: {}", outputType, e.getMessage());
+            return new RecordingWs2812bOutput();
         }
     }
 
@@ -101,7 +195,9 @@ public class RgbMatrixService {
      * @return Current brightness (0.0 to 1.0)
      */
     public double getBrightness() {
-        return brightness;
+        synchronized (lock) {
+            return brightness;
+        }
     }
 
     /**
@@ -111,7 +207,12 @@ public class RgbMatrixService {
      * @param brightness Brightness level (0.0 = off, 1.0 = full brightness)
      */
     public void setBrightness(double brightness) {
-        this.brightness = Math.max(0.0, Math.min(1.0, brightness));
+        synchronized (lock) {
+            this.brightness = Math.max(0.0, Math.min(1.0, brightness));
+            encoder.setBrightness(this.brightness);
+            this.resend = true;
+            lock.notifyAll();
+        }
     }
 
     /**
@@ -122,9 +223,19 @@ public class RgbMatrixService {
      * @param color Color to set
      */
     public void setPixel(int x, int y, Color color) {
-        if (x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT) {
-            colorBuffer[y][x] = color;
-            monoBuffer[y][x] = !color.equals(Color.BLACK);
+        setPixel(x, y, color.getRGB());
+    }
+
+    /**
+     * Sets a pixel to a specific color, without creating a {@link Color}
+     *
+     * @param x   X coordinate (0-7)
+     * @param y   Y coordinate (0-7)
+     * @param rgb Color as 0xRRGGBB
+     */
+    public void setPixel(int x, int y, int rgb) {
+        synchronized (lock) {
+            frameBuffer.set(x, y, rgb);
         }
     }
 
@@ -136,7 +247,7 @@ public class RgbMatrixService {
      * @param state true for on (white), false for off (black)
      */
     public void setPixel(int x, int y, boolean state) {
-        setPixel(x, y, state ? Color.WHITE : Color.BLACK);
+        setPixel(x, y, state ? RgbFrameBuffer.WHITE : RgbFrameBuffer.BLACK);
     }
 
     /**
@@ -147,21 +258,28 @@ public class RgbMatrixService {
      * @return Color of the pixel
      */
     public Color getPixel(int x, int y) {
-        if (x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT) {
-            return colorBuffer[y][x];
+        return new Color(getPixelRgb(x, y));
+    }
+
+    /**
+     * Gets the color of a specific pixel, without creating a {@link Color}
+     *
+     * @param x X coordinate (0-7)
+     * @param y Y coordinate (0-7)
+     * @return Color of the pixel as 0xRRGGBB
+     */
+    public int getPixelRgb(int x, int y) {
+        synchronized (lock) {
+            return frameBuffer.get(x, y);
         }
-        return Color.BLACK;
     }
 
     /**
      * Clears the entire matrix (all pixels off)
      */
     public void clear() {
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                colorBuffer[y][x] = Color.BLACK;
-                monoBuffer[y][x] = false;
-            }
+        synchronized (lock) {
+            frameBuffer.clear();
         }
     }
 
@@ -171,70 +289,105 @@ public class RgbMatrixService {
      * @param color Color to fill the matrix with
      */
     public void fill(Color color) {
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                colorBuffer[y][x] = color;
-                monoBuffer[y][x] = !color.equals(Color.BLACK);
-            }
+        synchronized (lock) {
+            frameBuffer.fill(color.getRGB());
+        }
+    }
+
+    /**
+     * Copies a block of 0xRRGGBB pixels, stored row by row, to the matrix. The parts outside the matrix are clipped.
+     *
+     * @param pixels Pixels of the block
+     * @param width  Width of the block
+     * @param x      X coordinate of the top left corner of the block on the matrix
+     * @param y      Y coordinate of the top left corner of the block on the matrix
+     */
+    public void blit(int[] pixels, int width, int x, int y) {
+        synchronized (lock) {
+            frameBuffer.blit(pixels, width, width, pixels.length / width, x, y);
+        }
+    }
+
+    /**
+     * Draws in the buffer and publishes the result as one frame, without other threads drawing in between.
+     *
+     * @param drawer Draws in the buffer, which holds the current content
+     */
+    public void update(Consumer<RgbFrameBuffer> drawer) {
+        synchronized (lock) {
+            drawer.accept(frameBuffer);
+            refresh();
         }
     }
 
     /**
-     * Refreshes the display by sending the current buffer to the LED matrix
-     * This converts the RGB buffer to WS2812B format and sends it via PWM
+     * Refreshes the display by publishing the current buffer as the next frame and returns immediately.
+     * The refresh thread converts it to the WS2812B bitstream with the {@link Ws2812bEncoder} and sends it to the output.
      */
     public void refresh() {
-        // Convert color buffer to WS2812B data format
-        byte[] ledData = new byte[TOTAL_LEDS * 3]; // 3 bytes per LED (GRB format for WS2812B)
+        synchronized (lock) {
+            pendingBuffer.copyFrom(frameBuffer);
+            dirty = true;
+            lock.notifyAll();
+        }
+    }
 
-        int dataIndex = 0;
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                Color pixel = colorBuffer[y][x];
+    /**
+     * Sends the newest published frame when something changed, waiting at least a frame interval between two
+     * frames. Frames published during that wait replace each other, only the last one is sent.
+     */
+    private void refreshLoop() {
+        long nextFrameNanos = System.nanoTime();
+        try {
+            while (running) {
+                synchronized (lock) {
+                    while (running && !dirty && !resend) {
+                        lock.wait();
+                    }
+                    if (!running) {
+                        break;
+                    }
+                }
+
+                long waitNanos = nextFrameNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
 
-                // Apply brightness scaling
-                int red = (int) (pixel.getRed() * brightness);
-                int green = (int) (pixel.getGreen() * brightness);
-                int blue = (int) (pixel.getBlue() * brightness);
+                synchronized (lock) {
+                    if (dirty) {
+                        var published = pendingBuffer;
+                        pendingBuffer = frontBuffer;
+                        frontBuffer = published;
+                        dirty = false;
+                    }
+                    resend = false;
+                }
 
-                // WS2812B expects GRB format
-                ledData[dataIndex++] = (byte) green;
-                ledData[dataIndex++] = (byte) red;
-                ledData[dataIndex++] = (byte) blue;
+                // Encoding and sending is done without the lock, drawing continues in the meantime
+                try {
+                    output.write(encoder.buffer(), encoder.encode(frontBuffer.pixels()));
+                } catch (Exception e) {
+                    logger.error("Error sending frame to the RGB LED matrix: {}", e.getMessage());
+                }
+                nextFrameNanos = System.nanoTime() + FRAME_INTERVAL_NANOS;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        // Send data to LEDs via PWM (this is a simplified approach)
-        // In a real implementation, you'd need to convert to proper WS2812B timing
-        sendWS2812BData(ledData);
     }
 
     /**
-     * Simplified method to send WS2812B data via PWM
-     * Note: This is a conceptual implementation. Real WS2812B control requires
-     * precise timing that may need native code or specialized libraries
-     *
-     * @param data RGB data in GRB format
-     */
-    private void sendWS2812BData(byte[] data) {
-        // This is a placeholder implementation
-        // Real WS2812B control requires precise timing:
-        // - 0 bit: 0.4µs high, 0.85µs low
-        // - 1 bit: 0.8µs high, 0.45µs low
-        // - Reset: >50µs low
-
-        // For a complete implementation, you would typically use:
-        // 1. DMA + PWM for precise timing
-        // 2. A native library like rpi_ws281x
-        // 3. SPI with carefully crafted bit patterns
-
-        System.out.println("Sending " + data.length + " bytes to WS2812B matrix");
-        // Placeholder PWM duty cycle setting
-        if (data.length > 0) {
-            pwm.on(50, PWM_FREQUENCY); // 50% duty cycle as example
-        } else {
-            pwm.off();
+     * Stops the running animation and the refresh thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        animator.stop();
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
         }
+        refreshThread.interrupt();
     }
 
     /**
@@ -259,126 +412,10 @@ public class RgbMatrixService {
      * Internal scroll method that handles different scroll modes
      */
     protected void scroll(MatrixDirection matrixDirection, MatrixScrollMode matrixScrollMode,
-                          Color[][] newColorBuffer, int newOffset) {
-        switch (matrixDirection) {
-            case UP:
-                scrollUp(matrixScrollMode, newColorBuffer, newOffset);
-                break;
-            case DOWN:
-                scrollDown(matrixScrollMode, newColorBuffer, newOffset);
-                break;
-            case LEFT:
-                scrollLeft(matrixScrollMode, newColorBuffer, newOffset);
-                break;
-            case RIGHT:
-                scrollRight(matrixScrollMode, newColorBuffer, newOffset);
-                break;
-        }
-        refresh();
-    }
-
-    private void scrollUp(MatrixScrollMode matrixScrollMode, Color[][] newColorBuffer, int newOffset) {
-        // Save first row
-        Color[] firstRow = colorBuffer[0].clone();
-
-        // Shift all rows up
-        for (int y = 0; y < HEIGHT - 1; y++) {
-            System.arraycopy(colorBuffer[y + 1], 0, colorBuffer[y], 0, WIDTH);
-        }
-
-        // Handle last row based on scroll mode
-        Color[] lastRow = new Color[WIDTH];
-        if (matrixScrollMode == MatrixScrollMode.ROTATE) {
-            lastRow = firstRow;
-        } else if (matrixScrollMode == MatrixScrollMode.REPLACE && newColorBuffer != null) {
-            lastRow = newColorBuffer[newOffset].clone();
-        } else {
-            for (int x = 0; x < WIDTH; x++) {
-                lastRow[x] = Color.BLACK;
-            }
-        }
-        colorBuffer[HEIGHT - 1] = lastRow;
-
-        updateMonoBuffer();
-    }
-
-    private void scrollDown(MatrixScrollMode matrixScrollMode, Color[][] newColorBuffer, int newOffset) {
-        // Save last row
-        Color[] lastRow = colorBuffer[HEIGHT - 1].clone();
-
-        // Shift all rows down
-        for (int y = HEIGHT - 1; y > 0; y--) {
-            System.arraycopy(colorBuffer[y - 1], 0, colorBuffer[y], 0, WIDTH);
-        }
-
-        // Handle first row based on scroll mode
-        Color[] firstRow = new Color[WIDTH];
-        if (matrixScrollMode == MatrixScrollMode.ROTATE) {
-            firstRow = lastRow;
-        } else if (matrixScrollMode == MatrixScrollMode.REPLACE && newColorBuffer != null) {
-            firstRow = newColorBuffer[HEIGHT - 1 - newOffset].clone();
-        } else {
-            for (int x = 0; x < WIDTH; x++) {
-                firstRow[x] = Color.BLACK;
-            }
-        }
-        colorBuffer[0] = firstRow;
-
-        updateMonoBuffer();
-    }
-
-    private void scrollLeft(MatrixScrollMode matrixScrollMode, Color[][] newColorBuffer, int newOffset) {
-        for (int y = 0; y < HEIGHT; y++) {
-            Color firstPixel = colorBuffer[y][0];
-
-            // Shift row left
-            for (int x = 0; x < WIDTH - 1; x++) {
-                colorBuffer[y][x] = colorBuffer[y][x + 1];
-            }
-
-            // Handle last column
-            if (matrixScrollMode == MatrixScrollMode.ROTATE) {
-                colorBuffer[y][WIDTH - 1] = firstPixel;
-            } else if (matrixScrollMode == MatrixScrollMode.REPLACE && newColorBuffer != null) {
-                colorBuffer[y][WIDTH - 1] = newColorBuffer[y][WIDTH - 1 - newOffset];
-            } else {
-                colorBuffer[y][WIDTH - 1] = Color.BLACK;
-            }
-        }
-
-        updateMonoBuffer();
-    }
-
-    private void scrollRight(MatrixScrollMode matrixScrollMode, Color[][] newColorBuffer, int newOffset) {
-        for (int y = 0; y < HEIGHT; y++) {
-            Color lastPixel = colorBuffer[y][WIDTH - 1];
-
-            // Shift row right
-            for (int x = WIDTH - 1; x > 0; x--) {
-                colorBuffer[y][x] = colorBuffer[y][x - 1];
-            }
-
-            // Handle first column
-            if (matrixScrollMode == MatrixScrollMode.ROTATE) {
-                colorBuffer[y][0] = lastPixel;
-            } else if (matrixScrollMode == MatrixScrollMode.REPLACE && newColorBuffer != null) {
-                colorBuffer[y][0] = newColorBuffer[y][newOffset];
-            } else {
-                colorBuffer[y][0] = Color.BLACK;
-            }
-        }
-
-        updateMonoBuffer();
-    }
-
-    /**
-     * Updates the monochrome buffer based on the color buffer
-     */
-    private void updateMonoBuffer() {
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                monoBuffer[y][x] = !colorBuffer[y][x].equals(Color.BLACK);
-            }
+                          RgbFrameBuffer newBuffer, int newOffset) {
+        synchronized (lock) {
+            frameBuffer.shift(matrixDirection, matrixScrollMode, newBuffer, newOffset);
+            refresh();
         }
     }
 
@@ -386,9 +423,10 @@ public class RgbMatrixService {
      * Prints a string with default settings (white color, left scroll)
      *
      * @param string String to display
+     * @return Completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string) {
-        print(string, Color.WHITE);
+    public CompletableFuture<Void> print(String string) {
+        return print(string, Color.WHITE);
     }
 
     /**
@@ -396,33 +434,32 @@ public class RgbMatrixService {
      *
      * @param string String to display
      * @param color  Color to use
+     * @return Completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string, Color color) {
-        print(string, color, DEFAULT_SCROLL_MATRIX_DIRECTION, DEFAULT_SCROLL_DELAY);
+    public CompletableFuture<Void> print(String string, Color color) {
+        return print(string, color, DEFAULT_SCROLL_MATRIX_DIRECTION, DEFAULT_SCROLL_DELAY);
     }
 
     /**
-     * Prints a string with full customization
+     * Prints a string with full customization. Returns immediately, the string scrolls in the background
+     * and replaces a running animation.
      *
      * @param string                String to display
      * @param color                 Color to use
      * @param scrollMatrixDirection Direction to scroll
      * @param scrollDelay           Delay between scroll steps
+     * @return Completes when the string has scrolled out, cancel it to stop scrolling
      */
-    public void print(String string, Color color, MatrixDirection scrollMatrixDirection, long scrollDelay) {
-        final var symbols = convertToMatrixSymbols(string);
-
-        // Clear display
-        clear();
-        refresh();
-
-        // Display each symbol
-        for (MatrixSymbol symbol : symbols) {
-            transition(symbol, color, scrollMatrixDirection, scrollDelay);
+    public CompletableFuture<Void> print(String string, Color color, MatrixDirection scrollMatrixDirection,
+                                         long scrollDelay) {
+        // Starts from a cleared display and ends with a space to clear at end
+        final var strip = MatrixTextStrip.of(string);
+        final int rgb = color.getRGB() & RgbFrameBuffer.WHITE;
+        List<int[]> frames = new ArrayList<>(strip.steps() + 1);
+        for (int step = 0; step <= strip.steps(); step++) {
+            frames.add(toPixels(strip.frame(scrollMatrixDirection, step), rgb));
         }
-
-        // Clear at end
-        transition(MatrixSymbol.SPACE, color, scrollMatrixDirection, scrollDelay);
+        return animator.play(new MatrixAnimation<>(frames, scrollDelay));
     }
 
     /**
@@ -432,87 +469,80 @@ public class RgbMatrixService {
      * @param color  Color to use
      */
     public void print(MatrixSymbol symbol, Color color) {
-        clear();
-        byte[] rows = symbol.getRows();
-        for (int y = 0; y < HEIGHT && y < rows.length; y++) {
-            byte row = rows[y];
-            for (int x = 0; x < WIDTH; x++) {
-                boolean pixelOn = ((row >> (WIDTH - 1 - x)) & 1) == 1;
-                setPixel(x, y, pixelOn ? color : Color.BLACK);
-            }
+        synchronized (lock) {
+            frameBuffer.drawSymbol(symbol, color.getRGB());
+            refresh();
         }
-        refresh();
     }
 
     /**
-     * Transitions to a new symbol with color support
+     * Transitions to a new symbol with color support. Returns immediately, the symbol scrolls in the background
+     * and replaces a running animation.
+     *
+     * @return Completes when the symbol is fully shown, cancel it to stop scrolling
      */
-    public void transition(MatrixSymbol symbol, Color color, MatrixDirection direction, long delay) {
-        // Convert symbol to color buffer
-        Color[][] symbolBuffer = new Color[HEIGHT][WIDTH];
-        byte[] rows = symbol.getRows();
-
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                if (y < rows.length) {
-                    boolean pixelOn = ((rows[y] >> (WIDTH - 1 - x)) & 1) == 1;
-                    symbolBuffer[y][x] = pixelOn ? color : Color.BLACK;
-                } else {
-                    symbolBuffer[y][x] = Color.BLACK;
-                }
-            }
-        }
-
-        // Scroll in the symbol
-        for (int i = 0; i < WIDTH; i++) {
-            scroll(direction, MatrixScrollMode.REPLACE, symbolBuffer, i);
-            SleepHelper.sleep(delay);
+    public CompletableFuture<Void> transition(MatrixSymbol symbol, Color color, MatrixDirection direction, long delay) {
+        var display = new RgbFrameBuffer(WIDTH, HEIGHT);
+        synchronized (lock) {
+            display.copyFrom(frameBuffer);
         }
+        List<int[]> frames = new ArrayList<>(WIDTH);
+        compileTransitions(display, List.of(symbol), color.getRGB(), direction, frames);
+        return animator.play(new MatrixAnimation<>(frames, delay));
     }
 
     /**
-     * Converts string to MatrixSymbol list (reusing existing logic)
+     * Stops the running animation, the matrix keeps showing the last frame.
      */
-    protected List<MatrixSymbol> convertToMatrixSymbols(String string) {
-        final List<MatrixSymbol> symbols = new ArrayList<>();
-        final StringBuilder buffer = new StringBuilder();
-        boolean referenceMode = false;
-
-        for (int i = 0; i < string.length(); i++) {
-            char c = string.charAt(i);
+    public void stopAnimation() {
+        animator.stop();
+    }
 
-            if (c == '{') {
-                referenceMode = true;
-            } else if (referenceMode && c == '}') {
-                try {
-                    final var symbolName = buffer.toString().toUpperCase();
-                    final var symbol = MatrixSymbol.valueOf(symbolName);
-                    symbols.add(symbol);
-                } catch (IllegalArgumentException e) {
-                    symbols.add(MatrixSymbol.BRACE_LEFT);
-                    for (int j = 0; j < buffer.length(); j++) {
-                        symbols.add(lookupMatrixSymbol(buffer.charAt(j)));
-                    }
-                    symbols.add(MatrixSymbol.BRACE_RIGHT);
-                } finally {
-                    buffer.delete(0, buffer.length());
-                    referenceMode = false;
-                }
-            } else if (referenceMode) {
-                buffer.append(c);
-            } else {
-                symbols.add(lookupMatrixSymbol(c));
+    /**
+     * Scrolls the symbols one after another into the display, adding a frame for every step.
+     *
+     * @param display Content to start from, changed to the last frame
+     */
+    private static void compileTransitions(RgbFrameBuffer display, List<MatrixSymbol> symbols, int rgb,
+                                           MatrixDirection direction, List<int[]> frames) {
+        var next = new RgbFrameBuffer(WIDTH, HEIGHT);
+        for (MatrixSymbol symbol : symbols) {
+            next.drawSymbol(symbol, rgb);
+            for (int i = 0; i < WIDTH; i++) {
+                display.shift(direction, MatrixScrollMode.REPLACE, next, i);
+                frames.add(display.pixels().clone());
             }
         }
+    }
 
-        if (referenceMode) {
-            symbols.add(MatrixSymbol.BRACE_LEFT);
-            for (int i = 0; i < buffer.length(); i++) {
-                symbols.add(lookupMatrixSymbol(buffer.charAt(i)));
+    /**
+     * Converts a frame of a {@link MatrixTextStrip} into pixels in the color.
+     */
+    private static int[] toPixels(long frame, int rgb) {
+        int[] pixels = new int[TOTAL_LEDS];
+        for (int y = 0; y < HEIGHT; y++) {
+            int row = MatrixTextStrip.row(frame, y);
+            for (int x = 0; x < WIDTH; x++) {
+                if (((row >> (7 - x)) & 1) == 1) {
+                    pixels[y * WIDTH + x] = rgb;
+                }
             }
         }
+        return pixels;
+    }
+
+    /**
+     * Shows a frame of an animation.
+     */
+    private void showFrame(int[] pixels) {
+        update(buffer -> buffer.blit(pixels, WIDTH, WIDTH, HEIGHT, 0, 0));
+    }
 
-        return symbols;
+    /**
+     * Converts string to MatrixSymbol list, parsed once per string by the {@link MatrixTextStrip}
+     */
+    protected List<MatrixSymbol> convertToMatrixSymbols(String string) {
+        return new ArrayList<>(MatrixTextStrip.of(string).getSymbols());
     }
 
     protected MatrixSymbol lookupMatrixSymbol(char c) {
@@ -538,12 +568,13 @@ public class RgbMatrixService {
             throw new IllegalArgumentException("Image must be exactly " + WIDTH + "x" + HEIGHT + " pixels");
         }
 
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                Color pixelColor = new Color(image.getRGB(x, y));
-                setPixel(x, y, pixelColor);
+        synchronized (lock) {
+            int[] pixels = frameBuffer.pixels();
+            image.getRGB(0, 0, WIDTH, HEIGHT, pixels, 0, WIDTH);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] &= RgbFrameBuffer.WHITE;
             }
+            refresh();
         }
-        refresh();
     }
 }
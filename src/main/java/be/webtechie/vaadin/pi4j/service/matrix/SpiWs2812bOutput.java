@@ -0,0 +1,25 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import com.pi4j.io.spi.Spi;
+
+/**
+ * Output on the MOSI pin of an SPI bus, clocked at {@link Ws2812bEncoder#BIT_RATE} so every three output bits
+ * form one WS2812B bit. The data line of the LEDs must be connected to MOSI (BCM 10 for bus 0) instead of the
+ * PWM pin.
+ *
+ * <p>A frame is sent in one transfer, so the SPI driver shifts it out without gaps between the bytes. A frame of
+ * the 8x8 matrix takes 660 bytes, well within the 4096 byte buffer of the spidev driver.
+ */
+final class SpiWs2812bOutput implements Ws2812bOutput {
+
+    private final Spi spi;
+
+    SpiWs2812bOutput(Spi spi) {
+        this.spi = spi;
+    }
+
+    @Override
+    public void write(byte[] data, int length) {
+        spi.write(data, 0, length);
+    }
+}
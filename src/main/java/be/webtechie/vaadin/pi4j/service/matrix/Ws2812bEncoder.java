@@ -0,0 +1,164 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+/**
+ * Encodes {@code 0xRRGGBB} pixels into the WS2812B wire format, as a bitstream to shift out at
+ * {@link #BIT_RATE} over SPI or a PWM serializer.
+ *
+ * <p>Every WS2812B bit becomes three output bits: {@code 100} for a 0 (0.42µs high, 0.83µs low) and {@code 110}
+ * for a 1 (0.83µs high, 0.42µs low). A color byte so becomes three output bytes, which are looked up in a
+ * 256-entry table instead of being built bit by bit. The LEDs expect the colors in GRB order.
+ *
+ * <p>The brightness and a gamma correction are applied with the same table: it holds the output bytes of the
+ * corrected level of every color value, and is only rebuilt when the brightness changes. The LEDs respond
+ * linearly to the value, while the eye sees a doubling of the value as much less than twice as bright, the
+ * gamma correction makes fades look even.
+ *
+ * <p>The bitstream is written in one preallocated buffer, followed by low bytes for the reset of more than
+ * 280µs which latches the colors. Encoding a frame doesn't allocate, the buffer is only valid until the next
+ * call of {@link #encode(int[])}.
+ */
+public final class Ws2812bEncoder {
+
+    /**
+     * Output bit rate, three output bits per WS2812B bit of 1.25µs
+     */
+    public static final int BIT_RATE = 2_400_000;
+    /**
+     * Output bytes per color byte
+     */
+    public static final int BYTES_PER_COLOR = 3;
+    /**
+     * Output bytes per LED, for the green, red and blue bytes
+     */
+    public static final int BYTES_PER_LED = 3 * BYTES_PER_COLOR;
+    /**
+     * Low output bytes after the LED data, 84 bytes at 2.4MHz take 280µs
+     */
+    public static final int RESET_BYTES = 84;
+    /**
+     * Gamma which makes the brightness steps of WS2812B LEDs look even
+     */
+    public static final double DEFAULT_GAMMA = 2.8;
+
+    // The 24 output bits of every color byte
+    private static final int[] SYMBOLS = new int[256];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            int symbol = 0;
+            for (int bit = 7; bit >= 0; bit--) {
+                symbol = (symbol << 3) | (((value >> bit) & 1) == 1 ? 0b110 : 0b100);
+            }
+            SYMBOLS[value] = symbol;
+        }
+    }
+
+    private final int leds;
+    private final double gamma;
+    private final byte[] buffer;
+    // Output bits of the gamma corrected and dimmed level of every color value, replaced as a whole
+    private volatile int[] levelSymbols;
+    private volatile double brightness;
+
+    /**
+     * @param leds  Number of LEDs in the chain
+     * @param gamma Gamma correction, 1.0 to send the values unchanged
+     */
+    public Ws2812bEncoder(int leds, double gamma) {
+        this.leds = leds;
+        this.gamma = gamma;
+        // The reset bytes at the end stay zero
+        this.buffer = new byte[leds * BYTES_PER_LED + RESET_BYTES];
+        setBrightness(1.0);
+    }
+
+    /**
+     * Rebuilds the table for the brightness, from 0.0 for off to 1.0 for full brightness.
+     */
+    public void setBrightness(double brightness) {
+        int[] symbols = new int[256];
+        for (int value = 0; value < 256; value++) {
+            symbols[value] = SYMBOLS[level(value, gamma, brightness)];
+        }
+        this.brightness = brightness;
+        this.levelSymbols = symbols;
+    }
+
+    public double getBrightness() {
+        return brightness;
+    }
+
+    /**
+     * The level sent for a color value, with the gamma correction and brightness applied.
+     */
+    public static int level(int value, double gamma, double brightness) {
+        return (int) Math.round(Math.pow(value / 255.0, gamma) * brightness * 255);
+    }
+
+    /**
+     * Encodes the pixels, the first pixel is the first LED in the chain.
+     *
+     * @param pixels Colors as {@code 0xRRGGBB}, at least one per LED
+     * @return Number of bytes in {@link #buffer()} to send, including the reset
+     */
+    public int encode(int[] pixels) {
+        int[] symbols = levelSymbols;
+        int index = 0;
+        for (int led = 0; led < leds; led++) {
+            int pixel = pixels[led];
+            index = put(index, symbols[(pixel >> 8) & 0xFF]);
+            index = put(index, symbols[(pixel >> 16) & 0xFF]);
+            index = put(index, symbols[pixel & 0xFF]);
+        }
+        return buffer.length;
+    }
+
+    /**
+     * The buffer the last frame was encoded in.
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int getLeds() {
+        return leds;
+    }
+
+    private int put(int index, int symbol) {
+        buffer[index] = (byte) (symbol >> 16);
+        buffer[index + 1] = (byte) (symbol >> 8);
+        buffer[index + 2] = (byte) symbol;
+        return index + BYTES_PER_COLOR;
+    }
+
+    /**
+     * Decodes the color byte of which the three output bytes start at the offset, to verify an encoded bitstream.
+     *
+     * @throws IllegalArgumentException if the bytes don't hold valid WS2812B symbols
+     */
+    public static int decode(byte[] data, int offset) {
+        int symbol = ((data[offset] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset + 2] & 0xFF);
+        int value = 0;
+        for (int bit = 7; bit >= 0; bit--) {
+            int bits = (symbol >> (bit * 3)) & 0b111;
+            if (bits != 0b100 && bits != 0b110) {
+                throw new IllegalArgumentException("Invalid WS2812B symbol at byte " + offset);
+            }
+            value = (value << 1) | (bits >> 1 & 1);
+        }
+        return value;
+    }
+
+    /**
+     * Decodes the color of an LED in an encoded bitstream, with the gamma correction and brightness applied.
+     *
+     * @return Color as {@code 0xRRGGBB}
+     */
+    public static int decodeLed(byte[] data, int led) {
+        int offset = led * BYTES_PER_LED;
+        int green = decode(data, offset);
+        int red = decode(data, offset + BYTES_PER_COLOR);
+        int blue = decode(data, offset + 2 * BYTES_PER_COLOR);
+        return (red << 16) | (green << 8) | blue;
+    }
+}
@@ -0,0 +1,15 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+/**
+ * Sends a bitstream encoded by the {@link Ws2812bEncoder} to the LEDs.
+ */
+public interface Ws2812bOutput {
+
+    /**
+     * Sends the first bytes of the data. The data is reused for the next frame, so it can't be kept.
+     *
+     * @param data   Encoded bitstream
+     * @param length Number of bytes to send
+     */
+    void write(byte[] data, int length);
+}
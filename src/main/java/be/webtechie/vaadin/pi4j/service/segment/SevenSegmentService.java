@@ -2,22 +2,22 @@ package be.webtechie.vaadin.pi4j.service.segment;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
 import be.webtechie.vaadin.pi4j.event.DisplayEvent;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.views.electronics.SevenSegmentView;
 import com.pi4j.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SevenSegmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(SevenSegmentService.class);
-    private final ApplicationEventPublisher eventPublisher;
+    private final HardwareEventPublisher eventPublisher;
     private SevenSegmentComponent component;
 
-    public SevenSegmentService(Context pi4j, BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService) {
+    public SevenSegmentService(Context pi4j, BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService) {
         this.eventPublisher = eventPublisher;
 
         if (!config.hasSevenSegment() || config.getI2cDeviceSevenSegmentDisplay() == 0x00) {
@@ -57,7 +57,7 @@ public class SevenSegmentService {
         logger.info("Setting digit {} on position {} of seven segment display", symbol.name(), position);
         component.setSymbol(position, symbol);
         component.refresh();
-        eventPublisher.publishEvent(new DisplayEvent(this, DisplayEvent.DisplayType.SEGMENT,
+        eventPublisher.publish(new DisplayEvent(this, DisplayEvent.DisplayType.SEGMENT,
                 "Position: " + (position + 1) + " - Symbol: " + symbol.name() +
                         " - HEX: " + symbol.getHexValue() + " - Bits: " + symbol.getBitsValue()));
     }
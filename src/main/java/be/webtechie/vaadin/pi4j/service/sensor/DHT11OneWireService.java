@@ -2,11 +2,11 @@ package be.webtechie.vaadin.pi4j.service.sensor;
 
 import be.webtechie.vaadin.pi4j.config.BoardConfig;
 import be.webtechie.vaadin.pi4j.event.DhtMeasurementEvent;
+import be.webtechie.vaadin.pi4j.event.HardwareEventPublisher;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.views.electronics.TempHumidityView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
@@ -22,9 +22,9 @@ public class DHT11OneWireService {
 
     private static final Logger logger = LoggerFactory.getLogger(DHT11OneWireService.class);
     private final DHT11OneWireComponent component;
-    private final ApplicationEventPublisher eventPublisher;
+    private final HardwareEventPublisher eventPublisher;
 
-    public DHT11OneWireService(BoardConfig config, ApplicationEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
+    public DHT11OneWireService(BoardConfig config, HardwareEventPublisher eventPublisher, Pi4JService pi4JService, TaskScheduler taskScheduler) {
         this.eventPublisher = eventPublisher;
 
         // Only initialize for boards that have DHT11 but NOT via I2C (CrowPi 1, 2)
@@ -54,7 +54,7 @@ public class DHT11OneWireService {
     private void pollSensor() {
         try {
             var measurement = component.getMeasurement();
-            eventPublisher.publishEvent(new DhtMeasurementEvent(this, measurement.temperature(), measurement.humidity()));
+            eventPublisher.publish(new DhtMeasurementEvent(this, measurement.temperature(), measurement.humidity()));
         } catch (Exception e) {
             logger.error("Error reading DHT11 sensor: {}", e.getMessage());
         }
@@ -1,9 +1,11 @@
 package be.webtechie.vaadin.pi4j.views.about;
 
+import be.webtechie.vaadin.pi4j.event.ComponentEventBus;
 import be.webtechie.vaadin.pi4j.service.Pi4JService;
 import be.webtechie.vaadin.pi4j.service.SystemInformationService;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
@@ -30,13 +32,17 @@ public class AboutSystemView extends VerticalLayout {
 
     private final ScheduledFuture<?> scheduledFuture;
     private final SystemInformationService sis;
+    private final ComponentEventBus eventBus;
     private final Paragraph memory = new Paragraph();
     private final Paragraph cpu = new Paragraph();
     private final Paragraph players = new Paragraph();
+    private final Div eventBusMetrics = new Div();
     private final UI ui;
 
-    public AboutSystemView(SystemInformationService sis, Pi4JService pi4JService, TaskScheduler taskScheduler) {
+    public AboutSystemView(SystemInformationService sis, Pi4JService pi4JService, ComponentEventBus eventBus,
+                           TaskScheduler taskScheduler) {
         this.sis = sis;
+        this.eventBus = eventBus;
         setSpacing(false);
 
         scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::updateDetails, Instant.now().plusSeconds(5), Duration.ofSeconds(5));
@@ -48,6 +54,9 @@ public class AboutSystemView extends VerticalLayout {
         Button testLatency = new LatencyTestButton(latency -> latencyReport.setText(String.format("%,.0f ms", latency)));
         add(testLatency, latencyReport);
 
+        add(new H3("Event delivery"));
+        add(eventBusMetrics);
+
         doUpdateDetails();
 
         ui = UI.getCurrent();
@@ -76,6 +85,14 @@ public class AboutSystemView extends VerticalLayout {
             max = "unknown (more sessions needed for an estimate)";
         }
         players.setText("Active users: estimated max: " + sis.getNumberOfSessions() + "/" + max + ", estimated memory usage per player " + formatSize(sis.getLastSessionSizeGuestimate()));
+
+        // Views which can't keep up show up here with a growing number of pending or dropped events
+        eventBusMetrics.removeAll();
+        eventBusMetrics.add(new Paragraph(String.format("Subscriptions: %,d active, %,d evicted from closed UIs",
+                eventBus.getSubscriptionCount(), eventBus.getEvictedSubscriptionCount())));
+        eventBus.getMetrics().forEach(m -> eventBusMetrics.add(new Paragraph(String.format(
+                "%s: queued %,d, delivered %,d, dropped %,d, pending %,d",
+                m.eventType(), m.queued(), m.delivered(), m.dropped(), m.pending()))));
     }
 
     private void updateDetails() {
@@ -5,31 +5,67 @@ import be.webtechie.vaadin.pi4j.event.ComponentEventBus;
 import be.webtechie.vaadin.pi4j.service.buzzer.BuzzerService;
 import be.webtechie.vaadin.pi4j.service.buzzer.Note;
 import be.webtechie.vaadin.pi4j.service.buzzer.PlayNote;
+import be.webtechie.vaadin.pi4j.service.buzzer.Rtttl;
 import be.webtechie.vaadin.pi4j.views.component.LogGrid;
 import com.vaadin.flow.component.Unit;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.upload.Upload;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.server.streams.UploadHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 
 @PageTitle("Buzzer")
 @Menu(order = 12, icon = LineAwesomeIconUrl.VOLUME_UP_SOLID)
 public class BuzzerView extends HardwareDemoView {
     private final Logger logger = LoggerFactory.getLogger(BuzzerView.class);
 
+    private static final List<PlayNote> SCALE = Stream.of(Note.C5, Note.D5, Note.E5, Note.F5, Note.G5, Note.A5, Note.B5, Note.C6)
+            .map(note -> new PlayNote(note, 250))
+            .toList();
+    private static final String EXAMPLE_MELODY = "Tetris:d=4,o=5,b=160:e6,8b,8c6,8d6,16e6,16d6,8c6,8b,a,8a,8c6,e6,"
+            + "8d6,8c6,b,8b,8c6,d6,e6,c6,a,2a";
+    private static final int MAX_UPLOAD_BYTES = 16 * 1024;
+
     private final BuzzerService buzzerService;
     private final LogGrid logs;
+    private final TextArea melodyText;
 
     public BuzzerView(ComponentEventBus eventBus, BuzzerService buzzerService) {
         this.buzzerService = buzzerService;
 
         eventBus.subscribe(this, BuzzerEvent.class, this::onBuzzerEvent);
 
+        // The notes are played on the scheduler, these clicks return immediately
+        add(new HorizontalLayout(
+                new Button("Play Scale", e -> buzzerService.play(SCALE)),
+                new Button("Stop", e -> buzzerService.stop())));
+
+        melodyText = new TextArea("Melody (RTTTL)");
+        melodyText.setValue(EXAMPLE_MELODY);
+        melodyText.setWidthFull();
+        add(melodyText);
+
+        // A melody file is loaded into the text area, so it can be checked and changed before playing it
+        var upload = new Upload(UploadHandler.inMemory((metadata, data) -> {
+            melodyText.setValue(new String(data, StandardCharsets.UTF_8).strip());
+            playMelody();
+        }));
+        upload.setAcceptedFileTypes(".txt", ".rtttl", ".rtx");
+        upload.setMaxFileSize(MAX_UPLOAD_BYTES);
+        upload.setMaxFiles(1);
+        add(new HorizontalLayout(new Button("Play Melody", e -> playMelody()), upload));
+
         var buttonHolder = new FlexLayout();
         buttonHolder.setFlexWrap(FlexLayout.FlexWrap.WRAP);
         add(buttonHolder);
@@ -40,6 +76,18 @@ public class BuzzerView extends HardwareDemoView {
         add(logs);
     }
 
+    private void playMelody() {
+        try {
+            var melody = Rtttl.compile(melodyText.getValue());
+            melodyText.setInvalid(false);
+            buzzerService.playNow(melody);
+            logs.addLine("Melody " + melody.getName() + ", " + melody.size() + " notes, " + melody.getDurationMs() + " ms");
+        } catch (IllegalArgumentException ex) {
+            melodyText.setInvalid(true);
+            melodyText.setErrorMessage(ex.getMessage());
+        }
+    }
+
     private void onBuzzerEvent(BuzzerEvent event) {
         var playNote = event.getPlayNote();
         logger.debug("PlayNote message received: {}, duration {}", playNote.note(), playNote.duration());
@@ -51,7 +99,7 @@ public class BuzzerView extends HardwareDemoView {
             this.setText(note.name());
             this.setWidth(50, Unit.PIXELS);
             this.getStyle().setMarginRight("10px");
-            this.addClickListener(e -> buzzerService.playNote(new PlayNote(note, 150)));
+            this.addClickListener(e -> buzzerService.playNow(List.of(new PlayNote(note, 150))));
         }
     }
 }
@@ -2,14 +2,21 @@ package be.webtechie.vaadin.pi4j.views.electronics;
 
 import be.webtechie.vaadin.pi4j.event.ComponentEventBus;
 import be.webtechie.vaadin.pi4j.event.IrCodeEvent;
-import be.webtechie.vaadin.pi4j.event.IrTriggerChangedEvent;
+import be.webtechie.vaadin.pi4j.event.IrActionsChangedEvent;
+import be.webtechie.vaadin.pi4j.service.ir.IrAction;
+import be.webtechie.vaadin.pi4j.service.ir.IrActionMapping;
+import be.webtechie.vaadin.pi4j.service.ir.IrActionService;
+import be.webtechie.vaadin.pi4j.service.ir.IrCaptureStats;
 import be.webtechie.vaadin.pi4j.service.ir.IrCode;
+import be.webtechie.vaadin.pi4j.service.ir.IrHistogram;
 import be.webtechie.vaadin.pi4j.service.ir.IrService;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Emphasis;
 import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
@@ -22,14 +29,19 @@ import com.vaadin.flow.router.PageTitle;
 import in.virit.color.NamedColor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
 import org.vaadin.lineawesome.LineAwesomeIconUrl;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * View for displaying IR (infrared) remote signals.
- * Shows received codes in a grid and allows configuring buzzer trigger.
+ * Shows received codes in a grid and allows mapping codes to actions.
+ * The capture statistics show whether frames are lost because of the timing on the Pi or because of the remote.
  */
 @PageTitle("IR Receiver")
 @Menu(order = 20, icon = LineAwesomeIconUrl.SATELLITE_DISH_SOLID)
@@ -37,24 +49,44 @@ public class IrReceiverView extends HardwareDemoView {
 
     private static final Logger logger = LoggerFactory.getLogger(IrReceiverView.class);
     private static final int MAX_CODES = 50;
+    private static final Duration STATS_INTERVAL = Duration.ofSeconds(2);
+    private static final int LATE_SAMPLE_US = 100; // Twice the sample period
 
     private final IrService irService;
+    private final IrActionService irActionService;
+    private final TaskScheduler taskScheduler;
     private final List<IrCode> receivedCodes = new ArrayList<>();
     private final Grid<IrCode> codeGrid;
-    private final TextField buzzerCodeField;
+    private final TextField codeField;
+    private final List<String> protocols = new ArrayList<>();
+    private final ComboBox<String> protocolField;
+    private final Grid<IrActionMapping> actionGrid;
     private final Span lastCodeDisplay;
+    private final Div captureStats = new Div();
+    private ScheduledFuture<?> statsUpdater;
 
-    public IrReceiverView(ComponentEventBus eventBus, IrService irService) {
+    public IrReceiverView(ComponentEventBus eventBus, IrService irService, IrActionService irActionService,
+                          TaskScheduler taskScheduler) {
         this.irService = irService;
+        this.irActionService = irActionService;
+        this.taskScheduler = taskScheduler;
 
-        eventBus.subscribe(this, IrTriggerChangedEvent.class, this::onTriggerChanged);
+        eventBus.subscribe(this, IrActionsChangedEvent.class, this::onActionsChanged);
         eventBus.subscribe(this, IrCodeEvent.class, this::onIrCode);
 
         add(new H3("IR Receiver (GPIO 18)"));
         add(new Paragraph("Point your IR remote at the receiver and press buttons to see the codes."));
 
-        add(new Emphasis("Note: IR decoding requires precise timing and uses a CPU-intensive busy loop. " +
-                "Reading is only active while this view is open."));
+        if (irService.isReplay()) {
+            add(new Emphasis("Note: IR frames are replayed from a recorded trace file instead of the receiver. " +
+                    "Replay starts when this view is opened."));
+        } else if (irService.isEdgeCapture()) {
+            add(new Emphasis("Note: IR signals are captured from GPIO edge events. " +
+                    "Reading is only active while this view is open."));
+        } else {
+            add(new Emphasis("Note: IR decoding requires precise timing and uses a CPU-intensive busy loop. " +
+                    "Reading is only active while this view is open."));
+        }
 
         // Last received code display
         lastCodeDisplay = new Span("--");
@@ -70,53 +102,87 @@ public class IrReceiverView extends HardwareDemoView {
         lastCodeLayout.add(new Span("Last code: "), lastCodeDisplay);
         add(lastCodeLayout);
 
-        // Buzzer trigger configuration
-        add(new H3("Buzzer Trigger"));
-        add(new Paragraph("Enter an IR code (hex) to trigger the buzzer when received:"));
-
-        buzzerCodeField = new TextField("IR Code (hex)");
-        buzzerCodeField.setPlaceholder("e.g., 0x45 or 45");
-        buzzerCodeField.setWidth("150px");
-        buzzerCodeField.setClearButtonVisible(true);
-
-        int currentTrigger = irService.getBuzzerTriggerCode();
-        if (currentTrigger >= 0) {
-            buzzerCodeField.setValue(String.format("0x%02X", currentTrigger));
-        }
-
-        // Update trigger immediately when value changes
-        buzzerCodeField.addValueChangeListener(e -> {
-            String value = e.getValue().trim();
-            if (value.isEmpty()) {
-                irService.setBuzzerTriggerCode(-1);
-                buzzerCodeField.setInvalid(false);
-            } else {
-                try {
-                    int code = parseHexOrDecimal(value);
-                    if (code >= 0 && code <= 255) {
-                        irService.setBuzzerTriggerCode(code);
-                        buzzerCodeField.setInvalid(false);
-                    } else {
-                        buzzerCodeField.setInvalid(true);
-                        buzzerCodeField.setErrorMessage("Code must be 0x00-0xFF");
-                    }
-                } catch (NumberFormatException ex) {
-                    buzzerCodeField.setInvalid(true);
-                    buzzerCodeField.setErrorMessage("Invalid hex value");
-                }
-            }
+        // Actions executed when a code is received
+        add(new H3("IR Actions"));
+        add(new Paragraph("Map an IR code to an action, or press KEY to map a beep to the last received code:"));
+
+        codeField = new TextField("IR Code (hex)");
+        codeField.setPlaceholder("e.g., 0x45 or 45");
+        codeField.setWidth("150px");
+        codeField.setClearButtonVisible(true);
+
+        protocols.add(IrActionMapping.ANY_PROTOCOL);
+        protocols.addAll(irService.getProtocols());
+        protocolField = new ComboBox<>("Protocol", protocols);
+        protocolField.setItemLabelGenerator(IrReceiverView::protocolLabel);
+        protocolField.setValue(IrActionMapping.ANY_PROTOCOL);
+
+        var actionKindField = new ComboBox<>("Action", IrAction.Kind.values());
+        actionKindField.setItemLabelGenerator(IrAction.Kind::getLabel);
+        var argumentField = new TextField();
+        actionKindField.addValueChangeListener(e -> {
+            var kind = e.getValue();
+            argumentField.setLabel(kind == null || kind.getArgumentLabel() == null ? "" : kind.getArgumentLabel());
+            argumentField.setEnabled(kind != null && kind.getArgumentLabel() != null);
+            argumentField.setInvalid(false);
         });
+        actionKindField.setValue(IrAction.Kind.BEEP);
+        argumentField.setValue("200");
 
         var useLastCodeButton = new Button("Use Last Code", e -> {
             if (!receivedCodes.isEmpty()) {
                 IrCode lastCode = receivedCodes.get(0);
-                buzzerCodeField.setValue(lastCode.getCodeHex());
+                codeField.setValue(lastCode.getCodeHex());
+                selectProtocol(lastCode.protocol());
             }
         });
 
-        var triggerLayout = new HorizontalLayout(buzzerCodeField, useLastCodeButton);
-        triggerLayout.setAlignItems(Alignment.BASELINE);
-        add(triggerLayout);
+        var addActionButton = new Button("Map Action", VaadinIcon.PLUS.create(), e -> {
+            int code;
+            try {
+                code = parseHexOrDecimal(codeField.getValue());
+            } catch (NumberFormatException ex) {
+                code = -1;
+            }
+            codeField.setInvalid(code < 0);
+            if (code < 0) {
+                codeField.setErrorMessage("Invalid hex value");
+                return;
+            }
+            if (actionKindField.getValue() == null || protocolField.getValue() == null) {
+                return;
+            }
+            try {
+                var action = actionKindField.getValue().create(argumentField.getValue().trim());
+                argumentField.setInvalid(false);
+                irActionService.setAction(protocolField.getValue(), code, action);
+            } catch (IllegalArgumentException ex) {
+                argumentField.setInvalid(true);
+                argumentField.setErrorMessage(ex.getMessage());
+            }
+        });
+        addActionButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+
+        var actionLayout = new HorizontalLayout(codeField, protocolField, actionKindField, argumentField,
+                useLastCodeButton, addActionButton);
+        actionLayout.setAlignItems(Alignment.BASELINE);
+        actionLayout.setWrap(true);
+        add(actionLayout);
+
+        actionGrid = new Grid<>(IrActionMapping.class, false);
+        actionGrid.addColumn(IrActionMapping::getCodeHex).setHeader("Code (Hex)").setWidth("120px");
+        actionGrid.addColumn(m -> protocolLabel(m.protocol())).setHeader("Protocol").setWidth("120px");
+        actionGrid.addColumn(m -> m.action().describe()).setHeader("Action");
+        actionGrid.addComponentColumn(m -> {
+            var removeButton = new Button(VaadinIcon.TRASH.create(),
+                    e -> irActionService.removeAction(m.protocol(), m.code()));
+            removeButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY, ButtonVariant.LUMO_ERROR);
+            return removeButton;
+        }).setWidth("80px").setFlexGrow(0);
+        actionGrid.setItems(irActionService.getMappings());
+        actionGrid.setAllRowsVisible(true);
+        actionGrid.setWidthFull();
+        add(actionGrid);
 
         // Code history grid
         add(new H3("Received Codes"));
@@ -125,6 +191,8 @@ public class IrReceiverView extends HardwareDemoView {
         codeGrid.addColumn(IrCode::getTimestampFormatted).setHeader("Time").setWidth("150px");
         codeGrid.addColumn(IrCode::getCodeHex).setHeader("Code (Hex)").setWidth("120px");
         codeGrid.addColumn(IrCode::code).setHeader("Code (Dec)").setWidth("120px");
+        codeGrid.addColumn(IrCode::protocol).setHeader("Protocol").setWidth("120px");
+        codeGrid.addColumn(IrCode::getAddressHex).setHeader("Address").setWidth("120px");
         codeGrid.setItems(receivedCodes);
         codeGrid.setHeight("300px");
         codeGrid.setWidthFull();
@@ -144,6 +212,16 @@ public class IrReceiverView extends HardwareDemoView {
         });
         testButton.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
         add(testButton);
+
+        // Capture timing and decode statistics
+        add(new H3("Capture Statistics"));
+        add(captureStats);
+        var resetStatsButton = new Button("Reset Statistics", VaadinIcon.REFRESH.create(), e -> {
+            irService.resetCaptureStats();
+            updateCaptureStats();
+        });
+        add(resetStatsButton);
+        updateCaptureStats();
     }
 
     @Override
@@ -151,15 +229,59 @@ public class IrReceiverView extends HardwareDemoView {
         super.onAttach(attachEvent);
         // Start IR reading when view is opened (saves CPU when not in use)
         irService.startReading();
+        var ui = attachEvent.getUI();
+        statsUpdater = taskScheduler.scheduleWithFixedDelay(() -> ui.access(this::updateCaptureStats),
+                Instant.now().plus(STATS_INTERVAL), STATS_INTERVAL);
     }
 
     @Override
     protected void onDetach(DetachEvent detachEvent) {
+        if (statsUpdater != null) {
+            statsUpdater.cancel(false);
+            statsUpdater = null;
+        }
         // Stop IR reading when view is closed
         irService.stopReading();
         super.onDetach(detachEvent);
     }
 
+    private void updateCaptureStats() {
+        IrCaptureStats stats = irService.getCaptureStats();
+        captureStats.removeAll();
+        captureStats.add(new Paragraph(String.format("Frames: %,d captured, %,d not decoded by any protocol",
+                stats.frames(), stats.rejected())));
+
+        IrHistogram samples = stats.sampleInterval();
+        if (samples.count() > 0) {
+            // Late samples stretch or merge pulses, which makes the protocol decoders fail
+            captureStats.add(new Paragraph(String.format(
+                    "Sample interval: mean %d us, p50 %d us, p99 %d us, max %,d us, %,d of %,d samples late (>= %d us)",
+                    samples.meanUs(), samples.p50Us(), samples.p99Us(), samples.maxUs(),
+                    samples.countAtLeast(LATE_SAMPLE_US), samples.count(), LATE_SAMPLE_US)));
+        } else {
+            captureStats.add(new Paragraph("Sample interval: not sampled"
+                    + (irService.isEdgeCapture() ? " (edge capture)" : "")));
+        }
+
+        String scheduling = irService.getCaptureScheduling();
+        if (scheduling != null) {
+            // Every preemption during a frame shows up as late samples
+            captureStats.add(new Paragraph("Capture thread: " + scheduling + ", "
+                    + (stats.preemptions() < 0 ? "preemptions unknown"
+                    : String.format("preempted %,d times", stats.preemptions()))));
+        }
+
+        IrHistogram capture = stats.frameCapture();
+        captureStats.add(new Paragraph(String.format("Frame capture: mean %,d us, p99 %,d us, max %,d us",
+                capture.meanUs(), capture.p99Us(), capture.maxUs())));
+
+        // A protocol which recognizes the leader but fails later in the frame suffers from timing errors
+        stats.protocols().stream()
+                .filter(p -> p.attempts() > 0)
+                .forEach(p -> captureStats.add(new Paragraph(String.format("%s: %,d of %,d frames decoded (%.0f%%)",
+                        p.protocol(), p.decoded(), p.attempts(), p.successRate() * 100))));
+    }
+
     private int parseHexOrDecimal(String value) {
         value = value.trim().toLowerCase();
         if (value.startsWith("0x")) {
@@ -171,27 +293,42 @@ public class IrReceiverView extends HardwareDemoView {
         }
     }
 
-    private void onTriggerChanged(IrTriggerChangedEvent event) {
-        String newValue = event.getTriggerCodeHex();
-        if (!buzzerCodeField.getValue().equals(newValue)) {
-            buzzerCodeField.setValue(newValue);
+    private static String protocolLabel(String protocol) {
+        return IrActionMapping.ANY_PROTOCOL.equals(protocol) ? "Any" : protocol;
+    }
+
+    /**
+     * Selects the protocol, adding it to the choices if it is not a known one, like "Simulated".
+     */
+    private void selectProtocol(String protocol) {
+        if (!protocols.contains(protocol)) {
+            protocols.add(protocol);
+            protocolField.setItems(protocols);
         }
+        protocolField.setValue(protocol);
+    }
+
+    private void onActionsChanged(IrActionsChangedEvent event) {
+        actionGrid.setItems(event.getMappings());
     }
 
     private void onIrCode(IrCodeEvent event) {
         var irCode = event.getIrCode();
         logger.debug("IR code received in view: {}", irCode);
 
-        receivedCodes.add(0, irCode);
+        lastCodeDisplay.setText(irCode.getCodeHex() + (irCode.repeat() ? " (held)" : ""));
+        lastCodeDisplay.getStyle().setBackground(NamedColor.LIMEGREEN.toString());
 
-        while (receivedCodes.size() > MAX_CODES) {
-            receivedCodes.remove(receivedCodes.size() - 1);
-        }
+        // A held key only updates the display, the grid shows every key press once
+        if (!irCode.repeat()) {
+            receivedCodes.add(0, irCode);
 
-        lastCodeDisplay.setText(irCode.getCodeHex());
-        lastCodeDisplay.getStyle().setBackground(NamedColor.LIMEGREEN.toString());
+            while (receivedCodes.size() > MAX_CODES) {
+                receivedCodes.remove(receivedCodes.size() - 1);
+            }
 
-        codeGrid.getDataProvider().refreshAll();
+            codeGrid.getDataProvider().refreshAll();
+        }
 
         // Reset color after delay
         var ui = getUI().orElse(null);
@@ -47,7 +47,7 @@ public class JoystickView extends HardwareDemoView {
         this.snakeGame = snakeGame;
 
         eventBus.subscribe(this, KeyStateEvent.class, this::onKeyEvent);
-        eventBus.subscribe(this, JoystickEvent.class, this::onJoystickEvent);
+        eventBus.subscribeLatest(this, JoystickEvent.class, this::onJoystickEvent);
 
         add(new H3("Joystick (PCF8574)"));
 
@@ -97,7 +97,7 @@ public class JoystickView extends HardwareDemoView {
 
         if (isPressed) {
             logger.info("Key pressed - triggering buzzer");
-            new Thread(() -> joystickService.beep(150)).start();
+            joystickService.beep(150);
             centerButton.getStyle().setBackground(NamedColor.LIMEGREEN.toString());
             logs.addLine("Buzzer triggered (key press)!");
         } else {
@@ -187,8 +187,11 @@ public class JoystickView extends HardwareDemoView {
 
             addClickListener(e -> {
                 logger.info("Buzzer button clicked");
-                new Thread(() -> joystickService.beep(150)).start();
-                logs.addLine("Buzzer triggered!");
+                if (!joystickService.hasBeeper()) {
+                    logs.addLine("Buzzer not available (no PCF8574)");
+                } else {
+                    logs.addLine(joystickService.beep(150) ? "Buzzer triggered!" : "Buzzer request dropped (too fast)");
+                }
             });
         }
     }
@@ -27,7 +27,8 @@ public class SimpleBuzzerView extends HardwareDemoView {
         this.joystickService = joystickService;
 
         add(new H3("Buzzer (PCF8574)"));
-        add(new Paragraph("Click the button to trigger the buzzer."));
+        add(new Paragraph("Click the button to trigger the buzzer. Clicks while the buzzer is on extend the beep, "
+                + "clicks which follow each other too quickly are dropped."));
 
         var buttonLayout = new HorizontalLayout();
         buttonLayout.setSpacing(true);
@@ -52,8 +53,14 @@ public class SimpleBuzzerView extends HardwareDemoView {
                     .setMarginRight("10px");
 
             addClickListener(e -> {
-                new Thread(() -> joystickService.beep(durationMs)).start();
-                logs.addLine("Buzzer triggered: " + label + " (" + durationMs + "ms)");
+                if (!joystickService.hasBeeper()) {
+                    logs.addLine("Buzzer not available (no PCF8574): " + label + " (" + durationMs + "ms)");
+                    return;
+                }
+                boolean accepted = joystickService.beep(durationMs);
+                var stats = joystickService.getBeepStats();
+                logs.addLine((accepted ? "Buzzer triggered: " : "Buzzer request dropped: ") + label + " (" + durationMs + "ms)"
+                        + ", " + stats.merged() + " merged and " + stats.dropped() + " dropped of " + stats.requested() + " requests");
             });
         }
     }
@@ -19,7 +19,7 @@ public class TempHumidityView extends HardwareDemoView {
     private final EnvironmentMonitor environmentMonitor;
 
     public TempHumidityView(ComponentEventBus eventBus) {
-        eventBus.subscribe(this, DhtMeasurementEvent.class, this::onDhtMeasurement);
+        eventBus.subscribeLatest(this, DhtMeasurementEvent.class, this::onDhtMeasurement);
 
         environmentMonitor = new EnvironmentMonitor();
         add(environmentMonitor);
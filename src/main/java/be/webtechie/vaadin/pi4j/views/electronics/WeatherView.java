@@ -29,7 +29,7 @@ public class WeatherView extends HardwareDemoView {
     private final PressureGauge pressureGauge;
 
     public WeatherView(ComponentEventBus eventBus) {
-        eventBus.subscribe(this, BMP280Event.class, this::onBMP280Measurement);
+        eventBus.subscribeLatest(this, BMP280Event.class, this::onBMP280Measurement);
 
         // Create gauges layout
         var gaugesLayout = new HorizontalLayout();
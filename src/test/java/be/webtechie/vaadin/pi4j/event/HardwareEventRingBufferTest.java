@@ -0,0 +1,173 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HardwareEventRingBufferTest {
+
+    static final class TestEvent extends HardwareEvent {
+        final int value;
+
+        TestEvent(int value) {
+            super(HardwareEventRingBufferTest.class);
+            this.value = value;
+        }
+    }
+
+    private final HardwareEventRingBuffer ringBuffer = new HardwareEventRingBuffer(8);
+
+    @AfterEach
+    void shutdown() {
+        ringBuffer.shutdown();
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new HardwareEventRingBuffer(5).getCapacity());
+        assertEquals(8, new HardwareEventRingBuffer(8).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new HardwareEventRingBuffer(1));
+    }
+
+    @Test
+    void everyConsumerReceivesAllEventsInOrder() throws InterruptedException {
+        int count = 1000;
+        var first = new ArrayList<Integer>();
+        var second = new ArrayList<Integer>();
+        var done = new CountDownLatch(2);
+        ringBuffer.addConsumer("first", collect(first, count, done));
+        ringBuffer.addConsumer("second", collect(second, count, done));
+
+        for (int i = 0; i < count; i++) {
+            ringBuffer.publish(new TestEvent(i));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, first.get(i));
+            assertEquals(i, second.get(i));
+        }
+    }
+
+    @Test
+    void slowConsumerHoldsBackPublisherWithoutLosingEvents() throws InterruptedException {
+        int count = 100;
+        var received = new ArrayList<Integer>();
+        var done = new CountDownLatch(1);
+        ringBuffer.addConsumer("slow", (event, sequence, endOfBatch) -> {
+            sleep(1);
+            received.add(((TestEvent) event).value);
+            if (received.size() == count) {
+                done.countDown();
+            }
+        });
+
+        for (int i = 0; i < count; i++) {
+            ringBuffer.publish(new TestEvent(i));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    void lastEventOfBatchIsMarked() throws InterruptedException {
+        var ends = new ArrayList<Long>();
+        var done = new CountDownLatch(1);
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        ringBuffer.addConsumer("batch", (event, sequence, endOfBatch) -> {
+            if (sequence == 0) {
+                entered.countDown();
+                await(release);
+            }
+            if (endOfBatch) {
+                ends.add(sequence);
+            }
+            if (sequence == 4) {
+                done.countDown();
+            }
+        });
+
+        ringBuffer.publish(new TestEvent(0));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // Published while the consumer is busy with the first event, so they are handled as one batch
+        for (int i = 1; i < 5; i++) {
+            ringBuffer.publish(new TestEvent(i));
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0L, 4L), ends);
+    }
+
+    @Test
+    void slotsAreClearedOnceAllConsumersPassedThem() throws InterruptedException {
+        var fast = new CountDownLatch(5);
+        var slow = new CountDownLatch(5);
+        var release = new CountDownLatch(1);
+        ringBuffer.addConsumer("fast", (event, sequence, endOfBatch) -> fast.countDown());
+        ringBuffer.addConsumer("slow", (event, sequence, endOfBatch) -> {
+            await(release);
+            slow.countDown();
+        });
+
+        for (int i = 0; i < 5; i++) {
+            ringBuffer.publish(new TestEvent(i));
+        }
+        assertTrue(fast.await(5, TimeUnit.SECONDS));
+        // The slow consumer still needs them
+        assertEquals(5, ringBuffer.retainedEvents());
+
+        release.countDown();
+        assertTrue(slow.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ringBuffer.retainedEvents() > 0 && System.nanoTime() < deadline) {
+            sleep(1);
+        }
+        assertEquals(0, ringBuffer.retainedEvents());
+    }
+
+    @Test
+    void publishingWithoutConsumersNeverWaits() {
+        for (int i = 0; i < 100; i++) {
+            ringBuffer.publish(new TestEvent(i));
+        }
+        assertEquals(0, ringBuffer.retainedEvents());
+    }
+
+    private static HardwareEventRingBuffer.Handler collect(List<Integer> values, int count, CountDownLatch done) {
+        return (event, sequence, endOfBatch) -> {
+            values.add(((TestEvent) event).value);
+            if (values.size() == count) {
+                done.countDown();
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionRegistryTest {
+
+    private interface Marker {
+    }
+
+    private static class Base {
+    }
+
+    private static class Child extends Base implements Marker {
+    }
+
+    private static class Other {
+    }
+
+    private final SubscriptionRegistry registry = new SubscriptionRegistry();
+    private final EventBusMetrics metrics = new EventBusMetrics();
+
+    private <T> Subscription<T> subscribe(Class<T> type) {
+        var subscription = new Subscription<>(null, type, event -> {
+        }, DeliveryOptions.dropOldest(4), metrics.forType(type));
+        registry.add(subscription);
+        return subscription;
+    }
+
+    private List<Subscription<?>> matching(Class<?> eventClass) {
+        var matches = new ArrayList<Subscription<?>>();
+        registry.forEachMatching(eventClass, matches::add);
+        return matches;
+    }
+
+    @Test
+    void matchesSuperclassesAndInterfaces() {
+        var child = subscribe(Child.class);
+        var base = subscribe(Base.class);
+        var marker = subscribe(Marker.class);
+        var other = subscribe(Other.class);
+
+        var forChild = matching(Child.class);
+        assertEquals(3, forChild.size());
+        assertTrue(forChild.containsAll(List.of(child, base, marker)));
+
+        assertEquals(List.of(base), matching(Base.class));
+        assertEquals(List.of(other), matching(Other.class));
+        assertEquals(List.of(), matching(String.class));
+    }
+
+    @Test
+    void newEventTypeInvalidatesResolvedHierarchy() {
+        var base = subscribe(Base.class);
+        assertEquals(List.of(base), matching(Child.class));
+
+        var marker = subscribe(Marker.class);
+        var forChild = matching(Child.class);
+        assertEquals(2, forChild.size());
+        assertTrue(forChild.contains(marker));
+    }
+
+    @Test
+    void subscriptionOfExistingTypeIsSeenWithoutNewResolve() {
+        var first = subscribe(Base.class);
+        assertEquals(List.of(first), matching(Child.class));
+
+        var second = subscribe(Base.class);
+        assertEquals(List.of(first, second), matching(Child.class));
+    }
+
+    @Test
+    void removedSubscriptionIsNoLongerMatched() {
+        var first = subscribe(Base.class);
+        var second = subscribe(Base.class);
+
+        registry.remove(first);
+
+        assertEquals(List.of(second), matching(Child.class));
+        assertEquals(List.of(second), registry.all());
+    }
+
+    @Test
+    void allReturnsEveryType() {
+        var base = subscribe(Base.class);
+        var other = subscribe(Other.class);
+
+        var all = registry.all();
+        assertEquals(2, all.size());
+        assertTrue(all.containsAll(List.of(base, other)));
+    }
+}
@@ -0,0 +1,125 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubscriptionTest {
+
+    private final EventBusMetrics.Counters counters = new EventBusMetrics().forType(Integer.class);
+    private final List<Integer> delivered = new ArrayList<>();
+
+    private Subscription<Integer> subscription(DeliveryOptions options) {
+        return new Subscription<>(null, Integer.class, delivered::add, options, counters);
+    }
+
+    @Test
+    void onlyFirstOfferSchedulesDrain() {
+        var subscription = subscription(DeliveryOptions.dropOldest(4));
+
+        assertTrue(subscription.offer(1));
+        assertFalse(subscription.offer(2));
+        subscription.drain();
+        assertTrue(subscription.offer(3));
+
+        assertEquals(List.of(1, 2), delivered);
+    }
+
+    @Test
+    void dropOldestKeepsNewest() {
+        var subscription = subscription(DeliveryOptions.dropOldest(2));
+        for (int i = 1; i <= 5; i++) {
+            subscription.offer(i);
+        }
+        subscription.drain();
+
+        assertEquals(List.of(4, 5), delivered);
+        assertEquals(3, counters.dropped.sum());
+        assertEquals(0, counters.pending.sum());
+    }
+
+    @Test
+    void dropNewestKeepsOldest() {
+        var subscription = subscription(DeliveryOptions.dropNewest(2));
+        for (int i = 1; i <= 5; i++) {
+            subscription.offer(i);
+        }
+        subscription.drain();
+
+        assertEquals(List.of(1, 2), delivered);
+        assertEquals(3, counters.dropped.sum());
+    }
+
+    @Test
+    void conflateDeliversLatest() {
+        var subscription = subscription(DeliveryOptions.conflate());
+        for (int i = 1; i <= 5; i++) {
+            subscription.offer(i);
+        }
+        subscription.drain();
+
+        assertEquals(List.of(5), delivered);
+        assertEquals(4, counters.dropped.sum());
+    }
+
+    @Test
+    void blockNeverWaitsAndKeepsOrder() {
+        var subscription = subscription(DeliveryOptions.block(2, Duration.ofSeconds(10)));
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= 4; i++) {
+            subscription.offer(i);
+        }
+        // A full queue doesn't hold the calling thread
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        subscription.drain();
+
+        assertEquals(List.of(1, 2, 3, 4), delivered);
+        assertEquals(0, counters.dropped.sum());
+        assertEquals(0, counters.pending.sum());
+    }
+
+    @Test
+    void blockDropsWhenOverflowIsFull() {
+        var subscription = subscription(DeliveryOptions.block(2, Duration.ofSeconds(10)));
+        for (int i = 1; i <= 6; i++) {
+            subscription.offer(i);
+        }
+        subscription.drain();
+
+        assertEquals(List.of(1, 2, 3, 4), delivered);
+        assertEquals(2, counters.dropped.sum());
+    }
+
+    @Test
+    void blockDropsEventsWhichWaitedTooLong() throws InterruptedException {
+        var subscription = subscription(DeliveryOptions.block(1, Duration.ofMillis(10)));
+        subscription.offer(1);
+        subscription.offer(2);
+        Thread.sleep(50);
+        subscription.drain();
+
+        assertEquals(List.of(1), delivered);
+        assertEquals(1, counters.dropped.sum());
+        assertEquals(0, counters.pending.sum());
+    }
+
+    @Test
+    void discardClearsQueueAndOverflow() {
+        var subscription = subscription(DeliveryOptions.block(1, Duration.ofSeconds(10)));
+        subscription.offer(1);
+        subscription.offer(2);
+
+        subscription.discard();
+        subscription.drain();
+
+        assertEquals(List.of(), delivered);
+        assertEquals(0, counters.pending.sum());
+    }
+}
@@ -0,0 +1,101 @@
+package be.webtechie.vaadin.pi4j.event;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UiDispatcherTest {
+
+    private static final int MAX_FAILURES = 3;
+
+    /**
+     * UI of which {@code access()} fails a number of times before it runs the command in the calling thread.
+     */
+    private static final class FailingUI extends UI {
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        @Override
+        public Future<Void> access(Command command) {
+            attempts.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("UI is detached");
+            }
+            command.execute();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private final SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+    private final FailingUI ui = new FailingUI();
+    private final UiDispatcher dispatcher = new UiDispatcher(ui, Runnable::run, scheduler, Duration.ZERO, MAX_FAILURES);
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.close();
+    }
+
+    @Test
+    void deliveriesRunImmediatelyWithinAccess() {
+        dispatcher.submit(() -> delivered.add("first"));
+        dispatcher.submit(() -> delivered.add("second"));
+
+        assertEquals(List.of("first", "second"), delivered);
+        assertEquals(2, ui.attempts.get());
+    }
+
+    @Test
+    void failedAccessIsRetriedWithoutLosingDeliveries() throws InterruptedException {
+        ui.failuresLeft.set(1);
+        dispatcher.submit(() -> delivered.add("first"));
+        assertEquals(1, dispatcher.getConsecutiveFailures());
+
+        assertTrue(waitFor(() -> delivered.size() == 1));
+        assertEquals(List.of("first"), delivered);
+        assertEquals(0, dispatcher.getConsecutiveFailures());
+    }
+
+    @Test
+    void everyFailedAttemptCountsUntilTheLimit() throws InterruptedException {
+        ui.failuresLeft.set(Integer.MAX_VALUE);
+        dispatcher.submit(() -> delivered.add("first"));
+
+        assertTrue(waitFor(() -> dispatcher.getConsecutiveFailures() == MAX_FAILURES));
+        Thread.sleep(UiDispatcher.RETRY_DELAY.multipliedBy(2).toMillis());
+        // No more retries once given up
+        assertEquals(MAX_FAILURES, ui.attempts.get());
+        assertEquals(List.of(), delivered);
+
+        // A new delivery tries again, and the kept deliveries run first
+        ui.failuresLeft.set(0);
+        dispatcher.submit(() -> delivered.add("second"));
+        assertEquals(List.of("first", "second"), delivered);
+        assertEquals(0, dispatcher.getConsecutiveFailures());
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
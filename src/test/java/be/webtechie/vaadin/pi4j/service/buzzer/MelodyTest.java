@@ -0,0 +1,44 @@
+package be.webtechie.vaadin.pi4j.service.buzzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MelodyTest {
+
+    @Test
+    void scheduleFollowsNotes() {
+        var melody = Melody.of("Test", List.of(new PlayNote(Note.A4, 200), new PlayNote(Note.C5, 300)));
+
+        assertEquals("Test", melody.getName());
+        assertEquals(2, melody.size());
+        assertEquals(440, melody.frequency(0));
+        assertEquals(300, melody.duration(1));
+        assertEquals(new PlayNote(Note.C5, 300), melody.note(1));
+    }
+
+    @Test
+    void endTimesAreCumulative() {
+        var melody = Melody.of("Test", List.of(new PlayNote(Note.A4, 200), new PlayNote(Note.C5, 300),
+                new PlayNote(Note.E5, 100)));
+
+        assertEquals(200, melody.endMs(0));
+        assertEquals(500, melody.endMs(1));
+        assertEquals(600, melody.endMs(2));
+        assertEquals(600, melody.getDurationMs());
+    }
+
+    @Test
+    void negativeDurationDoesNotMoveEndBack() {
+        var melody = Melody.of("Test", List.of(new PlayNote(Note.A4, 200), new PlayNote(Note.C5, -50)));
+
+        assertEquals(200, melody.endMs(1));
+    }
+
+    @Test
+    void emptyMelodyTakesNoTime() {
+        assertEquals(0, Melody.of("Empty", List.of()).getDurationMs());
+    }
+}
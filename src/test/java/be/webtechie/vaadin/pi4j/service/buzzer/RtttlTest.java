@@ -0,0 +1,74 @@
+package be.webtechie.vaadin.pi4j.service.buzzer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RtttlTest {
+
+    @Test
+    void compilesNotesWithDefaults() {
+        // 120 beats per minute, so a quarter note takes 500ms
+        var melody = Rtttl.compile("Scale:d=4,o=5,b=120:c,d,e,f,g,a,b,c6");
+
+        assertEquals("Scale", melody.getName());
+        assertEquals(8, melody.size());
+        assertEquals(new PlayNote(Note.C5, 500), melody.note(0));
+        assertEquals(new PlayNote(Note.B5, 500), melody.note(6));
+        assertEquals(new PlayNote(Note.C6, 500), melody.note(7));
+        assertEquals(Note.C5.getFrequency(), melody.frequency(0));
+        assertEquals(4000, melody.getDurationMs());
+    }
+
+    @Test
+    void compilesDurationSharpDotAndOctave() {
+        var melody = Rtttl.compile("Test:d=4,o=5,b=120:8c#6,2a.,a4.,16f#");
+
+        assertEquals(new PlayNote(Note.CS6, 250), melody.note(0));
+        // A dot makes the note 1.5 times longer, before or after the octave
+        assertEquals(new PlayNote(Note.A5, 1500), melody.note(1));
+        assertEquals(new PlayNote(Note.A4, 750), melody.note(2));
+        assertEquals(new PlayNote(Note.FS5, 125), melody.note(3));
+    }
+
+    @Test
+    void restHasNoNoteAndNoFrequency() {
+        var melody = Rtttl.compile("Rest:d=8,o=5,b=60:c,p,c");
+
+        assertEquals(3, melody.size());
+        assertNull(melody.note(1));
+        assertEquals(0, melody.frequency(1));
+        assertEquals(500, melody.duration(1));
+        assertEquals(1500, melody.getDurationMs());
+    }
+
+    @Test
+    void usesStandardDefaultsWhenMissing() {
+        // d=4, o=6, b=63
+        var melody = Rtttl.compile(":: a");
+
+        assertEquals("Melody", melody.getName());
+        assertEquals(new PlayNote(Note.A6, 4 * 60_000 / 63 / 4), melody.note(0));
+    }
+
+    @Test
+    void sameTextReturnsCachedMelody() {
+        var melody = Rtttl.compile("Cached:d=4,o=5,b=100:c,e,g");
+
+        assertSame(melody, Rtttl.compile("  Cached:d=4,o=5,b=100:c,e,g  "));
+    }
+
+    @Test
+    void rejectsInvalidText() {
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("No sections"));
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("Bad:x=4:c"));
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("Bad:d=0:c"));
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("Bad:d=4:h"));
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("Bad:d=4:c5x"));
+        // Below A0
+        assertThrows(IllegalArgumentException.class, () -> Rtttl.compile("Bad:d=4:c0"));
+    }
+}
@@ -0,0 +1,79 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IrActionTableTest {
+
+    // Different names with the same hash code, so their mappings have the same key
+    private static final String PROTOCOL = "Aa";
+    private static final String COLLIDING_PROTOCOL = "BB";
+
+    private final IrActionTable table = new IrActionTable();
+
+    @Test
+    void protocolsWithSameHashAreKeptApart() {
+        assertEquals(PROTOCOL.hashCode(), COLLIDING_PROTOCOL.hashCode());
+
+        table.put(new IrActionMapping(PROTOCOL, 0x45, new IrAction.Beep(100)));
+        table.put(new IrActionMapping(COLLIDING_PROTOCOL, 0x45, new IrAction.Beep(200)));
+
+        assertEquals(2, table.size());
+        assertEquals(new IrAction.Beep(100), table.get(PROTOCOL, 0x45).action());
+        assertEquals(new IrAction.Beep(200), table.get(COLLIDING_PROTOCOL, 0x45).action());
+    }
+
+    @Test
+    void removeOnlyRemovesMappingOfProtocol() {
+        table.put(new IrActionMapping(PROTOCOL, 0x45, new IrAction.Beep(100)));
+        table.put(new IrActionMapping(COLLIDING_PROTOCOL, 0x45, new IrAction.Beep(200)));
+
+        assertTrue(table.remove(COLLIDING_PROTOCOL, 0x45));
+        assertFalse(table.remove(COLLIDING_PROTOCOL, 0x45));
+
+        assertNull(table.get(COLLIDING_PROTOCOL, 0x45));
+        assertEquals(new IrAction.Beep(100), table.get(PROTOCOL, 0x45).action());
+    }
+
+    @Test
+    void putReplacesMappingOfSameCode() {
+        table.put(new IrActionMapping("NEC", 0x45, new IrAction.Beep(100)));
+        table.put(new IrActionMapping("NEC", 0x45, new IrAction.ToggleLed()));
+
+        assertEquals(1, table.size());
+        assertEquals(new IrAction.ToggleLed(), table.get("NEC", 0x45).action());
+    }
+
+    @Test
+    void unknownCodeHasNoMapping() {
+        table.put(new IrActionMapping("NEC", 0x45, new IrAction.Beep(100)));
+
+        assertNull(table.get("NEC", 0x46));
+        assertNull(table.get("RC5", 0x45));
+        assertNull(table.get(IrActionMapping.ANY_PROTOCOL, 0x45));
+    }
+
+    @Test
+    void tableGrowsAndKeepsAllMappings() {
+        List<IrActionMapping> mappings = new ArrayList<>();
+        for (int code = 0; code < 100; code++) {
+            mappings.add(new IrActionMapping(code % 2 == 0 ? PROTOCOL : COLLIDING_PROTOCOL, code,
+                    new IrAction.SegmentValue(code)));
+        }
+        table.replaceAll(mappings);
+
+        assertEquals(100, table.size());
+        assertEquals(100, table.mappings().size());
+        for (var mapping : mappings) {
+            assertEquals(mapping, table.get(mapping.protocol(), mapping.code()));
+        }
+        assertNull(table.get(PROTOCOL, 1));
+    }
+}
@@ -0,0 +1,186 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pulse trains to benchmark the decoders with, either generated for every supported protocol or read from a
+ * trace recorded with {@code ir.trace.record}.
+ *
+ * <p>Generated pulses get a fixed pseudo-random jitter of up to 8%, comparable to a capture on the Pi, so the
+ * results can be compared between runs.
+ */
+final class IrCorpus {
+
+    private static final double JITTER = 0.08;
+
+    private IrCorpus() {
+        // Utility class
+    }
+
+    /**
+     * @param tracePath Trace file to read the frames from, or empty for the generated frames
+     */
+    static int[][] load(String tracePath) throws IOException {
+        if (!tracePath.isBlank()) {
+            return IrTrace.read(Path.of(tracePath)).stream()
+                    .map(IrTrace.Frame::pulses)
+                    .toArray(int[][]::new);
+        }
+        var random = new Random(42);
+        List<int[]> frames = new ArrayList<>();
+        for (int command = 0; command < 32; command++) {
+            frames.add(jitter(random, sirc(command * 3 + 1, 0x01)));
+            frames.add(jitter(random, nec(0x00, command + 0x40)));
+            frames.add(jitter(random, necRepeat()));
+            frames.add(jitter(random, samsung32(0x07, command + 0x02)));
+            frames.add(jitter(random, rc5(command & 1, 0x05, command * 2)));
+            frames.add(jitter(random, rc6(command & 1, 0x00, command * 5)));
+        }
+        return frames.toArray(int[][]::new);
+    }
+
+    /**
+     * Sony SIRC 12-bit frame: 2400us start mark, 600us spaces, marks of 1200us for a 1 and 600us for a 0.
+     */
+    static int[] sirc(int command, int device) {
+        int data = (command & 0x7F) | ((device & 0x1F) << 7);
+        var pulses = new PulseList();
+        pulses.add(2400, 600);
+        for (int bit = 0; bit < 12; bit++) {
+            pulses.add(((data >> bit) & 1) == 1 ? 1200 : 600);
+            if (bit < 11) {
+                pulses.add(600);
+            }
+        }
+        return pulses.toArray();
+    }
+
+    static int[] nec(int address, int command) {
+        return pulseDistance(9000, address, ~address & 0xFF, command);
+    }
+
+    /**
+     * Extended NEC frame, of which the second byte is the high byte of a 16-bit address.
+     */
+    static int[] necExtended(int address, int command) {
+        return pulseDistance(9000, address & 0xFF, (address >> 8) & 0xFF, command);
+    }
+
+    static int[] necRepeat() {
+        return new int[]{9000, 2250, 560};
+    }
+
+    static int[] samsung32(int address, int command) {
+        return pulseDistance(4500, address, address, command);
+    }
+
+    /**
+     * RC5 frame of 14 Manchester bits of 1778us, a 1 is a space followed by a mark.
+     */
+    static int[] rc5(int toggle, int address, int command) {
+        int data = (1 << 13) | ((command & 0x40) == 0 ? 1 << 12 : 0) | (toggle << 11)
+                | ((address & 0x1F) << 6) | (command & 0x3F);
+        var units = new ArrayList<Boolean>();
+        for (int bit = 13; bit >= 0; bit--) {
+            boolean one = ((data >> bit) & 1) == 1;
+            units.add(!one);
+            units.add(one);
+        }
+        return toPulses(units, 889);
+    }
+
+    /**
+     * RC6 mode 0 frame: leader, start bit, mode bits, double-length toggle bit, address and command.
+     * A 1 is a mark followed by a space, the opposite of RC5.
+     */
+    static int[] rc6(int toggle, int address, int command) {
+        var units = new ArrayList<Boolean>();
+        for (int i = 0; i < 6; i++) {
+            units.add(true);
+        }
+        units.add(false);
+        units.add(false);
+        units.add(true);
+        units.add(false);
+        for (int i = 0; i < 3; i++) {
+            units.add(false);
+            units.add(true);
+        }
+        boolean toggled = toggle == 1;
+        units.add(toggled);
+        units.add(toggled);
+        units.add(!toggled);
+        units.add(!toggled);
+        int data = ((address & 0xFF) << 8) | (command & 0xFF);
+        for (int bit = 15; bit >= 0; bit--) {
+            boolean one = ((data >> bit) & 1) == 1;
+            units.add(one);
+            units.add(!one);
+        }
+        return toPulses(units, 444);
+    }
+
+    /**
+     * NEC-style frame: leader, 32 bits LSB first of 560us marks followed by a 1690us (1) or 560us (0) space.
+     */
+    private static int[] pulseDistance(int leaderMark, int address, int addressHigh, int command) {
+        int data = (address & 0xFF) | ((addressHigh & 0xFF) << 8) | ((command & 0xFF) << 16)
+                | ((~command & 0xFF) << 24);
+        var pulses = new PulseList();
+        pulses.add(leaderMark, 4500);
+        for (int bit = 0; bit < 32; bit++) {
+            pulses.add(560, ((data >>> bit) & 1) == 1 ? 1690 : 560);
+        }
+        pulses.add(560);
+        return pulses.toArray();
+    }
+
+    /**
+     * Merges units of equal level into pulses, starting with the first mark and ending with the last one.
+     */
+    private static int[] toPulses(List<Boolean> units, int unitUs) {
+        int start = units.indexOf(true);
+        int end = units.lastIndexOf(true);
+        var pulses = new PulseList();
+        int length = 0;
+        for (int i = start; i <= end; i++) {
+            length++;
+            if (i == end || !units.get(i + 1).equals(units.get(i))) {
+                pulses.add(length * unitUs);
+                length = 0;
+            }
+        }
+        return pulses.toArray();
+    }
+
+    private static int[] jitter(Random random, int[] pulses) {
+        for (int i = 0; i < pulses.length; i++) {
+            pulses[i] = (int) Math.round(pulses[i] * (1 + (random.nextDouble() * 2 - 1) * JITTER));
+        }
+        return pulses;
+    }
+
+    private static final class PulseList {
+
+        private int[] pulses = new int[80];
+        private int length = 0;
+
+        void add(int... durations) {
+            for (int duration : durations) {
+                if (length == pulses.length) {
+                    pulses = Arrays.copyOf(pulses, length * 2);
+                }
+                pulses[length++] = duration;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(pulses, length);
+        }
+    }
+}
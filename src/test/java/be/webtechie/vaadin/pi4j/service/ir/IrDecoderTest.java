@@ -0,0 +1,218 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IrDecoderTest {
+
+    private static int decode(IrDecoder decoder, int[] pulses) {
+        return decoder.decode(pulses, pulses.length);
+    }
+
+    @Test
+    void sircDecodesCommand() {
+        var decoder = new SonySircDecoder();
+        assertEquals(0x15, decode(decoder, IrCorpus.sirc(0x15, 0x01)));
+        assertEquals(0x7F, decode(decoder, IrCorpus.sirc(0x7F, 0x1F)));
+    }
+
+    @Test
+    void necDecodesCommandAndRepeats() {
+        var decoder = new NecDecoder();
+        assertEquals(0x45, decode(decoder, IrCorpus.nec(0x00, 0x45)));
+        assertFalse(decoder.isRepeat());
+
+        assertEquals(0x45, decode(decoder, IrCorpus.necRepeat()));
+        assertTrue(decoder.isRepeat());
+    }
+
+    @Test
+    void necRepeatIsOnlyAcceptedShortlyAfterPreviousFrame() {
+        long[] now = {0};
+        var decoder = new NecDecoder(() -> now[0]);
+        assertEquals(-1, decode(decoder, IrCorpus.necRepeat()));
+
+        assertEquals(0x45, decode(decoder, IrCorpus.nec(0x00, 0x45)));
+        now[0] += 108_000_000;
+        assertEquals(0x45, decode(decoder, IrCorpus.necRepeat()));
+        now[0] += 108_000_000;
+        assertEquals(0x45, decode(decoder, IrCorpus.necRepeat()));
+
+        // A repeat after the key was released long ago doesn't repeat the stale command
+        now[0] += NecDecoder.REPEAT_TIMEOUT_NANOS + 1;
+        assertEquals(-1, decode(decoder, IrCorpus.necRepeat()));
+        now[0] += 50_000_000;
+        assertEquals(-1, decode(decoder, IrCorpus.necRepeat()));
+    }
+
+    @Test
+    void necReportsStandardAndExtendedAddressUnderOneName() {
+        var decoder = new NecDecoder();
+        assertEquals(0x45, decode(decoder, IrCorpus.nec(0x04, 0x45)));
+        assertEquals("NEC", decoder.name());
+        assertEquals(0x04, decoder.address());
+        assertFalse(decoder.isExtended());
+
+        // Second address byte isn't the inverse of the first one
+        assertEquals(0x45, decode(decoder, IrCorpus.necExtended(0x1234, 0x45)));
+        assertEquals("NEC", decoder.name());
+        assertEquals(0x1234, decoder.address());
+        assertTrue(decoder.isExtended());
+
+        // A repeat frame has no address, it belongs to the previous frame
+        assertEquals(0x45, decode(decoder, IrCorpus.necRepeat()));
+        assertEquals(0x1234, decoder.address());
+        assertTrue(decoder.isExtended());
+    }
+
+    @Test
+    void necStandardAndExtendedAddressOfSameNumberDifferOnlyInExtendedFlag() {
+        var decoder = new NecDecoder();
+        decode(decoder, IrCorpus.nec(0xAB, 0x45));
+        int standard = decoder.address();
+        assertFalse(decoder.isExtended());
+        decode(decoder, IrCorpus.necExtended(0x00AB, 0x45));
+
+        assertEquals(0xAB, standard);
+        assertEquals(0x00AB, decoder.address());
+        assertTrue(decoder.isExtended());
+    }
+
+    @Test
+    void decodersReportAddress() {
+        var sirc = new SonySircDecoder();
+        decode(sirc, IrCorpus.sirc(0x15, 0x11));
+        assertEquals(0x11, sirc.address());
+
+        var samsung = new Samsung32Decoder();
+        decode(samsung, IrCorpus.samsung32(0x07, 0x02));
+        assertEquals(0x07, samsung.address());
+
+        var rc5 = new Rc5Decoder();
+        decode(rc5, IrCorpus.rc5(0, 0x05, 0x4B));
+        assertEquals(0x05, rc5.address());
+
+        var rc6 = new Rc6Decoder();
+        decode(rc6, IrCorpus.rc6(0, 0x27, 0x0C));
+        assertEquals(0x27, rc6.address());
+
+        var raw = new RawDecoder();
+        decode(raw, IrCorpus.nec(0x00, 0x45));
+        assertEquals(-1, raw.address());
+    }
+
+    @Test
+    void necRepeatWithoutPreviousFrameFails() {
+        assertEquals(-1, decode(new NecDecoder(), IrCorpus.necRepeat()));
+    }
+
+    @Test
+    void necRejectsInvalidCommandChecksum() {
+        int[] pulses = IrCorpus.nec(0x00, 0x45);
+        // First bit of the inverted command, a 0 for command 0x45, turned into a 1
+        pulses[2 + 2 * 24 + 1] = 1690;
+        assertEquals(-1, decode(new NecDecoder(), pulses));
+    }
+
+    @Test
+    void samsung32DecodesCommand() {
+        assertEquals(0x02, decode(new Samsung32Decoder(), IrCorpus.samsung32(0x07, 0x02)));
+    }
+
+    @Test
+    void rc5DecodesCommandAndDetectsRepeatByToggleBit() {
+        var decoder = new Rc5Decoder();
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc5(0, 0x05, 0x0C)));
+        assertFalse(decoder.isRepeat());
+
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc5(0, 0x05, 0x0C)));
+        assertTrue(decoder.isRepeat());
+
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc5(1, 0x05, 0x0C)));
+        assertFalse(decoder.isRepeat());
+    }
+
+    @Test
+    void rc5DecodesExtendedCommand() {
+        assertEquals(0x4B, decode(new Rc5Decoder(), IrCorpus.rc5(0, 0x05, 0x4B)));
+    }
+
+    @Test
+    void rc5DecodesCommandEndingWithZeroBitAtEndOfFrame() {
+        // The space of the last 0 bit only ends with the frame
+        assertEquals(0x3E, decode(new Rc5Decoder(), IrCorpus.rc5(1, 0x05, 0x3E)));
+    }
+
+    @Test
+    void rc6DecodesCommandAndDetectsRepeatByToggleBit() {
+        var decoder = new Rc6Decoder();
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc6(0, 0x00, 0x0C)));
+        assertFalse(decoder.isRepeat());
+
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc6(0, 0x00, 0x0C)));
+        assertTrue(decoder.isRepeat());
+
+        assertEquals(0x0C, decode(decoder, IrCorpus.rc6(1, 0x00, 0x0C)));
+        assertFalse(decoder.isRepeat());
+    }
+
+    @Test
+    void rc6DecodesCommandEndingWithOneBitAtEndOfFrame() {
+        // The space of the last 1 bit only ends with the frame
+        assertEquals(0xFF, decode(new Rc6Decoder(), IrCorpus.rc6(0, 0x00, 0xFF)));
+    }
+
+    @Test
+    void rawGivesSameCodeForSamePattern() {
+        var decoder = new RawDecoder();
+        int[] pulses = IrCorpus.nec(0x00, 0x45);
+        int code = decode(decoder, pulses);
+
+        assertTrue(code >= 0);
+        assertEquals(code, decode(decoder, pulses));
+        assertEquals(-1, decode(decoder, new int[]{9000, 4500, 560}));
+    }
+
+    @Test
+    void decodersRejectFramesOfOtherProtocols() {
+        var frames = List.of(IrCorpus.sirc(0x15, 0x01), IrCorpus.nec(0x00, 0x45), IrCorpus.samsung32(0x07, 0x02),
+                IrCorpus.rc5(0, 0x05, 0x0C), IrCorpus.rc6(0, 0x00, 0x0C));
+        List<IrDecoder> decoders = List.of(new SonySircDecoder(), new NecDecoder(), new Samsung32Decoder(),
+                new Rc5Decoder(), new Rc6Decoder());
+
+        for (int d = 0; d < decoders.size(); d++) {
+            for (int f = 0; f < frames.size(); f++) {
+                if (d != f) {
+                    assertEquals(-1, decode(decoders.get(d), frames.get(f)),
+                            decoders.get(d).name() + " decoded frame " + f);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodersTolerateJitter() {
+        var random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            int command = random.nextInt(0x40);
+            assertEquals(command, decode(new SonySircDecoder(), jitter(random, IrCorpus.sirc(command, 0x01))));
+            assertEquals(command, decode(new NecDecoder(), jitter(random, IrCorpus.nec(0x00, command))));
+            assertEquals(command, decode(new Samsung32Decoder(), jitter(random, IrCorpus.samsung32(0x07, command))));
+            assertEquals(command, decode(new Rc5Decoder(), jitter(random, IrCorpus.rc5(0, 0x05, command))));
+            assertEquals(command, decode(new Rc6Decoder(), jitter(random, IrCorpus.rc6(0, 0x00, command))));
+        }
+    }
+
+    private static int[] jitter(Random random, int[] pulses) {
+        for (int i = 0; i < pulses.length; i++) {
+            pulses[i] = (int) Math.round(pulses[i] * (1 + (random.nextDouble() * 2 - 1) * 0.08));
+        }
+        return pulses;
+    }
+}
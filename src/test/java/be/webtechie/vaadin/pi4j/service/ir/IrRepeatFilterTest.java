@@ -0,0 +1,50 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IrRepeatFilterTest {
+
+    private static final long WINDOW = 150_000_000;
+    private static final long MS = 1_000_000;
+
+    private final IrRepeatFilter filter = new IrRepeatFilter(WINDOW);
+
+    @Test
+    void sameFrameWithinWindowIsRepeat() {
+        assertFalse(filter.repeats("SIRC", 0x15, 0x01, false, 0));
+        assertTrue(filter.repeats("SIRC", 0x15, 0x01, false, 45 * MS));
+        // The window starts again at every repeat
+        assertTrue(filter.repeats("SIRC", 0x15, 0x01, false, 180 * MS));
+    }
+
+    @Test
+    void sameFrameAfterWindowIsNewPress() {
+        assertFalse(filter.repeats("SIRC", 0x15, 0x01, false, 0));
+        assertFalse(filter.repeats("SIRC", 0x15, 0x01, false, WINDOW));
+    }
+
+    @Test
+    void otherCodeProtocolOrAddressIsNewPress() {
+        assertFalse(filter.repeats("SIRC", 0x15, 0x01, false, 0));
+        assertFalse(filter.repeats("SIRC", 0x16, 0x01, false, 10 * MS));
+        assertFalse(filter.repeats("RC5", 0x16, 0x01, false, 20 * MS));
+        assertFalse(filter.repeats("RC5", 0x16, 0x02, false, 30 * MS));
+    }
+
+    @Test
+    void necStandardAndExtendedFrameBackToBackAreNotRepeats() {
+        var decoder = new NecDecoder();
+        long now = 0;
+        for (var frame : new int[][]{IrCorpus.nec(0xAB, 0x45), IrCorpus.necExtended(0x00AB, 0x45),
+                IrCorpus.nec(0xAB, 0x45)}) {
+            int code = decoder.decode(frame, frame.length);
+            // Both remotes report address 0xAB, only the address format tells them apart
+            assertFalse(filter.repeats(decoder.name(), code, decoder.address(), decoder.isExtended(), now),
+                    "Frame at " + now / MS + "ms");
+            now += 50 * MS;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IrStreamDecoderTest {
+
+    private final IrStreamDecoder decoder = new IrStreamDecoder(List.of(new SonySircDecoder(), new NecDecoder(),
+            new Samsung32Decoder(), new Rc5Decoder(), new Rc6Decoder()), new RawDecoder());
+
+    /**
+     * Feeds the frame like the capture does.
+     *
+     * @return Number of pulses fed until the frame was decoded, or the frame length if it only ended then
+     */
+    private int receive(int[] pulses) {
+        decoder.reset();
+        for (int i = 0; i < pulses.length; i++) {
+            if (decoder.feed(pulses[i])) {
+                return i + 1;
+            }
+        }
+        decoder.end();
+        return pulses.length;
+    }
+
+    @Test
+    void everyProtocolIsMatchedByItsDecoder() {
+        receive(IrCorpus.sirc(0x15, 0x01));
+        assertInstanceOf(SonySircDecoder.class, decoder.matched());
+        assertEquals(0x15, decoder.code());
+
+        receive(IrCorpus.nec(0x00, 0x45));
+        assertInstanceOf(NecDecoder.class, decoder.matched());
+        assertEquals(0x45, decoder.code());
+
+        receive(IrCorpus.samsung32(0x07, 0x02));
+        assertInstanceOf(Samsung32Decoder.class, decoder.matched());
+        assertEquals(0x02, decoder.code());
+
+        receive(IrCorpus.rc5(0, 0x05, 0x0C));
+        assertInstanceOf(Rc5Decoder.class, decoder.matched());
+        assertEquals(0x0C, decoder.code());
+
+        receive(IrCorpus.rc6(0, 0x00, 0x0C));
+        assertInstanceOf(Rc6Decoder.class, decoder.matched());
+        assertEquals(0x0C, decoder.code());
+    }
+
+    @Test
+    void addressOfMatchedFrameIsKept() {
+        receive(IrCorpus.necExtended(0x1234, 0x45));
+        assertEquals(0x1234, decoder.address());
+        assertTrue(decoder.isExtended());
+
+        receive(IrCorpus.sirc(0x15, 0x01));
+        assertEquals(0x01, decoder.address());
+        assertFalse(decoder.isExtended());
+
+        decoder.reset();
+        assertEquals(-1, decoder.address());
+    }
+
+    @Test
+    void codeIsAvailableBeforeTheFrameEnds() {
+        int[] pulses = IrCorpus.nec(0x00, 0x45);
+        // The final mark after the last bit isn't needed
+        assertEquals(pulses.length - 1, receive(pulses));
+        assertTrue(decoder.feed(560));
+    }
+
+    @Test
+    void repeatFrameIsReported() {
+        receive(IrCorpus.nec(0x00, 0x45));
+        assertFalse(decoder.isRepeat());
+
+        receive(IrCorpus.necRepeat());
+        assertTrue(decoder.isRepeat());
+        assertEquals(0x45, decoder.code());
+    }
+
+    @Test
+    void fallbackOnlyDecodesUnknownFrames() {
+        int[] unknown = {3000, 3000, 500, 500, 500, 1500, 500, 500, 500, 1500, 500, 500};
+        receive(unknown);
+
+        assertFalse(decoder.isMatching());
+        assertInstanceOf(RawDecoder.class, decoder.matched());
+    }
+
+    @Test
+    void tooShortUnknownFrameIsNotDecoded() {
+        receive(new int[]{3000, 3000, 500});
+
+        assertNull(decoder.matched());
+        assertEquals(-1, decoder.code());
+    }
+
+    @Test
+    void matchedDecoderMovesToFront() {
+        assertInstanceOf(SonySircDecoder.class, decoder.decoder(0));
+
+        receive(IrCorpus.rc6(0, 0x00, 0x0C));
+        decoder.reset();
+
+        assertInstanceOf(Rc6Decoder.class, decoder.decoder(0));
+        assertInstanceOf(SonySircDecoder.class, decoder.decoder(1));
+        assertInstanceOf(Rc5Decoder.class, decoder.decoder(4));
+    }
+
+    @Test
+    void candidatesRecognizedTheLeader() {
+        receive(IrCorpus.nec(0x00, 0x45));
+
+        for (int i = 0; i < decoder.decoderCount(); i++) {
+            var candidate = decoder.decoder(i) instanceof NecDecoder;
+            assertEquals(candidate, decoder.isCandidate(i), decoder.decoder(i).name());
+        }
+    }
+}
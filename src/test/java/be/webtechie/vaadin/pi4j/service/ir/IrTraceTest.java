@@ -0,0 +1,127 @@
+package be.webtechie.vaadin.pi4j.service.ir;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IrTraceTest {
+
+    @Test
+    void framesRoundTrip() throws IOException {
+        var path = Files.createTempFile("ir-trace", ".bin");
+        try {
+            int[] nec = IrCorpus.nec(0x00, 0x45);
+            int[] rc6 = IrCorpus.rc6(1, 0x00, 0x0C);
+            // Only the given length of the reused pulse array is written
+            int[] reused = Arrays.copyOf(nec, nec.length + 10);
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(reused, nec.length);
+                writer.write(rc6, rc6.length);
+            }
+
+            var frames = IrTrace.read(path);
+            assertEquals(2, frames.size());
+            assertEquals(0, frames.get(0).delayMs());
+            assertArrayEquals(nec, frames.get(0).pulses());
+            assertTrue(frames.get(1).delayMs() >= 0);
+            assertArrayEquals(rc6, frames.get(1).pulses());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void writerAppendsToExistingTrace() throws IOException {
+        var path = Files.createTempFile("ir-trace", ".bin");
+        try {
+            int[] sirc = IrCorpus.sirc(0x15, 0x01);
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(sirc, sirc.length);
+            }
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(sirc, sirc.length);
+            }
+
+            var frames = IrTrace.read(path);
+            assertEquals(2, frames.size());
+            assertArrayEquals(sirc, frames.get(1).pulses());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void largeDurationsRoundTrip() throws IOException {
+        var path = Files.createTempFile("ir-trace", ".bin");
+        try {
+            int[] pulses = {0, 127, 128, 16_383, 16_384, Integer.MAX_VALUE};
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(pulses, pulses.length);
+            }
+
+            assertArrayEquals(pulses, IrTrace.read(path).get(0).pulses());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void necFrameTakesAboutTwoBytesPerPulse() throws IOException {
+        var path = Files.createTempFile("ir-trace", ".bin");
+        try {
+            int[] nec = IrCorpus.nec(0x00, 0x45);
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(nec, nec.length);
+            }
+
+            // Magic, delay and length, plus the pulses
+            assertTrue(Files.size(path) <= 4 + 2 + nec.length * 2L);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        var other = new ByteArrayInputStream(new byte[]{'P', 'K', 3, 4});
+        assertThrows(IOException.class, () -> IrTrace.read(other));
+    }
+
+    @Test
+    void rejectsTruncatedFrame() {
+        // One frame of 3 pulses, of which only 1 is there
+        var truncated = new ByteArrayInputStream(new byte[]{'I', 'R', 'T', '1', 0, 3, 100});
+        assertThrows(EOFException.class, () -> IrTrace.read(truncated));
+    }
+
+    @Test
+    void emptyTraceHasNoFrames() throws IOException {
+        var empty = new ByteArrayInputStream(new byte[]{'I', 'R', 'T', '1'});
+        assertEquals(0, IrTrace.read(empty).size());
+    }
+
+    @Test
+    void replayedFramesDecodeLikeTheOriginals() throws IOException {
+        var path = Files.createTempFile("ir-trace", ".bin");
+        try {
+            int[] samsung = IrCorpus.samsung32(0x07, 0x02);
+            try (var writer = new IrTrace.Writer(path)) {
+                writer.write(samsung, samsung.length);
+            }
+
+            int[] replayed = IrTrace.read(path).get(0).pulses();
+            assertEquals(0x02, new Samsung32Decoder().decode(replayed, replayed.length));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
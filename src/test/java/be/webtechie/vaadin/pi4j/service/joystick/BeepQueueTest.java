@@ -0,0 +1,127 @@
+package be.webtechie.vaadin.pi4j.service.joystick;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BeepQueueTest {
+
+    private final List<Boolean> switches = new CopyOnWriteArrayList<>();
+    private final BeepQueue queue = new BeepQueue(switches::add);
+
+    @AfterEach
+    void stop() {
+        queue.stop();
+    }
+
+    @Test
+    void beepSwitchesOnAndOffAgain() throws InterruptedException {
+        long start = System.nanoTime();
+        assertTrue(queue.request(50));
+
+        assertTrue(waitFor(() -> switches.size() == 2));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(List.of(true, false), switches);
+        assertEquals(new BeepStats(1, 0, 0), queue.getStats());
+    }
+
+    @Test
+    void requestWhileOnExtendsTheBeep() throws InterruptedException {
+        assertTrue(queue.request(200));
+        Thread.sleep(BeepQueue.MIN_REQUEST_INTERVAL_MS + 10);
+        assertTrue(queue.request(200));
+
+        assertTrue(waitFor(() -> switches.size() == 2));
+        Thread.sleep(50);
+        // One beep, switched once
+        assertEquals(List.of(true, false), switches);
+        assertEquals(new BeepStats(2, 1, 0), queue.getStats());
+    }
+
+    @Test
+    void requestsInQuickSuccessionAreDropped() {
+        assertTrue(queue.request(100));
+        assertFalse(queue.request(100));
+        assertFalse(queue.request(100));
+
+        assertEquals(new BeepStats(3, 0, 2), queue.getStats());
+    }
+
+    @Test
+    void stopSwitchesBeeperOff() throws InterruptedException {
+        assertTrue(queue.request((int) BeepQueue.MAX_ON_MS));
+        assertTrue(waitFor(() -> switches.size() == 1));
+
+        queue.stop();
+
+        assertEquals(List.of(true, false), switches);
+    }
+
+    @Test
+    void failedSwitchOnCancelsTheBeep() throws InterruptedException {
+        var attempts = new CopyOnWriteArrayList<Boolean>();
+        var failing = new BeepQueue(on -> {
+            attempts.add(on);
+            if (on && attempts.size() == 1) {
+                throw new IllegalStateException("I2C write failed");
+            }
+        });
+        try {
+            assertTrue(failing.request(50));
+            assertTrue(waitFor(() -> attempts.size() == 1));
+            Thread.sleep(BeepQueue.MIN_REQUEST_INTERVAL_MS + 10);
+            // Not switched off, as it never went on
+            assertEquals(List.of(true), attempts);
+
+            assertTrue(failing.request(50));
+            assertTrue(waitFor(() -> attempts.size() == 3));
+            assertEquals(List.of(true, true, false), attempts);
+        } finally {
+            failing.stop();
+        }
+    }
+
+    @Test
+    void failedSwitchOffIsRetried() throws InterruptedException {
+        var attempts = new CopyOnWriteArrayList<Boolean>();
+        var failing = new BeepQueue(on -> {
+            attempts.add(on);
+            if (!on && attempts.size() < 4) {
+                throw new IllegalStateException("I2C write failed");
+            }
+        });
+        try {
+            long start = System.nanoTime();
+            assertTrue(failing.request(50));
+
+            assertTrue(waitFor(() -> attempts.size() == 4));
+            assertEquals(List.of(true, false, false, false), attempts);
+            // Two back-offs between the three attempts
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50 + 2 * BeepQueue.OFF_RETRY_MS));
+            Thread.sleep(2 * BeepQueue.OFF_RETRY_MS);
+            // Off now, no more attempts
+            assertEquals(4, attempts.size());
+        } finally {
+            failing.stop();
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import com.pi4j.io.spi.Spi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedMatrixComponentTest {
+
+    private static final List<MatrixSymbol> SYMBOLS = List.of(MatrixSymbol.HEART, MatrixSymbol.CROSS, MatrixSymbol.FULL);
+
+    private final SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+    // Command and data of every SPI write, in the order they reached the chip
+    private final List<byte[]> writes = Collections.synchronizedList(new ArrayList<>());
+    private final LedMatrixComponent matrix = new LedMatrixComponent(recordingSpi(writes), scheduler);
+
+    @AfterEach
+    void shutdown() {
+        matrix.stopAnimation();
+        scheduler.close();
+    }
+
+    @Test
+    void concurrentDrawingSendsWholeFrames() throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (var symbol : SYMBOLS) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                await(start);
+                for (int i = 0; i < 200; i++) {
+                    if (symbol == MatrixSymbol.FULL) {
+                        // Draws pixel by pixel, which must not be sent halfway
+                        matrix.draw(graphics -> graphics.fillRect(0, 0, MAX7219.WIDTH, MAX7219.HEIGHT));
+                    } else {
+                        matrix.print(symbol);
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (var thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+
+        var sent = List.copyOf(writes);
+        assertEquals(SYMBOLS.size() * 200 * MAX7219.HEIGHT, sent.size());
+        for (int frame = 0; frame < sent.size(); frame += MAX7219.HEIGHT) {
+            byte[] rows = new byte[MAX7219.HEIGHT];
+            for (int row = 0; row < MAX7219.HEIGHT; row++) {
+                byte[] write = sent.get(frame + row);
+                assertEquals(row + 1, write[0], "Rows of frame " + frame / MAX7219.HEIGHT + " are interleaved");
+                rows[row] = write[1];
+            }
+            assertTrue(SYMBOLS.stream().anyMatch(symbol -> Arrays.equals(symbol.getRows(), rows)),
+                    "Frame " + frame / MAX7219.HEIGHT + " mixes drawings: " + Arrays.toString(rows));
+        }
+    }
+
+    @Test
+    void transitionEndsWithSymbolInBuffer() throws Exception {
+        matrix.print(MatrixSymbol.CROSS);
+        matrix.transition(MatrixSymbol.HEART, MatrixDirection.LEFT, 1).get(5, TimeUnit.SECONDS);
+
+        byte[] rows = new byte[MAX7219.HEIGHT];
+        for (int y = 0; y < MAX7219.HEIGHT; y++) {
+            for (int x = 0; x < MAX7219.WIDTH; x++) {
+                if (matrix.getPixel(x, y)) {
+                    rows[y] |= (byte) (1 << (MAX7219.WIDTH - 1 - x));
+                }
+            }
+        }
+        assertArrayEquals(MatrixSymbol.HEART.getRows(), rows);
+    }
+
+    private static Spi recordingSpi(List<byte[]> writes) {
+        return (Spi) Proxy.newProxyInstance(Spi.class.getClassLoader(), new Class<?>[]{Spi.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("write") && args.length == 1 && args[0] instanceof byte[] data) {
+                        writes.add(data.clone());
+                        return data.length;
+                    }
+                    return method.getReturnType() == int.class ? 0 : null;
+                });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MatrixSymbolTest {
+
+    @Test
+    void charactersAreFound() {
+        assertSame(MatrixSymbol.A, MatrixSymbol.getByChar('A'));
+        assertSame(MatrixSymbol.ZERO, MatrixSymbol.getByChar('0'));
+        assertSame(MatrixSymbol.SPACE, MatrixSymbol.getByChar(' '));
+        assertSame(MatrixSymbol.TILDE, MatrixSymbol.getByChar('~'));
+    }
+
+    @Test
+    void everyCharacterSymbolIsFoundByItsCharacter() {
+        for (var symbol : MatrixSymbol.values()) {
+            if (symbol.getAscii() >= 0) {
+                assertEquals(symbol.getAscii(), MatrixSymbol.getByChar((char) symbol.getAscii()).getAscii(), symbol.name());
+            }
+        }
+    }
+
+    @Test
+    void unsupportedCharactersAreNotFound() {
+        assertNull(MatrixSymbol.getByChar('\n'));
+        assertNull(MatrixSymbol.getByChar('\u00E9'));
+        assertNull(MatrixSymbol.getByChar('\u20AC'));
+    }
+}
@@ -0,0 +1,130 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatrixTextStripTest {
+
+    private static final int SIZE = 8;
+
+    @Test
+    void stepsIncludeTrailingSpace() {
+        var strip = MatrixTextStrip.of("AB");
+
+        assertEquals(List.of(MatrixSymbol.A, MatrixSymbol.B), strip.getSymbols());
+        assertEquals(3 * SIZE, strip.steps());
+    }
+
+    @Test
+    void firstAndLastStepAreEmpty() {
+        var strip = MatrixTextStrip.of("{HEART}");
+        for (var direction : MatrixDirection.values()) {
+            assertEquals(0, strip.frame(direction, 0), direction.name());
+            assertEquals(0, strip.frame(direction, strip.steps()), direction.name());
+        }
+    }
+
+    @Test
+    void symbolIsFullyShownAfterItsWidth() {
+        var strip = MatrixTextStrip.of("A{HEART}");
+        for (var direction : MatrixDirection.values()) {
+            assertArrayEquals(rows(MatrixSymbol.A), rows(strip.frame(direction, SIZE)), direction.name());
+            assertArrayEquals(rows(MatrixSymbol.HEART), rows(strip.frame(direction, 2 * SIZE)), direction.name());
+        }
+    }
+
+    @Test
+    void leftEntersWithTheLeftColumnAtTheRight() {
+        var strip = MatrixTextStrip.of("{HEART}");
+        int[] heart = rows(MatrixSymbol.HEART);
+        for (int step = 1; step <= SIZE; step++) {
+            int[] frame = rows(strip.frame(MatrixDirection.LEFT, step));
+            for (int y = 0; y < SIZE; y++) {
+                assertEquals(heart[y] >>> (SIZE - step), frame[y], "step " + step + ", row " + y);
+            }
+        }
+    }
+
+    @Test
+    void rightEntersWithTheRightColumnAtTheLeft() {
+        var strip = MatrixTextStrip.of("{HEART}");
+        int[] heart = rows(MatrixSymbol.HEART);
+        for (int step = 1; step <= SIZE; step++) {
+            int[] frame = rows(strip.frame(MatrixDirection.RIGHT, step));
+            for (int y = 0; y < SIZE; y++) {
+                assertEquals((heart[y] << (SIZE - step)) & 0xFF, frame[y], "step " + step + ", row " + y);
+            }
+        }
+    }
+
+    @Test
+    void upEntersWithTheTopRowAtTheBottom() {
+        var strip = MatrixTextStrip.of("{ARROW_UP}");
+        int[] arrow = rows(MatrixSymbol.ARROW_UP);
+        for (int step = 1; step <= SIZE; step++) {
+            int[] frame = rows(strip.frame(MatrixDirection.UP, step));
+            for (int y = 0; y < SIZE; y++) {
+                int row = y - SIZE + step;
+                assertEquals(row < 0 ? 0 : arrow[row], frame[y], "step " + step + ", row " + y);
+            }
+        }
+    }
+
+    @Test
+    void downEntersWithTheBottomRowAtTheTop() {
+        var strip = MatrixTextStrip.of("{ARROW_DOWN}");
+        int[] arrow = rows(MatrixSymbol.ARROW_DOWN);
+        for (int step = 1; step <= SIZE; step++) {
+            int[] frame = rows(strip.frame(MatrixDirection.DOWN, step));
+            for (int y = 0; y < SIZE; y++) {
+                int row = SIZE - step + y;
+                assertEquals(y < step ? arrow[row] : 0, frame[y], "step " + step + ", row " + y);
+            }
+        }
+    }
+
+    @Test
+    void stripsAreCachedByText() {
+        assertSame(MatrixTextStrip.of("cached"), MatrixTextStrip.of("cached"));
+    }
+
+    @Test
+    void symbolNamesAreCaseInsensitive() {
+        assertEquals(List.of(MatrixSymbol.HEART, MatrixSymbol.A), MatrixTextStrip.of("{heart}A").getSymbols());
+    }
+
+    @Test
+    void unknownSymbolNameIsShownAsIs() {
+        assertEquals(List.of(MatrixSymbol.BRACE_LEFT, MatrixSymbol.X, MatrixSymbol.Y, MatrixSymbol.Z,
+                MatrixSymbol.BRACE_RIGHT), MatrixTextStrip.of("{XYZ}").getSymbols());
+        assertEquals(List.of(MatrixSymbol.A, MatrixSymbol.BRACE_LEFT, MatrixSymbol.B),
+                MatrixTextStrip.of("A{B").getSymbols());
+    }
+
+    @Test
+    void unsupportedCharacterIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> MatrixTextStrip.of("A\u20AC"));
+    }
+
+    private static int[] rows(MatrixSymbol symbol) {
+        int[] rows = new int[SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            rows[y] = symbol.getRows()[y] & 0xFF;
+        }
+        return rows;
+    }
+
+    private static int[] rows(long frame) {
+        int[] rows = new int[SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            rows[y] = MatrixTextStrip.row(frame, y);
+        }
+        return rows;
+    }
+}
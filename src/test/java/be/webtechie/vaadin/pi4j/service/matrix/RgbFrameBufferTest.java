@@ -0,0 +1,183 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RgbFrameBufferTest {
+
+    private static final int RED = 0xFF0000;
+
+    /**
+     * 4x3 buffer in which every pixel has its own color: the row in the upper and the column in the lower byte.
+     */
+    private static RgbFrameBuffer numbered(int base) {
+        var buffer = new RgbFrameBuffer(4, 3);
+        for (int y = 0; y < 3; y++) {
+            for (int x = 0; x < 4; x++) {
+                buffer.set(x, y, base + (y << 8) + x + 1);
+            }
+        }
+        return buffer;
+    }
+
+    @Test
+    void pixelsOutsideAreIgnoredAndAlphaIsDropped() {
+        var buffer = new RgbFrameBuffer(4, 3);
+        buffer.set(1, 2, 0xFF000000 | RED);
+        buffer.set(4, 0, RED);
+        buffer.set(-1, 0, RED);
+
+        assertEquals(RED, buffer.get(1, 2));
+        assertEquals(RgbFrameBuffer.BLACK, buffer.get(4, 0));
+        assertEquals(1, countOn(buffer));
+    }
+
+    @Test
+    void blitCopiesBlockWithStride() {
+        var buffer = new RgbFrameBuffer(4, 3);
+        // 2x2 block out of a source with 3 pixels per row
+        int[] source = {1, 2, 9, 3, 4, 9};
+        buffer.blit(source, 3, 2, 2, 1, 1);
+
+        assertArrayEquals(new int[]{
+                0, 0, 0, 0,
+                0, 1, 2, 0,
+                0, 3, 4, 0}, buffer.pixels());
+    }
+
+    @Test
+    void blitClipsAtAllEdges() {
+        int[] source = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+
+        var topLeft = new RgbFrameBuffer(4, 3);
+        topLeft.blit(source, 3, 3, 3, -1, -2);
+        assertArrayEquals(new int[]{
+                8, 9, 0, 0,
+                0, 0, 0, 0,
+                0, 0, 0, 0}, topLeft.pixels());
+
+        var bottomRight = new RgbFrameBuffer(4, 3);
+        bottomRight.blit(source, 3, 3, 3, 2, 1);
+        assertArrayEquals(new int[]{
+                0, 0, 0, 0,
+                0, 0, 1, 2,
+                0, 0, 4, 5}, bottomRight.pixels());
+
+        var outside = new RgbFrameBuffer(4, 3);
+        outside.blit(source, 3, 3, 3, 4, 0);
+        outside.blit(source, 3, 3, 3, -3, 0);
+        assertEquals(0, countOn(outside));
+    }
+
+    @Test
+    void rotateWrapsAroundInEveryDirection() {
+        for (var direction : MatrixDirection.values()) {
+            var buffer = numbered(0);
+            int steps = direction == MatrixDirection.UP || direction == MatrixDirection.DOWN ? 3 : 4;
+            buffer.shift(direction, MatrixScrollMode.ROTATE, null, 0);
+            assertEquals(12, countOn(buffer), direction.name());
+            for (int i = 1; i < steps; i++) {
+                buffer.shift(direction, MatrixScrollMode.ROTATE, null, i);
+            }
+            assertArrayEquals(numbered(0).pixels(), buffer.pixels(), direction.name());
+        }
+    }
+
+    @Test
+    void shiftMovesPixelsTowardsDirection() {
+        var buffer = numbered(0);
+        buffer.shift(MatrixDirection.LEFT, MatrixScrollMode.ROTATE, null, 0);
+        assertEquals(numbered(0).get(1, 0), buffer.get(0, 0));
+        assertEquals(numbered(0).get(0, 0), buffer.get(3, 0));
+
+        buffer = numbered(0);
+        buffer.shift(MatrixDirection.DOWN, MatrixScrollMode.ROTATE, null, 0);
+        assertEquals(numbered(0).get(2, 0), buffer.get(2, 1));
+        assertEquals(numbered(0).get(2, 2), buffer.get(2, 0));
+    }
+
+    @Test
+    void normalLeavesEmptyLine() {
+        var buffer = numbered(0);
+        buffer.shift(MatrixDirection.UP, MatrixScrollMode.NORMAL, null, 0);
+        assertEquals(8, countOn(buffer));
+        assertEquals(RgbFrameBuffer.BLACK, buffer.get(0, 2));
+
+        buffer = numbered(0);
+        buffer.shift(MatrixDirection.RIGHT, MatrixScrollMode.NORMAL, null, 0);
+        assertEquals(9, countOn(buffer));
+        assertEquals(RgbFrameBuffer.BLACK, buffer.get(0, 1));
+    }
+
+    @Test
+    void replacementScrollsInCompletelyInEveryDirection() {
+        for (var direction : MatrixDirection.values()) {
+            var buffer = numbered(0);
+            var replacement = numbered(0x100000);
+            int steps = direction == MatrixDirection.UP || direction == MatrixDirection.DOWN ? 3 : 4;
+            for (int i = 0; i < steps; i++) {
+                buffer.shift(direction, MatrixScrollMode.REPLACE, replacement, i);
+            }
+            assertArrayEquals(replacement.pixels(), buffer.pixels(), direction.name());
+        }
+    }
+
+    @Test
+    void replacementEntersFromTheEdgeItScrollsIn() {
+        var replacement = numbered(0x100000);
+
+        var left = numbered(0);
+        left.shift(MatrixDirection.LEFT, MatrixScrollMode.REPLACE, replacement, 0);
+        // Left column of the replacement appears at the right
+        assertEquals(replacement.get(0, 1), left.get(3, 1));
+
+        var right = numbered(0);
+        right.shift(MatrixDirection.RIGHT, MatrixScrollMode.REPLACE, replacement, 0);
+        assertEquals(replacement.get(3, 1), right.get(0, 1));
+
+        var up = numbered(0);
+        up.shift(MatrixDirection.UP, MatrixScrollMode.REPLACE, replacement, 0);
+        assertEquals(replacement.get(2, 0), up.get(2, 2));
+
+        var down = numbered(0);
+        down.shift(MatrixDirection.DOWN, MatrixScrollMode.REPLACE, replacement, 0);
+        assertEquals(replacement.get(2, 2), down.get(2, 0));
+    }
+
+    @Test
+    void drawSymbolSetsBitsFromTheLeft() {
+        var buffer = new RgbFrameBuffer(8, 8);
+        buffer.fill(RED);
+        buffer.drawSymbol(MatrixSymbol.A, RED);
+
+        byte[] rows = MatrixSymbol.A.getRows();
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                boolean on = ((rows[y] >> (7 - x)) & 1) == 1;
+                assertEquals(on ? RED : RgbFrameBuffer.BLACK, buffer.get(x, y));
+            }
+        }
+    }
+
+    @Test
+    void copyFromNeedsSameSize() {
+        var buffer = new RgbFrameBuffer(4, 3);
+        buffer.copyFrom(numbered(0));
+        assertArrayEquals(numbered(0).pixels(), buffer.pixels());
+
+        assertThrows(IllegalArgumentException.class, () -> buffer.copyFrom(new RgbFrameBuffer(3, 4)));
+    }
+
+    private static int countOn(RgbFrameBuffer buffer) {
+        int count = 0;
+        for (int pixel : buffer.pixels()) {
+            if (pixel != RgbFrameBuffer.BLACK) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
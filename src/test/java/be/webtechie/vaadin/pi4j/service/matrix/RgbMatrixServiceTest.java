@@ -0,0 +1,92 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RgbMatrixServiceTest {
+
+    private final SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+    private final RecordingWs2812bOutput output = new RecordingWs2812bOutput();
+    private final RgbMatrixService matrix = new RgbMatrixService(output, scheduler);
+
+    @AfterEach
+    void shutdown() {
+        matrix.shutdown();
+        scheduler.close();
+    }
+
+    @Test
+    void refreshesAreCoalescedIntoTheLatestFrame() throws InterruptedException {
+        matrix.setBrightness(1.0);
+        int refreshes = 1000;
+        for (int i = 1; i <= refreshes; i++) {
+            matrix.setPixel(0, 0, i & 0xFF);
+            matrix.refresh();
+        }
+
+        // Blue of the last refresh, after the gamma correction
+        int last = Ws2812bEncoder.level(refreshes & 0xFF, Ws2812bEncoder.DEFAULT_GAMMA, 1.0);
+        assertTrue(waitFor(() -> output.getFrameCount() > 0 && output.getColor(0) == last));
+        assertTrue(output.getFrameCount() < refreshes / 10,
+                "Expected coalesced frames, got " + output.getFrameCount());
+    }
+
+    @Test
+    void framesAreLimitedToTheMaximumRate() throws InterruptedException {
+        long start = System.nanoTime();
+        long duration = TimeUnit.MILLISECONDS.toNanos(500);
+        int color = 0;
+        while (System.nanoTime() - start < duration) {
+            matrix.setPixel(1, 1, ++color & 0xFFFFFF);
+            matrix.refresh();
+            Thread.sleep(1);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long maxFrames = elapsedNanos * RgbMatrixService.MAX_FRAMES_PER_SECOND / TimeUnit.SECONDS.toNanos(1) + 2;
+        long frames = output.getFrameCount();
+        assertTrue(frames <= maxFrames, "Sent " + frames + " frames, at most " + maxFrames + " expected");
+        assertTrue(frames > 1, "Refreshing kept sending frames");
+    }
+
+    @Test
+    void brightnessChangeResendsTheFrame() throws InterruptedException {
+        matrix.setBrightness(1.0);
+        matrix.setPixel(0, 0, 0xFF0000);
+        matrix.refresh();
+        assertTrue(waitFor(() -> output.getFrameCount() > 0 && output.getColor(0) == 0xFF0000));
+        long frames = output.getFrameCount();
+
+        matrix.setBrightness(0.5);
+
+        int dimmed = Ws2812bEncoder.level(0xFF, Ws2812bEncoder.DEFAULT_GAMMA, 0.5) << 16;
+        assertTrue(waitFor(() -> output.getFrameCount() > frames && output.getColor(0) == dimmed));
+        assertEquals(0.5, matrix.getBrightness());
+    }
+
+    @Test
+    void brightnessIsClamped() {
+        matrix.setBrightness(2.0);
+        assertEquals(1.0, matrix.getBrightness());
+        matrix.setBrightness(-1.0);
+        assertEquals(0.0, matrix.getBrightness());
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
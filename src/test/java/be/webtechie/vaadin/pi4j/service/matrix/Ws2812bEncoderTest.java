@@ -0,0 +1,112 @@
+package be.webtechie.vaadin.pi4j.service.matrix;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Ws2812bEncoderTest {
+
+    @Test
+    void colorBytesBecomeThreeBitSymbols() {
+        var encoder = new Ws2812bEncoder(1, 1.0);
+        encoder.encode(new int[]{0x00FF00});
+
+        // Green is sent first: 8 times 110
+        byte[] buffer = encoder.buffer();
+        assertEquals((byte) 0b11011011, buffer[0]);
+        assertEquals((byte) 0b01101101, buffer[1]);
+        assertEquals((byte) 0b10110110, buffer[2]);
+        // Red 0: 8 times 100
+        assertEquals((byte) 0b10010010, buffer[3]);
+        assertEquals((byte) 0b01001001, buffer[4]);
+        assertEquals((byte) 0b00100100, buffer[5]);
+    }
+
+    @Test
+    void encodedLedsDecodeInGrbOrder() {
+        int[] pixels = {0xFF0000, 0x00FF00, 0x0000FF, 0x123456, 0xA5C3E1};
+        var encoder = new Ws2812bEncoder(pixels.length, 1.0);
+        encoder.encode(pixels);
+
+        byte[] buffer = encoder.buffer();
+        for (int led = 0; led < pixels.length; led++) {
+            assertEquals(pixels[led], Ws2812bEncoder.decodeLed(buffer, led), "LED " + led);
+        }
+        // Green byte of the second LED
+        assertEquals(0xFF, Ws2812bEncoder.decode(buffer, Ws2812bEncoder.BYTES_PER_LED));
+    }
+
+    @Test
+    void everyValueRoundTrips() {
+        int[] pixels = new int[256];
+        for (int value = 0; value < 256; value++) {
+            pixels[value] = value << 16 | (255 - value) << 8 | value;
+        }
+        var encoder = new Ws2812bEncoder(pixels.length, 1.0);
+        encoder.encode(pixels);
+
+        for (int led = 0; led < pixels.length; led++) {
+            assertEquals(pixels[led], Ws2812bEncoder.decodeLed(encoder.buffer(), led));
+        }
+    }
+
+    @Test
+    void frameEndsWithResetBytes() {
+        var encoder = new Ws2812bEncoder(2, 1.0);
+        int length = encoder.encode(new int[]{0xFFFFFF, 0xFFFFFF});
+
+        assertEquals(2 * Ws2812bEncoder.BYTES_PER_LED + Ws2812bEncoder.RESET_BYTES, length);
+        byte[] reset = new byte[Ws2812bEncoder.RESET_BYTES];
+        byte[] tail = new byte[Ws2812bEncoder.RESET_BYTES];
+        System.arraycopy(encoder.buffer(), 2 * Ws2812bEncoder.BYTES_PER_LED, tail, 0, tail.length);
+        assertArrayEquals(reset, tail);
+    }
+
+    @Test
+    void brightnessAndGammaAreApplied() {
+        var encoder = new Ws2812bEncoder(1, Ws2812bEncoder.DEFAULT_GAMMA);
+        encoder.setBrightness(0.5);
+        encoder.encode(new int[]{0xFF8000});
+
+        int expectedRed = Ws2812bEncoder.level(0xFF, Ws2812bEncoder.DEFAULT_GAMMA, 0.5);
+        int expectedGreen = Ws2812bEncoder.level(0x80, Ws2812bEncoder.DEFAULT_GAMMA, 0.5);
+        assertEquals(128, expectedRed);
+        assertEquals(expectedRed << 16 | expectedGreen << 8, Ws2812bEncoder.decodeLed(encoder.buffer(), 0));
+        assertEquals(0.5, encoder.getBrightness());
+
+        encoder.setBrightness(0.0);
+        encoder.encode(new int[]{0xFFFFFF});
+        assertEquals(0, Ws2812bEncoder.decodeLed(encoder.buffer(), 0));
+    }
+
+    @Test
+    void gammaDimsMidLevels() {
+        assertEquals(255, Ws2812bEncoder.level(255, Ws2812bEncoder.DEFAULT_GAMMA, 1.0));
+        assertEquals(0, Ws2812bEncoder.level(0, Ws2812bEncoder.DEFAULT_GAMMA, 1.0));
+        assertEquals(37, Ws2812bEncoder.level(128, Ws2812bEncoder.DEFAULT_GAMMA, 1.0));
+        assertEquals(128, Ws2812bEncoder.level(128, 1.0, 1.0));
+    }
+
+    @Test
+    void invalidSymbolIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Ws2812bEncoder.decode(new byte[3], 0));
+    }
+
+    @Test
+    void recordingOutputKeepsLastFrame() {
+        var encoder = new Ws2812bEncoder(2, 1.0);
+        var output = new RecordingWs2812bOutput();
+
+        encoder.encode(new int[]{0x112233, 0x445566});
+        output.write(encoder.buffer(), encoder.buffer().length);
+        encoder.encode(new int[]{0x778899, 0xAABBCC});
+        output.write(encoder.buffer(), encoder.buffer().length);
+
+        assertEquals(2, output.getFrameCount());
+        assertEquals(0x778899, output.getColor(0));
+        assertEquals(0xAABBCC, output.getColor(1));
+        assertArrayEquals(encoder.buffer(), output.getLastFrame());
+    }
+}